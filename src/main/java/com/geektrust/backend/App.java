@@ -1,50 +1,144 @@
 package com.geektrust.backend;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.InputStreamReader;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import com.geektrust.backend.appConfig.ApplicationConfig;
 import com.geektrust.backend.commands.CommandInvoker;
+import com.geektrust.backend.commands.QueryCommand;
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.constants.IngestConstants;
+import com.geektrust.backend.constants.QueryConstants;
+import com.geektrust.backend.constants.ReplicationConstants;
+import com.geektrust.backend.constants.ShardConstants;
+import com.geektrust.backend.daemon.CommandDaemon;
+import com.geektrust.backend.daemon.DaemonClient;
 import com.geektrust.backend.exceptions.NoSuchCommandException;
+import com.geektrust.backend.ingest.BulkAllocateImporter;
+import com.geektrust.backend.ingest.DropDirectoryIngestor;
+import com.geektrust.backend.ingest.ImportReport;
+import com.geektrust.backend.io.ParallelGzipInputStream;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.query.QueryEngine;
+import com.geektrust.backend.replication.Replica;
+import com.geektrust.backend.replication.ReplicationLog;
+import com.geektrust.backend.replication.ReplicationPrimary;
+import com.geektrust.backend.sharding.ShardRouter;
+import com.geektrust.backend.sharding.ShardWorker;
 
-// ./gradlew run --args="sample_input/input1.txt"
+// ./gradlew run --args="sample_input/input1.txt"   (.gz inputs are decompressed on the fly)
+// ./gradlew run --args="--daemon 7070"   then   java -jar geektrust.jar --client 7070 sample_input/input1.txt
+// ./gradlew run --args="--ingest drop/ drop-out/"
+// ./gradlew run --args="--import book.csv [queries.txt]"   (id,equity,debt,gold[,sipEquity,sipDebt,sipGold] per row, then QUERY lines)
+// ./gradlew run --args="--primary 7071 input.txt"   and per replica   --replica 7071 7072   then   --client 7072 queries.txt
+// ./gradlew run --args="--shard 7081"   (one per worker)   then   --router 7080 7081 7082   and   --client 7080 book.txt
 
 public class App {
 	private static final int MINIMUM_ARGS_REQUIRED = 1;
 	private static final int INPUT_FILE_ARG_INDEX = 0;
+	private static final int MODE_ARG_INDEX = 0;
+	private static final int PORT_ARG_INDEX = 1;
+	private static final int CLIENT_FILE_ARG_INDEX = 2;
+	private static final int DROP_DIRECTORY_ARG_INDEX = 1;
+	private static final int INGEST_OUTPUT_ARG_INDEX = 2;
+	private static final int IMPORT_FILE_ARG_INDEX = 1;
+	private static final int QUERY_FILE_ARG_INDEX = 2;
+	private static final int PRIMARY_FILE_ARG_INDEX = 2;
+	private static final int QUERY_PORT_ARG_INDEX = 2;
+	private static final int FIRST_SHARD_ARG_INDEX = 2;
 	private static final int COMMAND_NAME_INDEX = 0;
 	private static final String TOKEN_DELIMITER = " ";
 
 	public static void main(String[] args){
-		if(args.length >= MINIMUM_ARGS_REQUIRED){
-			String inputFile = args[INPUT_FILE_ARG_INDEX];
-			run(inputFile);
+		if(args.length < MINIMUM_ARGS_REQUIRED) return;
+
+		try{
+			if(DaemonConstants.DAEMON_FLAG.equals(args[MODE_ARG_INDEX])){
+				new CommandDaemon(Integer.parseInt(args[PORT_ARG_INDEX])).serve();
+			}else if(DaemonConstants.CLIENT_FLAG.equals(args[MODE_ARG_INDEX])){
+				DaemonClient.submit(Integer.parseInt(args[PORT_ARG_INDEX]), args[CLIENT_FILE_ARG_INDEX], System.out);
+			}else if(IngestConstants.INGEST_FLAG.equals(args[MODE_ARG_INDEX])){
+				try(DropDirectoryIngestor ingestor = new DropDirectoryIngestor(
+						Paths.get(args[DROP_DIRECTORY_ARG_INDEX]), Paths.get(args[INGEST_OUTPUT_ARG_INDEX]))){
+					ingestor.watch();
+				}
+			}else if(IngestConstants.IMPORT_FLAG.equals(args[MODE_ARG_INDEX])){
+				OffHeapPortfolioStore store = new OffHeapPortfolioStore();
+				ImportReport report = new BulkAllocateImporter(store).importFile(Paths.get(args[IMPORT_FILE_ARG_INDEX]));
+				System.out.println(IngestConstants.IMPORTED_LABEL + TOKEN_DELIMITER + report.getImported());
+				for(ImportReport.RowError error : report.getErrors()) System.out.println(error);
+				if(args.length > QUERY_FILE_ARG_INDEX) query(args[QUERY_FILE_ARG_INDEX], store);
+			}else if(ReplicationConstants.PRIMARY_FLAG.equals(args[MODE_ARG_INDEX])){
+				ReplicationLog replicationLog = new ReplicationLog();
+				try(ReplicationPrimary primary = new ReplicationPrimary(Integer.parseInt(args[PORT_ARG_INDEX]), replicationLog).start()){
+					run(args[PRIMARY_FILE_ARG_INDEX], new ApplicationConfig(System.out, replicationLog));
+					// keep shipping the log to replicas until the process is stopped; stopping closes the log,
+					// so senders flush what they still hold and end each replica's stream
+					Runtime.getRuntime().addShutdownHook(new Thread(replicationLog::close));
+					primary.awaitClose();
+				}
+			}else if(ReplicationConstants.REPLICA_FLAG.equals(args[MODE_ARG_INDEX])){
+				try(Replica replica = new Replica(Integer.parseInt(args[PORT_ARG_INDEX]), Integer.parseInt(args[QUERY_PORT_ARG_INDEX]))){
+					replica.start().awaitClose();
+				}
+			}else if(ShardConstants.SHARD_FLAG.equals(args[MODE_ARG_INDEX])){
+				new ShardWorker(Integer.parseInt(args[PORT_ARG_INDEX])).serve();
+			}else if(ShardConstants.ROUTER_FLAG.equals(args[MODE_ARG_INDEX])){
+				List<Integer> shardPorts = new ArrayList<>();
+				for(int i = FIRST_SHARD_ARG_INDEX; i < args.length; i++) shardPorts.add(Integer.parseInt(args[i]));
+				new ShardRouter(Integer.parseInt(args[PORT_ARG_INDEX]), shardPorts).serve();
+			}else{
+				String inputFile = args[INPUT_FILE_ARG_INDEX];
+				run(inputFile);
+			}
+		}catch(IOException e){
+			System.out.println(e);
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
 		}
 	}
 
 	public static void run(String commandLineArgs){
 		//Logic to perform the task :
-		ApplicationConfig applicationConfig = new ApplicationConfig();
+		run(commandLineArgs, new ApplicationConfig());
+	}
+
+	private static void run(String inputFile, ApplicationConfig applicationConfig){
 		CommandInvoker commandInvoker = applicationConfig.getCommandInvoker();
-		BufferedReader reader;
-		String inputFile = commandLineArgs;
 
-		try{
-			reader = new BufferedReader(new FileReader(inputFile));
-			String line = reader.readLine();
-			while(line != null){
-				List<String> tokens = Arrays.asList(line.split(TOKEN_DELIMITER));
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(ParallelGzipInputStream.open(inputFile)))){
+			process(reader, commandInvoker);
+		}catch(IOException | NoSuchCommandException e){
+			System.out.println(e);
+		}
+	}
 
-				commandInvoker.executeCommand(tokens.get(COMMAND_NAME_INDEX), tokens);
+	/** Runs a file of QUERY lines against an imported book. */
+	private static void query(String queryFile, OffHeapPortfolioStore store){
+		CommandInvoker commandInvoker = new CommandInvoker();
+		commandInvoker.register(QueryConstants.QUERY_COMMAND, new QueryCommand(new QueryEngine(store)));
 
-				//read the next Line :
-				line = reader.readLine();
-			}
-			reader.close();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(ParallelGzipInputStream.open(queryFile)))){
+			process(reader, commandInvoker);
 		}catch(IOException | NoSuchCommandException e){
 			System.out.println(e);
 		}
 	}
-}
\ No newline at end of file
+
+	/** Feeds every line of {@code reader} to the invoker; shared by file runs and daemon jobs. */
+	public static void process(BufferedReader reader, CommandInvoker commandInvoker) throws IOException, NoSuchCommandException{
+		String line = reader.readLine();
+		while(line != null){
+			List<String> tokens = Arrays.asList(line.split(TOKEN_DELIMITER));
+
+			commandInvoker.executeCommand(tokens.get(COMMAND_NAME_INDEX), tokens);
+
+			//read the next Line :
+			line = reader.readLine();
+		}
+	}
+}
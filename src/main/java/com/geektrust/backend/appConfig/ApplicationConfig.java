@@ -1,30 +1,77 @@
 package com.geektrust.backend.appConfig;
 
 import com.geektrust.backend.commands.*;
+import com.geektrust.backend.history.PortfolioHistory;
+import com.geektrust.backend.readmodel.PortfolioReadModel;
+import com.geektrust.backend.replication.ReplicatingCommand;
+import com.geektrust.backend.replication.ReplicationLog;
 import com.geektrust.backend.repositories.InMemoryPortfolioRepository;
 import com.geektrust.backend.repositories.PortfolioRepository;
 import com.geektrust.backend.services.*;
 
+import java.io.PrintStream;
+
 public class ApplicationConfig {
 
     private final PortfolioRepository repository = new InMemoryPortfolioRepository();
+    private final AumRegistry aumRegistry = new AumRegistry();
 
     // services
-    private final PortfolioService portfolioService = new PortfolioService(repository);
+    private final PortfolioService portfolioService = new PortfolioService(repository, aumRegistry);
+    private final PortfolioReadModel readModel;
+    private final PortfolioHistory history = new PortfolioHistory();
 
     // invoker
-    private final CommandInvoker commandInvoker = new CommandInvoker();
+    private final CommandInvoker commandInvoker;
 
     public ApplicationConfig() {
-        commandInvoker.register("ALLOCATE", new AllocateCommand(portfolioService));
-        commandInvoker.register("SIP", new SipCommand(portfolioService));
+        this(System.out);
+    }
+
+    /** Wires a fresh, independent portfolio session whose command output goes to {@code out}. */
+    public ApplicationConfig(PrintStream out) {
+        this(out, null);
+    }
+
+    /** As above; when {@code replicationLog} is set, every applied mutation is also appended to it. */
+    public ApplicationConfig(PrintStream out, ReplicationLog replicationLog) {
+        this(out, replicationLog, new PortfolioReadModel());
+    }
+
+    /** As above, with BALANCE and REBALANCE served by {@code readModel}. */
+    public ApplicationConfig(PrintStream out, ReplicationLog replicationLog, PortfolioReadModel readModel) {
+        this.readModel = readModel;
+        portfolioService.addEventListener(readModel);
+        portfolioService.setHistory(history);
+        commandInvoker = new CommandInvoker(out);
+        commandInvoker.register("ALLOCATE", replicated(new AllocateCommand(portfolioService), replicationLog));
+        commandInvoker.register("SIP", replicated(new SipCommand(portfolioService), replicationLog));
         // NOTE: pass portfolioService to ChangeCommand so it can save monthly snapshots
-        commandInvoker.register("CHANGE", new ChangeCommand(portfolioService));
-        commandInvoker.register("BALANCE", new BalanceCommand(portfolioService));
-        commandInvoker.register("REBALANCE", new RebalanceCommand(portfolioService));
+        commandInvoker.register("CHANGE", replicated(new ChangeCommand(portfolioService), replicationLog));
+        commandInvoker.register("BALANCE", new BalanceCommand(readModel, out));
+        commandInvoker.register("REBALANCE", new RebalanceCommand(readModel, out));
+        commandInvoker.register("RETURNS", new ReturnsCommand(portfolioService, out));
+        commandInvoker.register("RISK", new RiskCommand(portfolioService, out));
+        commandInvoker.register("PROJECT", new ProjectCommand(portfolioService, out));
+        commandInvoker.register("GOAL", new GoalCommand(portfolioService, out));
+        commandInvoker.register("AUM", new AumCommand(portfolioService, out));
+        commandInvoker.register("EXPORT", new ExportCommand(portfolioService));
+        commandInvoker.register("STATE", new StateCommand(history, out));
     }
 
     public CommandInvoker getCommandInvoker() {
         return commandInvoker;
     }
+
+    public AumRegistry getAumRegistry() {
+        return aumRegistry;
+    }
+
+    public PortfolioReadModel getReadModel() {
+        return readModel;
+    }
+
+    private static Command replicated(Command command, ReplicationLog replicationLog) {
+        return (replicationLog == null) ? command : new ReplicatingCommand(command, replicationLog);
+    }
 }
@@ -5,12 +5,15 @@ import com.geektrust.backend.constants.AssetType;
 import com.geektrust.backend.constants.CommandConstants;
 import com.geektrust.backend.services.PortfolioService;
 
-import java.util.*;
+import java.util.List;
 
 /** Not hardcoded to asset names – uses AssetType order dynamically. */
 public class AllocateCommand implements Command {
 
+    private static final AssetType[] TYPES = AssetType.values();
+
     private final PortfolioService service;
+    private final int[] allocations = new int[TYPES.length]; // reused per line; the service does not retain it
 
     public AllocateCommand(PortfolioService service) {
         this.service = service;
@@ -18,13 +21,11 @@ public class AllocateCommand implements Command {
 
     @Override
     public void execute(List<String> tokens) {
-        AssetType[] types = AssetType.values();
-        if (tokens.size() < CommandConstants.COMMAND_NAME_OFFSET + types.length)
-            throw new IllegalArgumentException("ALLOCATE needs " + types.length + " values");
+        if (tokens.size() < CommandConstants.COMMAND_NAME_OFFSET + TYPES.length)
+            throw new IllegalArgumentException("ALLOCATE needs " + TYPES.length + " values");
 
-        Map<AssetType, Integer> allocations = new EnumMap<>(AssetType.class);
-        for (int i = 0; i < types.length; i++) {
-            allocations.put(types[i], Integer.parseInt(tokens.get(CommandConstants.COMMAND_NAME_OFFSET + i)));
+        for (int i = 0; i < TYPES.length; i++) {
+            allocations[i] = Integer.parseInt(tokens.get(CommandConstants.COMMAND_NAME_OFFSET + i));
         }
         service.allocate(allocations);
     }
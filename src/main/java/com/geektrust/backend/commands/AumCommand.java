@@ -0,0 +1,36 @@
+// -------- commands/AumCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.services.PortfolioService;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/** AUM : prints firm-wide assets under management per asset type. */
+public class AumCommand implements Command {
+
+    private final PortfolioService service;
+    private final PrintStream out;
+
+    public AumCommand(PortfolioService service) {
+        this(service, System.out);
+    }
+
+    public AumCommand(PortfolioService service, PrintStream out) {
+        this.service = service;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        Map<AssetType, Long> aum = service.getAssetsUnderManagement();
+        StringBuilder sb = new StringBuilder();
+
+        for (AssetType t : AssetType.values()) {
+            sb.append(aum.getOrDefault(t, (long) CommandConstants.DEFAULT_BALANCE)).append(CommandConstants.OUTPUT_DELIMITER);
+        }
+        out.println(sb.toString().trim());
+    }
+}
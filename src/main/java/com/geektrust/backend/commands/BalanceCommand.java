@@ -4,17 +4,25 @@ package com.geektrust.backend.commands;
 import com.geektrust.backend.constants.AssetType;
 import com.geektrust.backend.constants.CommandConstants;
 import com.geektrust.backend.constants.Month;
-import com.geektrust.backend.services.PortfolioService;
+import com.geektrust.backend.readmodel.PortfolioReadModel;
 
+import java.io.PrintStream;
 import java.util.*;
 
 public class BalanceCommand implements Command {
 
 
-    private final PortfolioService service;
+    private final PortfolioReadModel readModel;
+    private final PrintStream out;
 
-    public BalanceCommand(PortfolioService service) {
-        this.service = service;
+    public BalanceCommand(PortfolioReadModel readModel) {
+        this(readModel, System.out);
+    }
+
+    /** Queries are answered from the read model only, never from the mutable portfolio. */
+    public BalanceCommand(PortfolioReadModel readModel, PrintStream out) {
+        this.readModel = readModel;
+        this.out = out;
     }
 
     @Override
@@ -23,7 +31,7 @@ public class BalanceCommand implements Command {
             throw new IllegalArgumentException("BALANCE needs a month");
 
         Month month = Month.fromString(tokens.get(CommandConstants.MONTH_PARAMETER_INDEX));
-        Map<AssetType, Integer> snap = service.getBalance(month);
+        Map<AssetType, Integer> snap = readModel.getBalance(month);
         AssetType[] types = AssetType.values();
         StringBuilder sb = new StringBuilder();
 
@@ -31,6 +39,6 @@ public class BalanceCommand implements Command {
             int v = snap.getOrDefault(t, CommandConstants.DEFAULT_BALANCE);
             sb.append(v).append(CommandConstants.OUTPUT_DELIMITER);
         }
-        System.out.println(sb.toString().trim());
+        out.println(sb.toString().trim());
     }
 }
\ No newline at end of file
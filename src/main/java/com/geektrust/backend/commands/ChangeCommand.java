@@ -4,11 +4,19 @@ package com.geektrust.backend.commands;
 import com.geektrust.backend.constants.*;
 import com.geektrust.backend.services.PortfolioService;
 
-import java.util.*;
+import java.util.List;
 
 public class ChangeCommand implements Command {
 
+    private static final AssetType[] TYPES = AssetType.values();
+
+    // Exact powers of ten: an integer mantissa below 2^53 divided by one of these rounds exactly like parseDouble.
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
     private final PortfolioService service;
+    private final double[] roi = new double[TYPES.length]; // reused per line; the service does not retain it
 
     public ChangeCommand(PortfolioService service) {
         this.service = service;
@@ -16,23 +24,52 @@ public class ChangeCommand implements Command {
 
     @Override
     public void execute(List<String> tokens) {
-        AssetType[] types = AssetType.values();
-        int minimumRequiredTokens = CommandConstants.BASE_TOKENS_COUNT + types.length;
+        int minimumRequiredTokens = CommandConstants.BASE_TOKENS_COUNT + TYPES.length;
 
         if (tokens.size() < minimumRequiredTokens)
-            throw new IllegalArgumentException("CHANGE needs " + types.length + " ROI percentages and a month");
+            throw new IllegalArgumentException("CHANGE needs " + TYPES.length + " ROI percentages and a month");
 
-        Map<AssetType, Double> roi = new EnumMap<>(AssetType.class);
-        for (int i = 0; i < types.length; i++) {
-            roi.put(types[i], parsePercent(tokens.get(CommandConstants.COMMAND_NAME_OFFSET + i)));
+        for (int i = 0; i < TYPES.length; i++) {
+            roi[i] = parsePercent(tokens.get(CommandConstants.COMMAND_NAME_OFFSET + i));
         }
 
-        int monthParameterIndex = CommandConstants.COMMAND_NAME_OFFSET + types.length;
+        int monthParameterIndex = CommandConstants.COMMAND_NAME_OFFSET + TYPES.length;
         Month month = Month.fromString(tokens.get(monthParameterIndex));
         service.change(month, roi);
     }
 
-    private double parsePercent(String s) {
+    /**
+     * Parses "[-]digits[.digits]%" without creating intermediate strings. Anything else
+     * (exponents, signs, long mantissas) falls back to {@link Double#parseDouble}.
+     */
+    static double parsePercent(String s) {
+        int end = s.endsWith(CommandConstants.PERCENT_SYMBOL) ? s.length() - CommandConstants.PERCENT_SYMBOL.length() : s.length();
+        int i = 0;
+        boolean negative = end > 0 && s.charAt(0) == '-';
+        if (negative) i++;
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1; // -1 until a decimal point is seen
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) scale++;
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return parsePercentSlow(s);
+            }
+        }
+        if (digits == 0 || digits >= POWERS_OF_TEN.length) return parsePercentSlow(s);
+
+        double value = mantissa / POWERS_OF_TEN[Math.max(scale, 0)];
+        return (negative ? -value : value) / CommandConstants.PERCENT_TO_DECIMAL_DIVISOR;
+    }
+
+    private static double parsePercentSlow(String s) {
         return Double.parseDouble(s.replace(CommandConstants.PERCENT_SYMBOL, "")) / CommandConstants.PERCENT_TO_DECIMAL_DIVISOR;
     }
-}
\ No newline at end of file
+}
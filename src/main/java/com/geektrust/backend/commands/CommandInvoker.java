@@ -2,14 +2,40 @@ package com.geektrust.backend.commands;
 
 
 import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.constants.TelemetryConstants;
 import com.geektrust.backend.exceptions.NoSuchCommandException;
+import com.geektrust.backend.scheduling.Lane;
+import com.geektrust.backend.scheduling.LaneScheduler;
+import com.geektrust.backend.telemetry.FlightRecorder;
 
+import java.io.PrintStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CommandInvoker {
     private final Map<String, Command> registry = new HashMap<>();
+    private final PrintStream out;
+    private LaneScheduler scheduler; // optional: shared with other invokers competing for the same cores
+    private String portfolioId = TelemetryConstants.DEFAULT_PORTFOLIO_ID; // reported in flight recorder events
+
+    public CommandInvoker() {
+        this(System.out);
+    }
+
+    public CommandInvoker(PrintStream out) {
+        this.out = out;
+    }
+
+    /** Route every command through {@code scheduler}'s lanes; null runs commands immediately. */
+    public void setScheduler(LaneScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /** Name this session's portfolio in flight recorder events. */
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
 
     public void register(String commandName, Command command) {
         registry.put(commandName.toUpperCase(), command);
@@ -17,16 +43,34 @@ public class CommandInvoker {
 
     public void executeCommand(String commandName, List<String> tokens) throws NoSuchCommandException
     {
+        Object trace = FlightRecorder.beginCommand();
+        long dispatchStart = (trace == null) ? 0L : System.nanoTime();
         Command command = registry.get(commandName.toUpperCase());
-        if (command == null) throw new NoSuchCommandException(commandName);
+        if (command == null) {
+            FlightRecorder.endCommand(trace, commandName, portfolioId, System.nanoTime() - dispatchStart, true);
+            throw new NoSuchCommandException(commandName);
+        }
+        if (scheduler == null) {
+            execute(command, commandName, tokens, trace, dispatchStart);
+        } else {
+            scheduler.run(Lane.of(commandName), () -> execute(command, commandName, tokens, trace, dispatchStart));
+        }
+    }
+
+    private void execute(Command command, String commandName, List<String> tokens, Object trace, long dispatchStart) {
+        long dispatchNanos = (trace == null) ? 0L : System.nanoTime() - dispatchStart;
+        boolean failed = false;
         try {
             command.execute(tokens);
         } catch (Exception e) {
+            failed = true;
             if (e.getMessage() != null && e.getMessage().equals(CommandConstants.CANNOT_REBALANCE_MESSAGE)) {
-                System.out.println(CommandConstants.CANNOT_REBALANCE_MESSAGE);
+                out.println(CommandConstants.CANNOT_REBALANCE_MESSAGE);
             } else {
-                System.out.println(e.getMessage());
+                out.println(e.getMessage());
             }
+        } finally {
+            FlightRecorder.endCommand(trace, commandName, portfolioId, dispatchNanos, failed);
         }
     }
 }
@@ -0,0 +1,65 @@
+// -------- commands/ExportCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.ExportConstants;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.export.SnapshotExporter;
+import com.geektrust.backend.services.PortfolioService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * EXPORT path-prefix : writes every monthly BALANCE to path-prefix.csv and path-prefix.bin.
+ * The prefix is resolved under the export directory; absolute prefixes and {@code ..} are rejected,
+ * since EXPORT lines also arrive over daemon, replica and shard connections.
+ */
+public class ExportCommand implements Command {
+
+    private final PortfolioService service;
+    private final Path exportDirectory;
+
+    public ExportCommand(PortfolioService service) {
+        this(service, Paths.get(System.getProperty(ExportConstants.EXPORT_DIRECTORY_PROPERTY, ExportConstants.DEFAULT_EXPORT_DIRECTORY)));
+    }
+
+    public ExportCommand(PortfolioService service, Path exportDirectory) {
+        this.service = service;
+        this.exportDirectory = exportDirectory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        if (tokens.size() <= ExportConstants.PATH_PARAMETER_INDEX)
+            throw new IllegalArgumentException("EXPORT needs an output path prefix");
+
+        Path prefix = resolve(tokens.get(ExportConstants.PATH_PARAMETER_INDEX));
+        Map<Month, Map<AssetType, Integer>> balances = service.getMonthlyBalances();
+        try {
+            Files.createDirectories(prefix.getParent());
+            SnapshotExporter.writeCsv(Paths.get(prefix + ExportConstants.CSV_SUFFIX), balances);
+            SnapshotExporter.writeColumnar(Paths.get(prefix + ExportConstants.COLUMNAR_SUFFIX), balances);
+        } catch (IOException e) {
+            throw new UncheckedIOException("EXPORT failed: " + e.getMessage(), e);
+        }
+    }
+
+    private Path resolve(String prefix) {
+        Path relative = Paths.get(prefix);
+        if (relative.getRoot() != null)
+            throw new IllegalArgumentException("EXPORT path must be relative to the export directory: " + prefix);
+        for (Path part : relative) {
+            if (part.toString().equals(ExportConstants.PARENT_DIRECTORY))
+                throw new IllegalArgumentException("EXPORT path must not contain " + ExportConstants.PARENT_DIRECTORY + ": " + prefix);
+        }
+        Path resolved = exportDirectory.resolve(relative).normalize();
+        if (!resolved.startsWith(exportDirectory) || resolved.equals(exportDirectory))
+            throw new IllegalArgumentException("EXPORT path must name a file in the export directory: " + prefix);
+        return resolved;
+    }
+}
@@ -0,0 +1,51 @@
+// -------- commands/GoalCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.services.PortfolioService;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * GOAL target months roi... : prints the smallest per-asset monthly SIP that grows the portfolio to
+ * {@code target} within {@code months} months at a constant ROI, or GOAL_NOT_REACHABLE.
+ */
+public class GoalCommand implements Command {
+
+    private final PortfolioService service;
+    private final PrintStream out;
+
+    public GoalCommand(PortfolioService service) {
+        this(service, System.out);
+    }
+
+    public GoalCommand(PortfolioService service, PrintStream out) {
+        this.service = service;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        AssetType[] types = AssetType.values();
+        if (tokens.size() < CommandConstants.GOAL_ROI_OFFSET + types.length)
+            throw new IllegalArgumentException("GOAL needs a target, a month count and " + types.length + " ROI percentages");
+
+        long target = Long.parseLong(tokens.get(CommandConstants.GOAL_TARGET_INDEX));
+        int months = Integer.parseInt(tokens.get(CommandConstants.GOAL_MONTHS_INDEX));
+        double[] roi = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            roi[i] = ChangeCommand.parsePercent(tokens.get(CommandConstants.GOAL_ROI_OFFSET + i));
+        }
+
+        int[] sip = service.seekGoal(target, months, roi);
+        if (sip == null) {
+            out.println(CommandConstants.GOAL_UNREACHABLE_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int amount : sip) sb.append(amount).append(CommandConstants.OUTPUT_DELIMITER);
+        out.println(sb.toString().trim());
+    }
+}
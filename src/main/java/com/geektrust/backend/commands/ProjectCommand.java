@@ -0,0 +1,46 @@
+// -------- commands/ProjectCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.services.PortfolioService;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/** PROJECT months roi... : fast-forwards with a constant ROI and prints the last projected month. */
+public class ProjectCommand implements Command {
+
+    private final PortfolioService service;
+    private final PrintStream out;
+
+    public ProjectCommand(PortfolioService service) {
+        this(service, System.out);
+    }
+
+    public ProjectCommand(PortfolioService service, PrintStream out) {
+        this.service = service;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        AssetType[] types = AssetType.values();
+        if (tokens.size() < CommandConstants.PROJECT_ROI_OFFSET + types.length)
+            throw new IllegalArgumentException("PROJECT needs a month count and " + types.length + " ROI percentages");
+
+        int months = Integer.parseInt(tokens.get(CommandConstants.PROJECT_MONTHS_INDEX));
+        double[] roi = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            roi[i] = ChangeCommand.parsePercent(tokens.get(CommandConstants.PROJECT_ROI_OFFSET + i));
+        }
+
+        int[] balances = service.project(months, roi, null);
+        int lastRow = (months - 1) * types.length;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            sb.append(balances[lastRow + i]).append(CommandConstants.OUTPUT_DELIMITER);
+        }
+        out.println(sb.toString().trim());
+    }
+}
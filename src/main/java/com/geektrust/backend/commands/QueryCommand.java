@@ -0,0 +1,60 @@
+// -------- commands/QueryCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.constants.QueryConstants;
+import com.geektrust.backend.query.Query;
+import com.geektrust.backend.query.QueryEngine;
+import com.geektrust.backend.query.QueryResult;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * QUERY COUNT|IDS|SUM col|AVG col|MIN col|MAX col [WHERE cond [AND cond]...] [LIMIT n] : scans every
+ * record of the off-heap book, e.g. "QUERY AVG TOTAL WHERE GOLD% > 20 AND MARCH.TOTAL >= 50000".
+ * Prints the count, the record indices, or the aggregate; "-" when no matching record has the column.
+ */
+public class QueryCommand implements Command {
+
+    private final QueryEngine engine;
+    private final PrintStream out;
+
+    public QueryCommand(QueryEngine engine) {
+        this(engine, System.out);
+    }
+
+    public QueryCommand(QueryEngine engine, PrintStream out) {
+        this.engine = engine;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        Query query = Query.parse(tokens.subList(CommandConstants.BASE_TOKENS_COUNT, tokens.size()));
+        QueryResult result = engine.execute(query);
+        switch (query.getAggregate()) {
+            case COUNT:
+                out.println(result.getMatched());
+                break;
+            case IDS:
+                StringBuilder ids = new StringBuilder();
+                for (int id : result.getIds()) {
+                    if (ids.length() > 0) ids.append(CommandConstants.OUTPUT_DELIMITER);
+                    ids.append(id);
+                }
+                out.println(ids);
+                break;
+            case AVG:
+                out.println(result.getValue().isPresent()
+                        ? String.format(Locale.ROOT, QueryConstants.AVERAGE_FORMAT, result.getValue().getAsDouble())
+                        : QueryConstants.NO_VALUE);
+                break;
+            default:
+                out.println(result.getValue().isPresent()
+                        ? String.valueOf((long) result.getValue().getAsDouble())
+                        : QueryConstants.NO_VALUE);
+        }
+    }
+}
@@ -3,24 +3,32 @@ package com.geektrust.backend.commands;
 
 import com.geektrust.backend.constants.AssetType;
 import com.geektrust.backend.constants.CommandConstants;
-import com.geektrust.backend.services.PortfolioService;
+import com.geektrust.backend.readmodel.PortfolioReadModel;
 
+import java.io.PrintStream;
 import java.util.*;
 
 public class RebalanceCommand implements Command {
 
-    private final PortfolioService service;
+    private final PortfolioReadModel readModel;
+    private final PrintStream out;
 
-    public RebalanceCommand(PortfolioService service) {
-        this.service = service;
+    public RebalanceCommand(PortfolioReadModel readModel) {
+        this(readModel, System.out);
+    }
+
+    /** Queries are answered from the read model only, never from the mutable portfolio. */
+    public RebalanceCommand(PortfolioReadModel readModel, PrintStream out) {
+        this.readModel = readModel;
+        this.out = out;
     }
 
     @Override
     public void execute(List<String> tokens) {
-        Map<AssetType, Integer> snap = service.getRebalance();
+        Map<AssetType, Integer> snap = readModel.getRebalance();
 
         if (snap.isEmpty()) {
-            System.out.println(CommandConstants.CANNOT_REBALANCE_MESSAGE);
+            out.println(CommandConstants.CANNOT_REBALANCE_MESSAGE);
             return;
         }
 
@@ -31,6 +39,6 @@ public class RebalanceCommand implements Command {
             sb.append(snap.getOrDefault(t, CommandConstants.DEFAULT_BALANCE)).append(CommandConstants.OUTPUT_DELIMITER);
         }
 
-        System.out.println(sb.toString().trim());
+        out.println(sb.toString().trim());
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+// -------- commands/ReturnsCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.entities.Returns;
+import com.geektrust.backend.services.PortfolioService;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/** RETURNS : prints absolute return, CAGR and XIRR of the portfolio, e.g. "8.13% 11.20% 12.05%". */
+public class ReturnsCommand implements Command {
+
+    private final PortfolioService service;
+    private final PrintStream out;
+
+    public ReturnsCommand(PortfolioService service) {
+        this(service, System.out);
+    }
+
+    public ReturnsCommand(PortfolioService service, PrintStream out) {
+        this.service = service;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        Returns returns = service.getReturns();
+        out.println(percent(returns.getAbsoluteReturn()) + CommandConstants.OUTPUT_DELIMITER
+                + percent(returns.getCagr()) + CommandConstants.OUTPUT_DELIMITER
+                + percent(returns.getXirr()));
+    }
+
+    private static String percent(double rate) {
+        return String.format(Locale.ROOT, CommandConstants.RATE_FORMAT, rate * CommandConstants.PERCENT_TO_DECIMAL_DIVISOR);
+    }
+}
@@ -0,0 +1,46 @@
+// -------- commands/RiskCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.entities.RiskMetrics;
+import com.geektrust.backend.services.PortfolioService;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RISK [EQUITY|DEBT|GOLD] : prints volatility, rolling volatility, max drawdown and Sharpe ratio of
+ * the portfolio, or of one asset class, e.g. "14.20% 11.05% 9.80% 0.87".
+ */
+public class RiskCommand implements Command {
+
+    private final PortfolioService service;
+    private final PrintStream out;
+
+    public RiskCommand(PortfolioService service) {
+        this(service, System.out);
+    }
+
+    public RiskCommand(PortfolioService service, PrintStream out) {
+        this.service = service;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        AssetType type = (tokens.size() > CommandConstants.RISK_ASSET_INDEX)
+                ? AssetType.valueOf(tokens.get(CommandConstants.RISK_ASSET_INDEX).trim().toUpperCase(Locale.ROOT))
+                : null;
+        RiskMetrics risk = service.getRisk(type);
+        out.println(percent(risk.getVolatility()) + CommandConstants.OUTPUT_DELIMITER
+                + percent(risk.getRollingVolatility()) + CommandConstants.OUTPUT_DELIMITER
+                + percent(risk.getMaxDrawdown()) + CommandConstants.OUTPUT_DELIMITER
+                + String.format(Locale.ROOT, CommandConstants.RATIO_FORMAT, risk.getSharpe()));
+    }
+
+    private static String percent(double rate) {
+        return String.format(Locale.ROOT, CommandConstants.RATE_FORMAT, rate * CommandConstants.PERCENT_TO_DECIMAL_DIVISOR);
+    }
+}
@@ -5,11 +5,14 @@ import com.geektrust.backend.constants.AssetType;
 import com.geektrust.backend.constants.CommandConstants;
 import com.geektrust.backend.services.PortfolioService;
 
-import java.util.*;
+import java.util.List;
 
 public class SipCommand implements Command {
 
+    private static final AssetType[] TYPES = AssetType.values();
+
     private final PortfolioService service;
+    private final int[] sip = new int[TYPES.length]; // reused per line; the service does not retain it
 
     public SipCommand(PortfolioService service) {
         this.service = service;
@@ -17,15 +20,13 @@ public class SipCommand implements Command {
 
     @Override
     public void execute(List<String> tokens) {
-        AssetType[] types = AssetType.values();
-        int minimumRequiredTokens = CommandConstants.BASE_TOKENS_COUNT + types.length;
+        int minimumRequiredTokens = CommandConstants.BASE_TOKENS_COUNT + TYPES.length;
 
         if (tokens.size() < minimumRequiredTokens)
-            throw new IllegalArgumentException("SIP needs " + types.length + " values");
+            throw new IllegalArgumentException("SIP needs " + TYPES.length + " values");
 
-        Map<AssetType, Integer> sip = new EnumMap<>(AssetType.class);
-        for (int i = 0; i < types.length; i++) {
-            sip.put(types[i], Integer.parseInt(tokens.get(CommandConstants.COMMAND_NAME_OFFSET + i)));
+        for (int i = 0; i < TYPES.length; i++) {
+            sip[i] = Integer.parseInt(tokens.get(CommandConstants.COMMAND_NAME_OFFSET + i));
         }
         service.setSip(sip);
     }
@@ -0,0 +1,45 @@
+// -------- commands/StateCommand.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.constants.HistoryConstants;
+import com.geektrust.backend.history.PortfolioHistory;
+import com.geektrust.backend.history.PortfolioState;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * STATE seq : holdings right after mutation {@code seq}, printed as
+ * {@code KIND MONTH amounts...} (MONTH is "-" for mutations outside a CHANGE).
+ */
+public class StateCommand implements Command {
+
+    private final PortfolioHistory history;
+    private final PrintStream out;
+
+    public StateCommand(PortfolioHistory history) {
+        this(history, System.out);
+    }
+
+    public StateCommand(PortfolioHistory history, PrintStream out) {
+        this.history = history;
+        this.out = out;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        if (tokens.size() <= HistoryConstants.SEQUENCE_PARAMETER_INDEX)
+            throw new IllegalArgumentException("STATE needs a sequence number");
+
+        PortfolioState state = history.stateAt(Long.parseLong(tokens.get(HistoryConstants.SEQUENCE_PARAMETER_INDEX)));
+        StringBuilder sb = new StringBuilder();
+        sb.append(state.getKind()).append(CommandConstants.OUTPUT_DELIMITER)
+                .append(state.getMonth() == null ? HistoryConstants.NO_MONTH_LABEL : state.getMonth().name());
+        for (AssetType type : AssetType.values()) {
+            sb.append(CommandConstants.OUTPUT_DELIMITER).append(state.getAmount(type));
+        }
+        out.println(sb);
+    }
+}
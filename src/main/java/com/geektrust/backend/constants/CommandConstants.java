@@ -9,6 +9,18 @@ public final class CommandConstants {
     public static final double PERCENT_TO_DECIMAL_DIVISOR = 100.0;
     public static final int MONTH_PARAMETER_INDEX = 1;
     public static final int MINIMUM_REQUIRED_TOKENS = 2; // command + month parameter
+    public static final int PROJECT_MONTHS_INDEX = 1;
+    public static final int PROJECT_ROI_OFFSET = 2; // command + months parameter
+
+    /** One rate as a percentage with two decimals, e.g. 12.34% */
+    public static final String RATE_FORMAT = "%.2f%%";
+    public static final String RATIO_FORMAT = "%.2f";
+    public static final int RISK_ASSET_INDEX = 1;
+
+    public static final int GOAL_TARGET_INDEX = 1;
+    public static final int GOAL_MONTHS_INDEX = 2;
+    public static final int GOAL_ROI_OFFSET = 3; // command + target + months
+    public static final String GOAL_UNREACHABLE_MESSAGE = "GOAL_NOT_REACHABLE";
 
     public static final String CANNOT_REBALANCE_MESSAGE = "CANNOT_REBALANCE";
 
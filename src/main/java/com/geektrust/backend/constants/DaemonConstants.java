@@ -0,0 +1,15 @@
+// -------- constants/DaemonConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class DaemonConstants {
+    private DaemonConstants() {}
+
+    public static final String DAEMON_FLAG = "--daemon";
+    public static final String CLIENT_FLAG = "--client";
+    public static final int EPHEMERAL_PORT = 0;
+    public static final int CONNECTION_BACKLOG = 128;
+    public static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    /** Jobs are independent sessions, so they can run side by side. */
+    public static final int WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+}
@@ -8,6 +8,30 @@ public class EntityConstants {
     public static final double MINIMUM_FINAL_AMOUNT = 0.0;
 
     public static final double DEFAULT_ROI = 0.0;
+    public static final double NO_DRIFT = 0.0;
+
+    // Snapshot log sizing: one label per month is the common case
+    public static final int SNAPSHOT_INITIAL_LABELS = 12;
+    public static final int SNAPSHOT_INITIAL_BYTES = 64;
+    public static final int SNAPSHOT_MISSING = -1;
+    /** Superseded entries tolerated before the log is rewritten with live entries only. */
+    public static final int SNAPSHOT_COMPACTION_MINIMUM = 4;
+
+    // Return analytics: cash flows are kept as runs of equal months, rates are reported annualised
+    /** The allocation month and one SIP level; each SIP change adds a run. */
+    public static final int RETURNS_INITIAL_RUNS = 2;
+    public static final int MONTHS_PER_YEAR = 12;
+    public static final double NO_RETURN = 0.0;
+    public static final double NO_GROWTH = 1.0;
+    /** Newton's method stops once the future value is within this fraction of the portfolio value. */
+    public static final double XIRR_TOLERANCE = 1e-12;
+    public static final int XIRR_MAX_ITERATIONS = 50;
+
+    // Risk metrics: monthly return series, annualised by sqrt(12) / x12
+    public static final int RISK_WINDOW_MONTHS = 12;
+    public static final int MINIMUM_VARIANCE_SAMPLES = 2;
+    public static final double RISK_FREE_ANNUAL_RATE = 0.0;
+    public static final double NO_RISK = 0.0;
 
     private EntityConstants() {}
 
@@ -0,0 +1,22 @@
+// -------- constants/ExportConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class ExportConstants {
+    private ExportConstants() {}
+
+    public static final String CSV_SUFFIX = ".csv";
+    public static final String COLUMNAR_SUFFIX = ".bin";
+    public static final String CSV_SEPARATOR = ",";
+    public static final String CSV_MONTH_HEADER = "MONTH";
+    public static final String LINE_SEPARATOR = "\n";
+    public static final int PATH_PARAMETER_INDEX = 1;
+    /** EXPORT only writes below this directory; defaults to {@code exports} under the working directory. */
+    public static final String EXPORT_DIRECTORY_PROPERTY = "mymoney.export.dir";
+    public static final String DEFAULT_EXPORT_DIRECTORY = "exports";
+    public static final String PARENT_DIRECTORY = "..";
+
+    /** "MYMX" */
+    public static final int COLUMNAR_MAGIC = 0x4D594D58;
+    public static final short COLUMNAR_VERSION = 1;
+    public static final int MAX_DIRECT_BUFFER_BYTES = 8 * 1024 * 1024;
+}
@@ -0,0 +1,38 @@
+// -------- constants/GeneratorConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class GeneratorConstants {
+    private GeneratorConstants() {}
+
+    public static final String OPTION_PREFIX = "--";
+    public static final String OUTPUT = "output";
+    public static final String REFERENCE = "reference";
+    public static final String SEED = "seed";
+    public static final String PORTFOLIOS = "portfolios";
+    public static final String MONTHS = "months";
+    public static final String QUERY_RATE = "query-rate";
+    public static final String REBALANCE_RATE = "rebalance-rate";
+    public static final String SIP_CHANGE_RATE = "sip-change-rate";
+    public static final String MALFORMED_RATE = "malformed-rate";
+
+    public static final long DEFAULT_SEED = 42L;
+    public static final int DEFAULT_PORTFOLIOS = 1000;
+    public static final int DEFAULT_MONTHS = 120;
+    public static final double DEFAULT_QUERY_RATE = 0.3;
+    public static final double DEFAULT_REBALANCE_RATE = 0.05;
+    public static final double DEFAULT_SIP_CHANGE_RATE = 0.02;
+    public static final double DEFAULT_MALFORMED_RATE = 0.0;
+
+    public static final int MIN_ALLOCATION = 1000;
+    public static final int MAX_ALLOCATION = 100000;
+    public static final int MAX_SIP = 5000;
+    public static final int AMOUNT_ROUNDING = 100;
+    /** Monthly ROI in basis points (mean, standard deviation) per asset type ordinal. */
+    public static final double[] ROI_MEAN_BP = {80, 50, 40};
+    public static final double[] ROI_STDDEV_BP = {450, 150, 300};
+    public static final int MIN_ROI_BP = -9900;
+    public static final int BASIS_POINTS_PER_PERCENT = 100;
+
+    public static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    public static final double NANOS_PER_SECOND = 1_000_000_000.0;
+}
@@ -0,0 +1,15 @@
+// -------- constants/HistoryConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class HistoryConstants {
+    private HistoryConstants() {}
+
+    /** A full keyframe every this many mutations; a lookup replays at most KEYFRAME_INTERVAL - 1 deltas. */
+    public static final int KEYFRAME_INTERVAL = 64;
+    public static final int INITIAL_ENTRIES = 256;
+    public static final int INITIAL_DELTA_BYTES = 4 * 1024;
+    public static final long FIRST_SEQUENCE = 1L;
+    public static final byte NO_MONTH = -1;
+    public static final int SEQUENCE_PARAMETER_INDEX = 1;
+    public static final String NO_MONTH_LABEL = "-";
+}
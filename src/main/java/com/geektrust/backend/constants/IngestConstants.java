@@ -0,0 +1,33 @@
+// -------- constants/IngestConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class IngestConstants {
+    private IngestConstants() {}
+
+    public static final String INGEST_FLAG = "--ingest";
+    public static final String CHECKPOINT_FILE = "ingest.checkpoint";
+    public static final String CHECKPOINT_TEMP_SUFFIX = ".tmp";
+    /** A checkpoint entry is {@code <offset>,<output bytes>}: lines executed and output they produced. */
+    public static final String CHECKPOINT_SEPARATOR = ",";
+    public static final int CHECKPOINT_OFFSET_INDEX = 0;
+    public static final int CHECKPOINT_OUTPUT_INDEX = 1;
+    public static final String OUTPUT_SUFFIX = ".out";
+    public static final int READ_BUFFER_SIZE = 64 * 1024;
+    public static final long INITIAL_OFFSET = 0L;
+    public static final long INITIAL_OUTPUT_BYTES = 0L;
+    public static final byte LINE_FEED = '\n';
+    public static final byte CARRIAGE_RETURN = '\r';
+    public static final String TOKEN_DELIMITER = " ";
+    public static final int COMMAND_NAME_INDEX = 0;
+    public static final int INGEST_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // Bulk ALLOCATE import: id,equity,debt,gold[,sipEquity,sipDebt,sipGold]
+    public static final String IMPORT_FLAG = "--import";
+    public static final byte CSV_DELIMITER = ',';
+    /** Nominal bytes per parse chunk; chunks are cut at the next line break. */
+    public static final int IMPORT_CHUNK_BYTES = 4 * 1024 * 1024;
+    /** Rows per chunk guessed up front, so the parse arrays rarely grow. */
+    public static final int IMPORT_ROW_BYTES_ESTIMATE = 32;
+    public static final int FIRST_LINE_NUMBER = 1;
+    public static final String IMPORTED_LABEL = "IMPORTED";
+}
@@ -0,0 +1,31 @@
+// -------- constants/InputConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class InputConstants {
+    private InputConstants() {}
+
+    public static final String GZIP_SUFFIX = ".gz";
+    public static final int READ_BLOCK_SIZE = 1024 * 1024;
+    /** Compressed members larger than this are not buffered; the rest of the file is inflated sequentially. */
+    public static final int MAX_MEMBER_BYTES = 8 * 1024 * 1024;
+    /** Same for members that inflate to more than this, so a highly compressible member cannot exhaust the heap. */
+    public static final int MAX_INFLATED_MEMBER_BYTES = 16 * 1024 * 1024;
+    public static final int DECOMPRESSION_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /**
+     * Members queued for the parser, in any state. With the two caps above this bounds the heap used for
+     * buffering to about MEMBERS_IN_FLIGHT * (MAX_MEMBER_BYTES + MAX_INFLATED_MEMBER_BYTES), whatever the core count.
+     */
+    public static final int MEMBERS_IN_FLIGHT = Math.min(2 * DECOMPRESSION_THREADS, 8);
+
+    // gzip member header (RFC 1952): ID1 ID2 CM FLG MTIME(4) XFL OS
+    public static final int GZIP_HEADER_BYTES = 10;
+    public static final int GZIP_ID1 = 0x1f;
+    public static final int GZIP_ID2 = 0x8b;
+    public static final int GZIP_CM_DEFLATE = 8;
+    public static final int GZIP_FLG_OFFSET = 3;
+    public static final int GZIP_XFL_OFFSET = 8;
+    public static final int GZIP_OS_OFFSET = 9;
+    public static final int GZIP_FLG_RESERVED_MASK = 0xe0;
+    public static final int GZIP_OS_MAX_KNOWN = 13;
+    public static final int GZIP_OS_UNKNOWN = 255;
+}
@@ -1,13 +1,29 @@
 // -------- constants/Month.java --------
 package com.geektrust.backend.constants;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 public enum Month {
     JANUARY, FEBRUARY, MARCH, APRIL, MAY, JUNE,
     JULY, AUGUST, SEPTEMBER, OCTOBER, NOVEMBER, DECEMBER;
 
+    private static final Month[] MONTHS = values();
+    private static final Map<String, Month> BY_NAME = new HashMap<>();
+
+    static {
+        for (Month month : MONTHS) BY_NAME.put(month.name(), month);
+    }
+
     public static Month fromString(String s) {
-        return Month.valueOf(s.trim().toUpperCase(Locale.ROOT));
+        Month exact = BY_NAME.get(s); // one hash lookup for the usual upper-case token
+        if (exact != null) return exact;
+        return Month.valueOf(s.trim().toUpperCase(Locale.ROOT)); // other case, padded input, or the usual error
+    }
+
+    /** Calendar successor; DECEMBER wraps around to JANUARY. */
+    public Month next() {
+        return MONTHS[(ordinal() + 1) % MONTHS.length];
     }
 }
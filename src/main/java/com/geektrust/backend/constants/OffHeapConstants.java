@@ -0,0 +1,20 @@
+// -------- constants/OffHeapConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class OffHeapConstants {
+    private OffHeapConstants() {}
+
+    /** Records per direct buffer chunk (power of two); chunks are added as the store grows. */
+    public static final int RECORDS_PER_CHUNK_SHIFT = 16;
+    public static final int RECORDS_PER_CHUNK = 1 << RECORDS_PER_CHUNK_SHIFT;
+    public static final int NO_MONTHS_RECORDED = 0;
+    // record flag bits
+    public static final int NO_FLAGS = 0;
+    public static final int REBALANCED_FLAG = 1;
+    /** The record's own SIP overrides the SIP of the model it takes its ratios from. */
+    public static final int OWN_SIP_FLAG = 1 << 1;
+    /** Model id of a record that follows no model; its ratios come from its own allocation. */
+    public static final int OWN_PLAN_MODEL = 0;
+    /** Model table slots reserved up front; the table doubles when they run out. */
+    public static final int INITIAL_MODELS = 64;
+}
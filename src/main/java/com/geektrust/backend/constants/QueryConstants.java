@@ -0,0 +1,24 @@
+// -------- constants/QueryConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class QueryConstants {
+    private QueryConstants() {}
+
+    public static final String QUERY_COMMAND = "QUERY";
+    public static final String WHERE = "WHERE";
+    public static final String AND = "AND";
+    public static final String LIMIT = "LIMIT";
+    public static final String TOTAL = "TOTAL";
+    public static final String MODEL = "MODEL";
+    public static final String REBALANCED = "REBALANCED";
+    public static final String SHARE_SUFFIX = "%";
+    public static final String SOURCE_SEPARATOR = ".";
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+    /** Column value of a record with no such snapshot; it matches no condition and is left out of aggregates. */
+    public static final int NULL_VALUE = Integer.MIN_VALUE;
+    /** Records scanned by one task; also the size of each task's selection vector. */
+    public static final int SCAN_BLOCK_SIZE = 1 << 16;
+    public static final double PERCENT = 100.0;
+    public static final String AVERAGE_FORMAT = "%.2f";
+    public static final String NO_VALUE = "-";
+}
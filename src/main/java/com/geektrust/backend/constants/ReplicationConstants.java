@@ -0,0 +1,17 @@
+// -------- constants/ReplicationConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class ReplicationConstants {
+    private ReplicationConstants() {}
+
+    public static final String PRIMARY_FLAG = "--primary";
+    public static final String REPLICA_FLAG = "--replica";
+    public static final String LAG_COMMAND = "LAG";
+    public static final String FIELD_DELIMITER = " ";
+    public static final String TOKEN_DELIMITER = " ";
+    public static final int COMMAND_NAME_INDEX = 0;
+    public static final long NO_ENTRIES = 0L;
+    /** Newest log entries always kept in memory, so replicas that connect late can still replay from entry 1. */
+    public static final int RETAINED_ENTRIES = 100_000;
+    public static final int IO_BUFFER_SIZE = 64 * 1024;
+}
@@ -0,0 +1,23 @@
+// -------- constants/SchedulingConstants.java --------
+package com.geektrust.backend.constants;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class SchedulingConstants {
+    private SchedulingConstants() {}
+
+    /** Read-only commands an advisor waits on; everything else is bulk work. */
+    public static final Set<String> INTERACTIVE_COMMANDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "BALANCE", "REBALANCE", "RETURNS", "RISK", "STATE", "AUM", "LAG")));
+
+    public static final int INTERACTIVE_WEIGHT = 8;
+    public static final int BULK_WEIGHT = 1;
+    /** Stride numerator; lanes advance by STRIDE / weight per grant. */
+    public static final long STRIDE = 1L << 20;
+    public static final int EXECUTION_SLOTS = Runtime.getRuntime().availableProcessors();
+    /** A hosted portfolio runs one command at a time; its lanes only decide which goes next. */
+    public static final int PORTFOLIO_SLOTS = 1;
+}
@@ -5,6 +5,13 @@ public class ServiceConstants {
     public static final int MINIMUM_TOTAL_ALLOCATION = 0;
     public static final int DEFAULT_ALLOCATION_AMOUNT = 0;
     public static final boolean INITIAL_SIP_STATE = false;
+    public static final int MINIMUM_PROJECTION_MONTHS = 1;
+    public static final double MINIMUM_DRIFT_THRESHOLD = 0.0;
+    /** GOAL gives up once the monthly SIP it would need exceeds this. */
+    public static final long GOAL_MAXIMUM_SIP = 1L << 30;
+    public static final long GOAL_UNREACHABLE = -1L;
+    /** Records solved by one task in a parallel goal run. */
+    public static final int GOAL_BLOCK_SIZE = 1024;
 
     private ServiceConstants() {}
 }
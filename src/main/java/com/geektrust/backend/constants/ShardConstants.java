@@ -0,0 +1,28 @@
+// -------- constants/ShardConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class ShardConstants {
+    private ShardConstants() {}
+
+    public static final String SHARD_FLAG = "--shard";
+    public static final String ROUTER_FLAG = "--router";
+
+    /** Ring points per shard; more points give a more even split at the cost of a larger ring. */
+    public static final int VIRTUAL_NODES = 128;
+
+    /** Terminates each reply on the router-to-shard connection; command output never consists of a lone dot. */
+    public static final String END_OF_REPLY = ".";
+
+    public static final String ADMIN_PREFIX = "@";
+    public static final String LIST_PORTFOLIOS = "@PORTFOLIOS";
+    public static final String DUMP_PORTFOLIO = "@DUMP";
+    public static final String DROP_PORTFOLIO = "@DROP";
+    public static final String SHARD_AUM = "@AUM";
+    public static final String ADD_SHARD = "@ADD_SHARD";
+    public static final String AUM_COMMAND = "AUM";
+
+    public static final String TOKEN_DELIMITER = " ";
+    public static final int PORTFOLIO_ID_INDEX = 0;
+    public static final int ADMIN_ARGUMENT_INDEX = 1;
+    public static final int IO_BUFFER_SIZE = 64 * 1024;
+}
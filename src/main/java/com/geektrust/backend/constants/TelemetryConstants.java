@@ -0,0 +1,15 @@
+// -------- constants/TelemetryConstants.java --------
+package com.geektrust.backend.constants;
+
+public final class TelemetryConstants {
+    private TelemetryConstants() {}
+
+    /** Start the JVM with -Dmymoney.jfr=true (and a JFR recording) to emit the events below. */
+    public static final String JFR_PROPERTY = "mymoney.jfr";
+    public static final String CATEGORY = "MyMoney";
+    public static final String COMMAND_EVENT = "mymoney.Command";
+    public static final String REBALANCE_EVENT = "mymoney.Rebalance";
+    public static final String SNAPSHOT_EVENT = "mymoney.Snapshot";
+    /** Portfolio id reported by sessions that host a single, unnamed portfolio. */
+    public static final String DEFAULT_PORTFOLIO_ID = "default";
+}
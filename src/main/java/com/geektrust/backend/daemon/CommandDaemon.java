@@ -0,0 +1,97 @@
+// -------- daemon/CommandDaemon.java --------
+package com.geektrust.backend.daemon;
+
+import com.geektrust.backend.App;
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.commands.CommandInvoker;
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.exceptions.NoSuchCommandException;
+import com.geektrust.backend.scheduling.LaneScheduler;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Resident process that runs command files sent by {@link DaemonClient} over a loopback socket.
+ * Each connection is one job: the client streams the file, half-closes, and reads back exactly
+ * what {@code App.run} would have printed. By default every job gets its own {@link ApplicationConfig},
+ * so jobs never share portfolio state while the JVM, loaded classes and JIT stay warm.
+ * All jobs share one {@link LaneScheduler}, which caps the commands running at once at the number of
+ * cores; queries only go first once that cap is reached.
+ */
+public class CommandDaemon implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Function<PrintStream, CommandInvoker> sessions;
+    private final ExecutorService workers = Executors.newFixedThreadPool(DaemonConstants.WORKER_THREADS);
+    private final LaneScheduler scheduler = new LaneScheduler();
+
+    public CommandDaemon(int port) throws IOException {
+        this(port, out -> new ApplicationConfig(out).getCommandInvoker());
+    }
+
+    /** @param sessions builds the invoker a job runs against, given the job's output stream */
+    public CommandDaemon(int port, Function<PrintStream, CommandInvoker> sessions) throws IOException {
+        this.serverSocket = new ServerSocket(port, DaemonConstants.CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+        this.sessions = sessions;
+    }
+
+    /** Actual bound port; useful when constructed with port 0. */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Accepts jobs until {@link #close()} is called. */
+    public void serve() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                workers.execute(() -> runJob(socket));
+            }
+        } catch (SocketException e) {
+            if (!serverSocket.isClosed()) throw e; // otherwise: closed on purpose
+        }
+    }
+
+    /** Serves on a background daemon thread and returns immediately. */
+    public CommandDaemon start() {
+        Thread acceptor = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+        }, "command-daemon-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        workers.shutdown();
+    }
+
+    private void runJob(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), DaemonConstants.IO_BUFFER_SIZE);
+             PrintStream out = new PrintStream(
+                     new BufferedOutputStream(s.getOutputStream(), DaemonConstants.IO_BUFFER_SIZE), false, "UTF-8")) {
+            CommandInvoker invoker = sessions.apply(out);
+            invoker.setScheduler(scheduler);
+            try {
+                App.process(reader, invoker);
+            } catch (NoSuchCommandException e) {
+                out.println(e);
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+}
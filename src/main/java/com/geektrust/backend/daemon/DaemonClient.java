@@ -0,0 +1,29 @@
+// -------- daemon/DaemonClient.java --------
+package com.geektrust.backend.daemon;
+
+import com.geektrust.backend.constants.DaemonConstants;
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.*;
+
+/** Thin client: streams a command file to a local {@link CommandDaemon} and copies the job output back. */
+public final class DaemonClient {
+
+    private DaemonClient() {}
+
+    public static void submit(int port, String inputFile, OutputStream output) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream request = socket.getOutputStream();
+            Files.copy(Paths.get(inputFile), request);
+            request.flush();
+            socket.shutdownOutput(); // end of job
+
+            InputStream response = socket.getInputStream();
+            byte[] buffer = new byte[DaemonConstants.IO_BUFFER_SIZE];
+            int read;
+            while ((read = response.read(buffer)) != -1) output.write(buffer, 0, read);
+            output.flush();
+        }
+    }
+}
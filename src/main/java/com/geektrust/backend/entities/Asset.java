@@ -14,6 +14,7 @@ public class Asset {
     private double amount;          // use double for ROI math; report via floor/int
     private double sipAmount;       // monthly SIP to add before ROI
     private final double allocationRatio; // immutable original target ratio (0..1)
+    private Portfolio owner;        // notified of exposure and holding changes
 
     public Asset(AssetType type, int amount, double allocationRatio) {
         if (amount < EntityConstants.MINIMUM_AMOUNT)
@@ -36,25 +37,47 @@ public class Asset {
         if (sipAmount < EntityConstants.MINIMUM_AMOUNT)
             throw new IllegalArgumentException("SIP amount cannot be negative");
         this.sipAmount = sipAmount;
+        notifyOwner(getAmount());
     }
 
     public double getSipAmount() { return sipAmount; }
 
     /** Add SIP contribution for the month (before ROI). */
-    public void investSip() { this.amount += this.sipAmount; }
+    public void investSip() {
+        int before = getAmount();
+        this.amount += this.sipAmount;
+        notifyOwner(before);
+    }
 
     /** Apply ROI percentage (decimal, e.g., 0.08 for 8%). */
     public void applyMonthlyROI(double roi) {
         if (roi < PortfolioConstants.MIN_ROI)
             throw new IllegalArgumentException("ROI < -100% not allowed");
+        int before = getAmount();
         this.amount = Math.floor(this.amount * (EntityConstants.ROI_MULTIPLIER_BASE + roi));
         if (this.amount < EntityConstants.MINIMUM_FINAL_AMOUNT) this.amount = EntityConstants.MINIMUM_FINAL_AMOUNT; // safety
+        notifyOwner(before);
     }
 
     /** Adjust amount during rebalance. */
     protected void updateAmount(int amount) {
         if (amount < EntityConstants.MINIMUM_AMOUNT)
             throw new IllegalArgumentException("Asset amount cannot be negative");
+        int before = getAmount();
         this.amount = amount;
+        notifyOwner(before);
+    }
+
+    /** An asset is exposed while it holds money or receives a SIP; only exposed assets move with the market. */
+    boolean isExposed() {
+        return amount > EntityConstants.MINIMUM_FINAL_AMOUNT || sipAmount > EntityConstants.MINIMUM_AMOUNT;
+    }
+
+    void setOwner(Portfolio owner) { this.owner = owner; }
+
+    Portfolio getOwner() { return owner; }
+
+    private void notifyOwner(int amountBefore) {
+        if (owner != null) owner.onAssetChanged(this, getAmount() - amountBefore);
     }
 }
@@ -0,0 +1,9 @@
+// -------- entities/HoldingsListener.java --------
+package com.geektrust.backend.entities;
+
+import com.geektrust.backend.constants.AssetType;
+
+/** Receives every change to a portfolio's reported holdings as a signed delta. */
+public interface HoldingsListener {
+    void onHoldingChanged(AssetType type, long delta);
+}
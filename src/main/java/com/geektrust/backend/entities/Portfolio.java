@@ -4,6 +4,7 @@ package com.geektrust.backend.entities;
 import java.util.*;
 import com.geektrust.backend.constants.AssetType;
 import com.geektrust.backend.constants.EntityConstants;
+import com.geektrust.backend.telemetry.FlightRecorder;
 
 import java.util.Locale;
 
@@ -13,37 +14,101 @@ import java.util.Locale;
 public class Portfolio {
 
     private final LinkedHashMap<AssetType, Asset> assets = new LinkedHashMap<>();
-    private final Map<String, LinkedHashMap<AssetType, Integer>> monthlySnapshots = new LinkedHashMap<>();
+    private final Asset[] assetsByType = new Asset[AssetType.values().length]; // the same assets, by ordinal
+    private final SnapshotLog monthlySnapshots = new SnapshotLog(); // varint deltas, not boxed maps
     private LinkedHashMap<AssetType, Integer> lastRebalancedSnapshot = null;
+    // Exposure index: asset types with a non-zero holding or SIP, kept in sync by the assets themselves
+    private final EnumSet<AssetType> exposedTypes = EnumSet.noneOf(AssetType.class);
+    private HoldingsListener holdingsListener = null;
+    private final ReturnTracker returns = new ReturnTracker(); // cash flows in, as they happen
+    private final ReturnSeries risk = new ReturnSeries(); // monthly time-weighted returns of the whole portfolio
+    private final ReturnSeries[] assetRisk = new ReturnSeries[AssetType.values().length]; // per asset class, on first exposure
 
     /** Add or replace an asset */
     public void addAsset(Asset asset) {
         Objects.requireNonNull(asset, "Asset cannot be null");
-        assets.put(asset.getType(), asset);
+        Asset replaced = assets.put(asset.getType(), asset);
+        if (replaced == asset) return;
+        assetsByType[asset.getType().ordinal()] = asset;
+        if (replaced != null && replaced.getOwner() == this) {
+            replaced.setOwner(null);
+            publishHolding(replaced.getType(), -replaced.getAmount());
+            returns.invest(-replaced.getAmount());
+        }
+        asset.setOwner(this);
+        returns.invest(asset.getAmount());
+        onAssetChanged(asset, asset.getAmount());
     }
 
-    public Asset getAsset(AssetType type) { return assets.get(type); }
+    public Asset getAsset(AssetType type) { return assetsByType[type.ordinal()]; }
 
     public Collection<Asset> getAssets() { return Collections.unmodifiableCollection(assets.values()); }
 
-    /** Apply SIP + ROI for a given month */
+    /** Asset types that currently hold money or receive a SIP. */
+    public Set<AssetType> getExposedTypes() { return Collections.unmodifiableSet(exposedTypes); }
+
+    /**
+     * Apply SIP + ROI for a given month. Assets with neither holdings nor SIP are skipped:
+     * SIP and ROI cannot move them off zero.
+     */
     public void applyMonthlyChanges(Map<AssetType, Double> roiMap) {
-        for (Asset asset : assets.values()) {
+        int opening = 0, closing = 0;
+        double sip = 0.0;
+        for (AssetType type : exposedTypes) {
+            Asset asset = assetsByType[type.ordinal()];
+            opening += asset.getAmount();
+            sip += asset.getSipAmount();
             asset.investSip();
             double roi = roiMap.getOrDefault(asset.getType(), EntityConstants.DEFAULT_ROI);
             asset.applyMonthlyROI(roi);
+            assetRisk(type).add(roi);
+            closing += asset.getAmount();
         }
+        closeMonth(opening, sip, closing);
+    }
+
+    /** Apply SIP + ROI with decimal ROI indexed by asset ordinal; same rules as the map variant. */
+    public void applyMonthlyChanges(double[] roi) {
+        int opening = 0, closing = 0;
+        double sip = 0.0;
+        for (AssetType type : exposedTypes) {
+            Asset asset = assetsByType[type.ordinal()];
+            opening += asset.getAmount();
+            sip += asset.getSipAmount();
+            asset.investSip();
+            asset.applyMonthlyROI(roi[type.ordinal()]);
+            assetRisk(type).add(roi[type.ordinal()]);
+            closing += asset.getAmount();
+        }
+        closeMonth(opening, sip, closing);
     }
 
     /** Save snapshot for a given month (post-change, pre-rebalance). */
     public void saveMonthlySnapshot(String month) {
-        monthlySnapshots.put(normalizeMonth(month), createSnapshot());
+        Object trace = FlightRecorder.beginSnapshot();
+        String label = normalizeMonth(month);
+        monthlySnapshots.save(label, assetsByType);
+        if (trace != null) FlightRecorder.endSnapshot(trace, label, monthlySnapshots.encodedBytes());
     }
 
     /** Get snapshot for a given month */
     public Map<AssetType, Integer> getMonthlySnapshot(String month) {
-        LinkedHashMap<AssetType, Integer> snap = monthlySnapshots.get(normalizeMonth(month));
-        return (snap == null) ? Collections.emptyMap() : new LinkedHashMap<>(snap);
+        int[] values = new int[AssetType.values().length];
+        int present = monthlySnapshots.load(normalizeMonth(month), values);
+        if (present == EntityConstants.SNAPSHOT_MISSING) return Collections.emptyMap();
+        // asset order never changes once added, so the current order is the order at save time
+        LinkedHashMap<AssetType, Integer> snapshot = new LinkedHashMap<>();
+        for (AssetType type : assets.keySet()) {
+            if ((present & (1 << type.ordinal())) != 0) snapshot.put(type, values[type.ordinal()]);
+        }
+        return snapshot;
+    }
+
+    /** Every saved snapshot keyed by normalized month name, in the order first saved. */
+    public Map<String, Map<AssetType, Integer>> getMonthlySnapshots() {
+        Map<String, Map<AssetType, Integer>> copy = new LinkedHashMap<>();
+        for (String month : monthlySnapshots.labels()) copy.put(month, getMonthlySnapshot(month));
+        return copy;
     }
 
     /** Rebalance to original ratios */
@@ -56,16 +121,79 @@ public class Portfolio {
         lastRebalancedSnapshot = createSnapshot();
     }
 
+    /** Largest absolute gap between an asset's current weight and its original ratio (0..1). */
+    public double currentDrift() {
+        int total = totalValue();
+        if (total <= EntityConstants.MINIMUM_AMOUNT) return EntityConstants.NO_DRIFT;
+        double drift = EntityConstants.NO_DRIFT;
+        for (Asset asset : assets.values()) {
+            drift = Math.max(drift, Math.abs(asset.getAmount() / (double) total - asset.getAllocationRatio()));
+        }
+        return drift;
+    }
+
+    /** Absolute return, CAGR and XIRR against the current value; cheap enough to call per statement. */
+    public Returns getReturns() {
+        return returns.returnsAt(totalValue());
+    }
+
+    /** Volatility, drawdown and Sharpe of the portfolio's monthly returns, SIPs taken out. */
+    public RiskMetrics getRisk() {
+        return risk.metrics();
+    }
+
+    /** The same figures for one asset class, from the ROI it was given each month it was held. */
+    public RiskMetrics getRisk(AssetType type) {
+        ReturnSeries series = assetRisk[type.ordinal()];
+        return (series == null) ? new ReturnSeries().metrics() : series.metrics();
+    }
+
     /** Get last rebalance snapshot */
     public Map<AssetType, Integer> getLastRebalancedSnapshot() {
         return (lastRebalancedSnapshot == null) ? Collections.emptyMap() : new LinkedHashMap<>(lastRebalancedSnapshot);
     }
 
+    /**
+     * Route holding changes to a listener (e.g. a firm-wide AUM registry). Current holdings are
+     * withdrawn from the previous listener and credited to the new one; pass null to detach.
+     */
+    public void setHoldingsListener(HoldingsListener listener) {
+        for (Asset asset : assets.values()) publishHolding(asset.getType(), -asset.getAmount());
+        holdingsListener = listener;
+        for (Asset asset : assets.values()) publishHolding(asset.getType(), asset.getAmount());
+    }
+
+    /** Called by an owned asset whenever its amount or SIP changes; delta is in reported (floored) units. */
+    void onAssetChanged(Asset asset, int amountDelta) {
+        if (asset.getOwner() != this) return; // replaced assets are disowned, so no map lookup is needed
+        if (asset.isExposed()) exposedTypes.add(asset.getType());
+        else exposedTypes.remove(asset.getType());
+        publishHolding(asset.getType(), amountDelta);
+    }
+
     // --- Private Helpers ---
     private String normalizeMonth(String month) {
         return month.trim().toUpperCase(Locale.ROOT);
     }
 
+    /** Feeds the month's flows and values to the return and risk accumulators. */
+    private void closeMonth(int opening, double sip, int closing) {
+        double start = opening + sip;
+        returns.invest((long) sip); // SIPs are set in whole rupees
+        returns.closeMonth(start, closing);
+        if (start > EntityConstants.MINIMUM_AMOUNT) risk.add(closing / start - EntityConstants.ROI_MULTIPLIER_BASE);
+    }
+
+    private ReturnSeries assetRisk(AssetType type) {
+        ReturnSeries series = assetRisk[type.ordinal()];
+        if (series == null) assetRisk[type.ordinal()] = series = new ReturnSeries();
+        return series;
+    }
+
+    private void publishHolding(AssetType type, long delta) {
+        if (holdingsListener != null && delta != 0) holdingsListener.onHoldingChanged(type, delta);
+    }
+
     private LinkedHashMap<AssetType, Integer> createSnapshot() {
         LinkedHashMap<AssetType, Integer> snapshot = new LinkedHashMap<>();
         for (Asset asset : assets.values()) snapshot.put(asset.getType(), asset.getAmount());
@@ -73,7 +201,9 @@ public class Portfolio {
     }
 
     private int totalValue() {
-        return assets.values().stream().mapToInt(Asset::getAmount).sum();
+        int total = 0;
+        for (Asset asset : assets.values()) total += asset.getAmount();
+        return total;
     }
 
     private int calculateTargetAmount(int total, double ratio) {
@@ -0,0 +1,74 @@
+// -------- entities/ReturnSeries.java --------
+package com.geektrust.backend.entities;
+
+import com.geektrust.backend.constants.EntityConstants;
+
+/**
+ * Streaming statistics over a series of monthly returns, updated in O(1) per month with no history
+ * kept: Welford's mean and variance for the whole series, running sums over a primitive ring buffer
+ * for the rolling window, and a growth index with its running peak for drawdown.
+ */
+final class ReturnSeries {
+
+    private static final double MONTHS_PER_YEAR = EntityConstants.MONTHS_PER_YEAR;
+    private static final double ANNUALISE_VOLATILITY = Math.sqrt(MONTHS_PER_YEAR);
+
+    private final double[] window = new double[EntityConstants.RISK_WINDOW_MONTHS];
+    private int count;
+    private double mean;
+    private double squaredDeviations; // Welford's M2
+    private double windowSum;
+    private double windowSquares;
+    private double index = EntityConstants.NO_GROWTH; // growth of one unit invested at the start
+    private double peak = EntityConstants.NO_GROWTH;
+    private double maxDrawdown;
+
+    void add(double monthlyReturn) {
+        count++;
+        double delta = monthlyReturn - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (monthlyReturn - mean);
+
+        int slot = (count - 1) % window.length;
+        double evicted = window[slot];
+        window[slot] = monthlyReturn;
+        if (slot == window.length - 1) {
+            recomputeWindowSums(); // once per lap, so rounding in the running sums never builds up
+        } else {
+            windowSum += monthlyReturn - evicted;
+            windowSquares += monthlyReturn * monthlyReturn - evicted * evicted;
+        }
+
+        index *= EntityConstants.ROI_MULTIPLIER_BASE + monthlyReturn;
+        if (index > peak) peak = index;
+        maxDrawdown = Math.max(maxDrawdown, drawdown());
+    }
+
+    RiskMetrics metrics() {
+        if (count < EntityConstants.MINIMUM_VARIANCE_SAMPLES) {
+            return new RiskMetrics(count, EntityConstants.NO_RISK, EntityConstants.NO_RISK, maxDrawdown, drawdown(), EntityConstants.NO_RISK);
+        }
+        double volatility = Math.sqrt(squaredDeviations / (count - 1)) * ANNUALISE_VOLATILITY;
+        int n = Math.min(count, window.length);
+        double windowVariance = (windowSquares - windowSum * windowSum / n) / (n - 1);
+        double rollingVolatility = Math.sqrt(Math.max(windowVariance, 0.0)) * ANNUALISE_VOLATILITY;
+        double sharpe = (volatility > EntityConstants.NO_RISK)
+                ? (mean * MONTHS_PER_YEAR - EntityConstants.RISK_FREE_ANNUAL_RATE) / volatility
+                : EntityConstants.NO_RISK;
+        return new RiskMetrics(count, volatility, rollingVolatility, maxDrawdown, drawdown(), sharpe);
+    }
+
+    private double drawdown() {
+        return EntityConstants.ROI_MULTIPLIER_BASE - index / peak;
+    }
+
+    private void recomputeWindowSums() {
+        int n = Math.min(count, window.length);
+        windowSum = 0.0;
+        windowSquares = 0.0;
+        for (int i = 0; i < n; i++) {
+            windowSum += window[i];
+            windowSquares += window[i] * window[i];
+        }
+    }
+}
@@ -0,0 +1,93 @@
+// -------- entities/ReturnTracker.java --------
+package com.geektrust.backend.entities;
+
+import com.geektrust.backend.constants.EntityConstants;
+
+import java.util.Arrays;
+
+/**
+ * Running return figures for one portfolio, fed as cash flows happen instead of being rebuilt from
+ * the full history on every query.
+ *
+ * Money invested at the start of each month is kept in whole rupees as runs of equal months: the
+ * allocation month, then one run per SIP level, so a plan that never changes its SIP holds two runs
+ * however many years it spans. Absolute return and the chained monthly growth behind CAGR are updated
+ * in O(1) per month. XIRR has no closed form, so it is solved with Newton's method on the monthly rate;
+ * each iteration is a Horner pass over every month, starting from the previous answer, which one month
+ * later is usually one or two iterations away.
+ */
+final class ReturnTracker {
+
+    private long[] runFlows = new long[EntityConstants.RETURNS_INITIAL_RUNS]; // money in per month of the run
+    private int[] runMonths = new int[EntityConstants.RETURNS_INITIAL_RUNS];
+    private int runs;
+    private long openFlow;     // money in for the open month
+    private int months;        // months closed
+    private double invested;
+    private double growth = EntityConstants.NO_GROWTH;
+    private double monthlyRate = EntityConstants.NO_RETURN; // last XIRR solution, the next warm start
+    private int solvedMonths = -1;
+    private int solvedValue;
+    private double solvedXirr;
+
+    /** Money in (or out, when negative) at the start of the open month. */
+    void invest(long amount) {
+        openFlow += amount;
+        invested += amount;
+        solvedMonths = -1;
+    }
+
+    /** Closes the open month; {@code openingValue} already includes the money invested for it. */
+    void closeMonth(double openingValue, double closingValue) {
+        if (openingValue > EntityConstants.MINIMUM_AMOUNT) growth *= closingValue / openingValue;
+        months++;
+        if (runs > 0 && runFlows[runs - 1] == openFlow) {
+            runMonths[runs - 1]++;
+        } else {
+            if (runs == runFlows.length) {
+                runFlows = Arrays.copyOf(runFlows, runs * 2);
+                runMonths = Arrays.copyOf(runMonths, runs * 2);
+            }
+            runFlows[runs] = openFlow;
+            runMonths[runs++] = 1;
+        }
+        openFlow = 0;
+    }
+
+    Returns returnsAt(int value) {
+        if (months == 0 || invested <= EntityConstants.MINIMUM_AMOUNT) {
+            return new Returns(months, invested, value, EntityConstants.NO_RETURN, EntityConstants.NO_RETURN, EntityConstants.NO_RETURN);
+        }
+        double years = months / (double) EntityConstants.MONTHS_PER_YEAR;
+        double cagr = Math.pow(growth, 1.0 / years) - 1.0;
+        return new Returns(months, invested, value, (value - invested) / invested, cagr, xirr(value));
+    }
+
+    /** Annualised XIRR of the flows against {@code value}; repeat queries for the same state are free. */
+    private double xirr(int value) {
+        if (solvedMonths == months && solvedValue == value) return solvedXirr;
+        double x = EntityConstants.ROI_MULTIPLIER_BASE + monthlyRate;
+        for (int i = 0; i < EntityConstants.XIRR_MAX_ITERATIONS; i++) {
+            // Horner: future value of every flow at the end of the last closed month, and its slope in x
+            double futureValue = 0.0, slope = 0.0;
+            for (int r = 0; r < runs; r++) {
+                double flow = runFlows[r];
+                for (int t = 0; t < runMonths[r]; t++) {
+                    slope = slope * x + futureValue;
+                    futureValue = futureValue * x + flow;
+                }
+            }
+            slope = slope * x + futureValue;
+            futureValue = futureValue * x + openFlow;
+            double gap = futureValue - value;
+            if (Math.abs(gap) <= EntityConstants.XIRR_TOLERANCE * Math.max(value, invested) || slope <= 0.0) break;
+            double next = x - gap / slope;
+            x = (next > 0.0) ? next : x / 2; // the rate cannot fall below -100% a month
+        }
+        monthlyRate = x - EntityConstants.ROI_MULTIPLIER_BASE;
+        solvedMonths = months;
+        solvedValue = value;
+        solvedXirr = Math.pow(x, EntityConstants.MONTHS_PER_YEAR) - 1.0;
+        return solvedXirr;
+    }
+}
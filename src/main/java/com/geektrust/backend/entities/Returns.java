@@ -0,0 +1,42 @@
+// -------- entities/Returns.java --------
+package com.geektrust.backend.entities;
+
+/**
+ * Returns of a portfolio as of its last closed month. Rates are decimals (0.12 is 12%); CAGR and
+ * XIRR are annualised.
+ */
+public final class Returns {
+
+    private final int months;
+    private final double invested;
+    private final int value;
+    private final double absoluteReturn;
+    private final double cagr;
+    private final double xirr;
+
+    Returns(int months, double invested, int value, double absoluteReturn, double cagr, double xirr) {
+        this.months = months;
+        this.invested = invested;
+        this.value = value;
+        this.absoluteReturn = absoluteReturn;
+        this.cagr = cagr;
+        this.xirr = xirr;
+    }
+
+    /** Months closed so far. */
+    public int getMonths() { return months; }
+
+    /** Net money put in: the initial allocation plus every SIP invested. */
+    public double getInvested() { return invested; }
+
+    public int getValue() { return value; }
+
+    /** Gain over everything invested, regardless of when it went in. */
+    public double getAbsoluteReturn() { return absoluteReturn; }
+
+    /** Time-weighted: the chained monthly growth with SIPs taken out, annualised. */
+    public double getCagr() { return cagr; }
+
+    /** Money-weighted: the annual rate at which every cash flow grows into the current value. */
+    public double getXirr() { return xirr; }
+}
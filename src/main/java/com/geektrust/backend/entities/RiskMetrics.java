@@ -0,0 +1,44 @@
+// -------- entities/RiskMetrics.java --------
+package com.geektrust.backend.entities;
+
+/**
+ * Risk of a monthly return series (a whole portfolio or one asset class). Volatilities are annualised
+ * standard deviations and drawdowns are fractions of the peak; all are decimals (0.12 is 12%).
+ */
+public final class RiskMetrics {
+
+    private final int months;
+    private final double volatility;
+    private final double rollingVolatility;
+    private final double maxDrawdown;
+    private final double currentDrawdown;
+    private final double sharpe;
+
+    RiskMetrics(int months, double volatility, double rollingVolatility, double maxDrawdown,
+                double currentDrawdown, double sharpe) {
+        this.months = months;
+        this.volatility = volatility;
+        this.rollingVolatility = rollingVolatility;
+        this.maxDrawdown = maxDrawdown;
+        this.currentDrawdown = currentDrawdown;
+        this.sharpe = sharpe;
+    }
+
+    /** Monthly returns observed. */
+    public int getMonths() { return months; }
+
+    /** Over every month observed. */
+    public double getVolatility() { return volatility; }
+
+    /** Over the last RISK_WINDOW_MONTHS months only. */
+    public double getRollingVolatility() { return rollingVolatility; }
+
+    /** Deepest fall from a running peak so far. */
+    public double getMaxDrawdown() { return maxDrawdown; }
+
+    /** How far the latest value sits below the running peak. */
+    public double getCurrentDrawdown() { return currentDrawdown; }
+
+    /** Annualised mean excess return over annualised volatility; zero while volatility is zero. */
+    public double getSharpe() { return sharpe; }
+}
@@ -0,0 +1,231 @@
+// -------- entities/SnapshotLog.java --------
+package com.geektrust.backend.entities;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.EntityConstants;
+
+import java.util.*;
+
+/**
+ * Compact store behind {@link Portfolio}'s monthly snapshots.
+ *
+ * Snapshots are appended to one byte array. Each entry holds its label slot, a bitmask of the
+ * asset types present, and every present amount as a zig-zag varint difference from the previous
+ * entry, so a month of typical balances costs a handful of bytes instead of a boxed map. Saving a
+ * label again supersedes its old entry, and once superseded entries pass a third of the live ones the
+ * log is rewritten with live entries only. In the usual calendar order the live entries are the newest ones,
+ * so compaction re-encodes one entry and shifts the rest. Reads decode forward from a one-entry
+ * cache (or from the start); the newest entry is served straight from the encoder's running totals.
+ */
+final class SnapshotLog {
+
+    private static final AssetType[] TYPES = AssetType.values();
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MAX_ENTRY_BYTES = MAX_VARINT_BYTES * (2 + TYPES.length); // slot, mask, amounts
+
+    private String[] labels = new String[EntityConstants.SNAPSHOT_INITIAL_LABELS];
+    private int[] liveEntry = new int[EntityConstants.SNAPSHOT_INITIAL_LABELS]; // per label slot
+    private int labelCount;
+
+    private byte[] bytes = new byte[EntityConstants.SNAPSHOT_INITIAL_BYTES];
+    private int length;
+    private int entries;
+    private final int[] tail = new int[TYPES.length]; // amounts of the newest entry, 0 when absent
+    private int tailMask;
+
+    // decode cache: the last entry decoded by a read
+    private int cachedEntry = EntityConstants.SNAPSHOT_MISSING;
+    private int cachedEnd;
+    private int cachedMask;
+    private final int[] cachedValues = new int[TYPES.length];
+    private int readPosition;
+
+    /** Appends the current amounts of {@code assetsByType} (indexed by ordinal, null when absent) under {@code label}. */
+    void save(String label, Asset[] assetsByType) {
+        int mask = 0;
+        for (AssetType type : TYPES) if (assetsByType[type.ordinal()] != null) mask |= 1 << type.ordinal();
+        int slot = slotOf(label);
+        if (slot == EntityConstants.SNAPSHOT_MISSING) slot = addLabel(label);
+
+        writeVarint(slot);
+        writeVarint(mask);
+        for (AssetType type : TYPES) {
+            if ((mask & (1 << type.ordinal())) == 0) {
+                tail[type.ordinal()] = 0;
+                continue;
+            }
+            int amount = assetsByType[type.ordinal()].getAmount();
+            writeVarint(zigZag(amount - tail[type.ordinal()]));
+            tail[type.ordinal()] = amount;
+        }
+        tailMask = mask;
+        liveEntry[slot] = entries++;
+        if (entries - labelCount > Math.max(labelCount / 3, EntityConstants.SNAPSHOT_COMPACTION_MINIMUM)) compact();
+    }
+
+    /**
+     * Copies the live snapshot for {@code label} into {@code values} (indexed by ordinal).
+     * @return bitmask of the asset types present, or SNAPSHOT_MISSING when the label was never saved
+     */
+    int load(String label, int[] values) {
+        int slot = slotOf(label);
+        if (slot == EntityConstants.SNAPSHOT_MISSING) return EntityConstants.SNAPSHOT_MISSING;
+        int entry = liveEntry[slot];
+        if (entry == entries - 1) {
+            System.arraycopy(tail, 0, values, 0, tail.length);
+            return tailMask;
+        }
+        decodeTo(entry);
+        System.arraycopy(cachedValues, 0, values, 0, cachedValues.length);
+        return cachedMask;
+    }
+
+    /** Labels in the order they were first saved. */
+    List<String> labels() {
+        return Collections.unmodifiableList(Arrays.asList(labels).subList(0, labelCount));
+    }
+
+    /** Bytes held by the encoded entries. */
+    int encodedBytes() {
+        return length;
+    }
+
+    // --- internals ---
+
+    private int slotOf(String label) {
+        for (int i = 0; i < labelCount; i++) {
+            if (labels[i].equals(label)) return i;
+        }
+        return EntityConstants.SNAPSHOT_MISSING;
+    }
+
+    private int addLabel(String label) {
+        if (labelCount == labels.length) {
+            labels = Arrays.copyOf(labels, labelCount * 2);
+            liveEntry = Arrays.copyOf(liveEntry, labelCount * 2);
+        }
+        labels[labelCount] = label;
+        return labelCount++;
+    }
+
+    /** Decodes forward to {@code entry}, starting from the cache when it is not past it. */
+    private void decodeTo(int entry) {
+        int position;
+        int current;
+        if (cachedEntry != EntityConstants.SNAPSHOT_MISSING && cachedEntry <= entry) {
+            if (cachedEntry == entry) return;
+            position = cachedEnd;
+            current = cachedEntry + 1;
+        } else {
+            Arrays.fill(cachedValues, 0);
+            position = 0;
+            current = 0;
+        }
+        readPosition = position;
+        for (; current <= entry; current++) {
+            readVarint(); // label slot
+            cachedMask = readVarint();
+            for (AssetType type : TYPES) {
+                int i = type.ordinal();
+                cachedValues[i] = ((cachedMask & (1 << i)) == 0) ? 0 : cachedValues[i] + unZigZag(readVarint());
+            }
+        }
+        cachedEntry = entry;
+        cachedEnd = readPosition;
+    }
+
+    private void compact() {
+        int firstLive = entries - labelCount;
+        int oldest = Integer.MAX_VALUE;
+        for (int slot = 0; slot < labelCount; slot++) oldest = Math.min(oldest, liveEntry[slot]);
+        if (oldest == firstLive) compactTail(firstLive);
+        else compactAll();
+    }
+
+    /** Live entries are the newest ones: make the first of them absolute and drop everything before it. */
+    private void compactTail(int firstLive) {
+        decodeTo(firstLive);
+        int tailStart = cachedEnd;
+        if (tailStart < MAX_ENTRY_BYTES) { // the rewritten entry could overrun bytes not yet moved
+            compactAll();
+            return;
+        }
+        int firstSlot = 0;
+        while (liveEntry[firstSlot] != firstLive) firstSlot++;
+
+        int tailLength = length - tailStart;
+        length = 0;
+        writeVarint(firstSlot);
+        writeVarint(cachedMask);
+        for (AssetType type : TYPES) {
+            if ((cachedMask & (1 << type.ordinal())) != 0) writeVarint(zigZag(cachedValues[type.ordinal()]));
+        }
+        int firstEnd = length;
+        System.arraycopy(bytes, tailStart, bytes, firstEnd, tailLength);
+        length = firstEnd + tailLength;
+
+        for (int slot = 0; slot < labelCount; slot++) liveEntry[slot] -= firstLive;
+        entries = labelCount;
+        cachedEntry = 0; // cached values still describe the (now first) entry
+        cachedEnd = firstEnd;
+    }
+
+    /** Rewrites the log with each label's live entry only, in entry order. */
+    private void compactAll() {
+        Integer[] slots = new Integer[labelCount];
+        for (int i = 0; i < labelCount; i++) slots[i] = i;
+        Arrays.sort(slots, Comparator.comparingInt(slot -> liveEntry[slot]));
+
+        int[][] values = new int[labelCount][];
+        int[] masks = new int[labelCount];
+        for (int k = 0; k < labelCount; k++) {
+            values[k] = new int[TYPES.length];
+            masks[k] = load(labels[slots[k]], values[k]);
+        }
+
+        bytes = new byte[Math.max(EntityConstants.SNAPSHOT_INITIAL_BYTES, length / 2)];
+        length = 0;
+        int[] previous = new int[TYPES.length];
+        for (int k = 0; k < labelCount; k++) {
+            writeVarint(slots[k]);
+            writeVarint(masks[k]);
+            for (AssetType type : TYPES) {
+                int i = type.ordinal();
+                if ((masks[k] & (1 << i)) != 0) writeVarint(zigZag(values[k][i] - previous[i]));
+                previous[i] = values[k][i];
+            }
+            liveEntry[slots[k]] = k;
+        }
+        entries = labelCount;
+        cachedEntry = EntityConstants.SNAPSHOT_MISSING;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void writeVarint(int value) {
+        if (length + MAX_VARINT_BYTES > bytes.length) bytes = Arrays.copyOf(bytes, bytes.length + (bytes.length >> 1));
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    private int readVarint() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[readPosition++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,105 @@
+// -------- export/SnapshotExporter.java --------
+package com.geektrust.backend.export;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.constants.ExportConstants;
+import com.geektrust.backend.constants.Month;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Writes monthly BALANCE snapshots in bulk, bypassing per-line printing.
+ *
+ * Columnar layout (big-endian):
+ * <pre>
+ * int magic "MYMX" | short version | short assetCount | int rowCount
+ * assetCount x (byte nameLength, ASCII name)
+ * month column    : rowCount bytes (Month ordinal)
+ * one asset column per asset, in header order : rowCount ints
+ * </pre>
+ * Every column is written at its precomputed file offset through a direct buffer.
+ */
+public final class SnapshotExporter {
+
+    private SnapshotExporter() {}
+
+    public static void writeCsv(Path target, Map<Month, Map<AssetType, Integer>> balances) throws IOException {
+        AssetType[] types = AssetType.values();
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            StringBuilder row = new StringBuilder(ExportConstants.CSV_MONTH_HEADER);
+            for (AssetType type : types) row.append(ExportConstants.CSV_SEPARATOR).append(type.name());
+            writer.write(row.append(ExportConstants.LINE_SEPARATOR).toString());
+            for (Map.Entry<Month, Map<AssetType, Integer>> e : balances.entrySet()) {
+                row.setLength(0);
+                row.append(e.getKey().name());
+                for (AssetType type : types) {
+                    row.append(ExportConstants.CSV_SEPARATOR)
+                            .append(e.getValue().getOrDefault(type, CommandConstants.DEFAULT_BALANCE));
+                }
+                writer.write(row.append(ExportConstants.LINE_SEPARATOR).toString());
+            }
+        }
+    }
+
+    public static void writeColumnar(Path target, Map<Month, Map<AssetType, Integer>> balances) throws IOException {
+        AssetType[] types = AssetType.values();
+        List<Month> months = new ArrayList<>(balances.keySet());
+        int rows = months.size();
+
+        ByteBuffer header = ByteBuffer.allocate(headerSize(types));
+        header.putInt(ExportConstants.COLUMNAR_MAGIC)
+                .putShort(ExportConstants.COLUMNAR_VERSION)
+                .putShort((short) types.length)
+                .putInt(rows);
+        for (AssetType type : types) {
+            byte[] name = type.name().getBytes(StandardCharsets.US_ASCII);
+            header.put((byte) name.length).put(name);
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long offset = writeFully(channel, header, 0);
+
+            ByteBuffer column = ByteBuffer.allocateDirect(
+                    Math.min(ExportConstants.MAX_DIRECT_BUFFER_BYTES, Math.max(Integer.BYTES, rows * Integer.BYTES)));
+            for (Month month : months) {
+                if (!column.hasRemaining()) offset = flush(channel, column, offset);
+                column.put((byte) month.ordinal());
+            }
+            offset = flush(channel, column, offset);
+
+            for (AssetType type : types) {
+                for (Month month : months) {
+                    if (column.remaining() < Integer.BYTES) offset = flush(channel, column, offset);
+                    column.putInt(balances.get(month).getOrDefault(type, CommandConstants.DEFAULT_BALANCE));
+                }
+                offset = flush(channel, column, offset);
+            }
+        }
+    }
+
+    private static int headerSize(AssetType[] types) {
+        int size = Integer.BYTES + Short.BYTES + Short.BYTES + Integer.BYTES;
+        for (AssetType type : types) size += Byte.BYTES + type.name().length();
+        return size;
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        buffer.flip();
+        long next = writeFully(channel, buffer, offset);
+        buffer.clear();
+        return next;
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) offset += channel.write(buffer, offset);
+        return offset;
+    }
+}
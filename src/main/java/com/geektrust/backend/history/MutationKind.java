@@ -0,0 +1,7 @@
+// -------- history/MutationKind.java --------
+package com.geektrust.backend.history;
+
+/** What a stamped mutation was; REBALANCE is stamped separately from the CHANGE that triggered it. */
+public enum MutationKind {
+    ALLOCATE, SIP, CHANGE, REBALANCE
+}
@@ -0,0 +1,132 @@
+// -------- history/PortfolioHistory.java --------
+package com.geektrust.backend.history;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.HistoryConstants;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.entities.Asset;
+import com.geektrust.backend.entities.Portfolio;
+
+import java.util.Arrays;
+
+/**
+ * Every stamped mutation of a session, numbered from 1, stored as keyframes plus deltas.
+ *
+ * The state vector is each asset's amount followed by each asset's SIP. Every
+ * {@link HistoryConstants#KEYFRAME_INTERVAL}-th entry is a full keyframe. The entries in between
+ * keep only zig-zag varint differences from their predecessor, usually a few bytes each because
+ * most months move amounts by small sums. {@link #stateAt(long)} loads the nearest keyframe at or
+ * before the sequence number and replays fewer than KEYFRAME_INTERVAL deltas.
+ */
+public class PortfolioHistory {
+
+    private static final AssetType[] TYPES = AssetType.values();
+    private static final Month[] MONTHS = Month.values();
+    private static final int WIDTH = 2 * TYPES.length; // amounts, then SIP amounts
+
+    private byte[] kinds = new byte[HistoryConstants.INITIAL_ENTRIES];
+    private byte[] months = new byte[HistoryConstants.INITIAL_ENTRIES];
+    private int[] keyframes = new int[HistoryConstants.INITIAL_ENTRIES / HistoryConstants.KEYFRAME_INTERVAL * WIDTH];
+    private int[] keyframeOffsets = new int[HistoryConstants.INITIAL_ENTRIES / HistoryConstants.KEYFRAME_INTERVAL];
+    private byte[] deltas = new byte[HistoryConstants.INITIAL_DELTA_BYTES];
+    private int deltaLength;
+    private long size;
+
+    private final int[] previous = new int[WIDTH];
+    private final int[] current = new int[WIDTH];
+
+    /** Stamps the portfolio's state after a mutation and returns its sequence number. */
+    public long record(MutationKind kind, Month month, Portfolio portfolio) {
+        for (AssetType type : TYPES) {
+            Asset asset = portfolio.getAsset(type);
+            current[type.ordinal()] = (asset == null) ? 0 : asset.getAmount();
+            current[TYPES.length + type.ordinal()] = (asset == null) ? 0 : (int) asset.getSipAmount();
+        }
+
+        int index = (int) size;
+        ensureEntryCapacity(index + 1);
+        kinds[index] = (byte) kind.ordinal();
+        months[index] = (month == null) ? HistoryConstants.NO_MONTH : (byte) month.ordinal();
+
+        if (index % HistoryConstants.KEYFRAME_INTERVAL == 0) {
+            int keyframe = index / HistoryConstants.KEYFRAME_INTERVAL;
+            System.arraycopy(current, 0, keyframes, keyframe * WIDTH, WIDTH);
+            keyframeOffsets[keyframe] = deltaLength;
+        } else {
+            for (int i = 0; i < WIDTH; i++) writeVarint(zigZag(current[i] - previous[i]));
+        }
+        System.arraycopy(current, 0, previous, 0, WIDTH);
+        return ++size;
+    }
+
+    /** Sequence number of the newest mutation, or 0 before the first one. */
+    public long head() {
+        return size;
+    }
+
+    public PortfolioState stateAt(long sequence) {
+        if (sequence < HistoryConstants.FIRST_SEQUENCE || sequence > size)
+            throw new IllegalArgumentException("No mutation " + sequence + "; history holds 1.." + size);
+        int index = (int) (sequence - HistoryConstants.FIRST_SEQUENCE);
+        int keyframe = index / HistoryConstants.KEYFRAME_INTERVAL;
+
+        int[] state = Arrays.copyOfRange(keyframes, keyframe * WIDTH, (keyframe + 1) * WIDTH);
+        int[] position = {keyframeOffsets[keyframe]};
+        for (int entry = keyframe * HistoryConstants.KEYFRAME_INTERVAL + 1; entry <= index; entry++) {
+            for (int i = 0; i < WIDTH; i++) state[i] += unZigZag(readVarint(position));
+        }
+
+        Month month = (months[index] == HistoryConstants.NO_MONTH) ? null : MONTHS[months[index]];
+        return new PortfolioState(sequence, MutationKind.values()[kinds[index]], month,
+                Arrays.copyOfRange(state, 0, TYPES.length), Arrays.copyOfRange(state, TYPES.length, WIDTH));
+    }
+
+    /** Bytes held by keyframes, deltas and per-entry tags; a full copy per mutation would need {@code 4 * WIDTH} each. */
+    public long retainedBytes() {
+        long keyframeCount = (size + HistoryConstants.KEYFRAME_INTERVAL - 1) / HistoryConstants.KEYFRAME_INTERVAL;
+        return keyframeCount * (WIDTH + 1) * Integer.BYTES + deltaLength + 2 * size;
+    }
+
+    // --- encoding ---
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void writeVarint(int value) {
+        if (deltaLength + 5 > deltas.length) deltas = Arrays.copyOf(deltas, deltas.length * 2);
+        while ((value & ~0x7F) != 0) {
+            deltas[deltaLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        deltas[deltaLength++] = (byte) value;
+    }
+
+    private int readVarint(int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = deltas[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private void ensureEntryCapacity(int entries) {
+        if (entries > kinds.length) {
+            kinds = Arrays.copyOf(kinds, kinds.length * 2);
+            months = Arrays.copyOf(months, months.length * 2);
+        }
+        int keyframesNeeded = (entries + HistoryConstants.KEYFRAME_INTERVAL - 1) / HistoryConstants.KEYFRAME_INTERVAL;
+        if (keyframesNeeded > keyframeOffsets.length) {
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeOffsets.length * 2);
+            keyframes = Arrays.copyOf(keyframes, keyframes.length * 2);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// -------- history/PortfolioState.java --------
+package com.geektrust.backend.history;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+
+/** Portfolio holdings right after mutation {@link #getSequence()}; values indexed by AssetType ordinal. */
+public final class PortfolioState {
+
+    private final long sequence;
+    private final MutationKind kind;
+    private final Month month; // null for ALLOCATE and for SIPs outside a CHANGE
+    private final int[] amounts;
+    private final int[] sipAmounts;
+
+    PortfolioState(long sequence, MutationKind kind, Month month, int[] amounts, int[] sipAmounts) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.month = month;
+        this.amounts = amounts;
+        this.sipAmounts = sipAmounts;
+    }
+
+    public long getSequence() { return sequence; }
+
+    public MutationKind getKind() { return kind; }
+
+    public Month getMonth() { return month; }
+
+    public int getAmount(AssetType type) { return amounts[type.ordinal()]; }
+
+    public int getSipAmount(AssetType type) { return sipAmounts[type.ordinal()]; }
+}
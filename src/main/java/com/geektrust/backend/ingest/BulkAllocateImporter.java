@@ -0,0 +1,278 @@
+// -------- ingest/BulkAllocateImporter.java --------
+package com.geektrust.backend.ingest;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.IngestConstants;
+import com.geektrust.backend.constants.ServiceConstants;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.offheap.PortfolioRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Onboards a distributor's book from CSV straight into an {@link OffHeapPortfolioStore}, bypassing
+ * the one-line-at-a-time ALLOCATE path and its per-portfolio object graph.
+ *
+ * Rows read {@code id,equity,debt,gold} or {@code id,equity,debt,gold,sipEquity,sipDebt,sipGold};
+ * a first line whose second field is not a number is taken as a header. The file is cut into
+ * line-aligned chunks of about IMPORT_CHUNK_BYTES that are read and parsed in parallel into
+ * primitive arrays. Rows are then written in file order into a store pre-sized for all of them.
+ * A bad row is reported with its line number and skipped; good rows around it still import. So is
+ * a row whose id this importer has already imported, so one id never names two records.
+ */
+public class BulkAllocateImporter {
+
+    private static final int ASSETS = AssetType.values().length;
+    private static final int COLUMNS_WITHOUT_SIP = 1 + ASSETS;
+    private static final int COLUMNS_WITH_SIP = 1 + 2 * ASSETS;
+
+    private final OffHeapPortfolioStore store;
+    private final Set<String> imported = new HashSet<>();
+
+    public BulkAllocateImporter(OffHeapPortfolioStore store) {
+        this.store = Objects.requireNonNull(store, "Store cannot be null");
+    }
+
+    public ImportReport importFile(Path csv) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            List<Chunk> chunks = split(channel);
+            ExecutorService workers = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(IngestConstants.INGEST_THREADS, chunks.size())));
+            try {
+                List<Future<Chunk>> parsed = new ArrayList<>();
+                for (Chunk chunk : chunks) parsed.add(workers.submit(() -> chunk.parse(channel)));
+                for (Future<Chunk> future : parsed) await(future);
+            } finally {
+                workers.shutdownNow();
+            }
+            return write(chunks);
+        }
+    }
+
+    // --- phases ---
+
+    /** Cuts the file after the first line break past every IMPORT_CHUNK_BYTES boundary. */
+    private static List<Chunk> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(IngestConstants.READ_BUFFER_SIZE);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + IngestConstants.IMPORT_CHUNK_BYTES);
+            while (end < size) { // advance end to just past the next line feed
+                probe.clear();
+                int read = channel.read(probe, end);
+                int lineFeed = -1;
+                for (int i = 0; i < read && lineFeed < 0; i++) {
+                    if (probe.get(i) == IngestConstants.LINE_FEED) lineFeed = i;
+                }
+                if (lineFeed >= 0) {
+                    end += lineFeed + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new Chunk(chunks.isEmpty(), start, (int) (end - start)));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /** Appends the parsed rows in file order and numbers the errors by file line. */
+    private ImportReport write(List<Chunk> chunks) {
+        int rows = 0;
+        for (Chunk chunk : chunks) rows += chunk.rows;
+        store.ensureCapacity(store.size() + rows);
+        int firstRecord = store.size();
+        String[] ids = new String[rows];
+        int written = 0;
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        List<ImportReport.RowError> chunkErrors = new ArrayList<>();
+        int[] amounts = new int[ASSETS];
+        int[] sip = new int[ASSETS];
+        PortfolioRecord record = null;
+        long firstLine = IngestConstants.FIRST_LINE_NUMBER;
+        for (Chunk chunk : chunks) {
+            for (int r = 0; r < chunk.rows; r++) {
+                if (!imported.add(chunk.ids[r])) {
+                    chunkErrors.add(new ImportReport.RowError(firstLine + chunk.rowLines[r], "Duplicate portfolio id: " + chunk.ids[r]));
+                    continue;
+                }
+                int index = store.addRecord();
+                record = (record == null) ? store.record(index) : record.moveTo(index);
+                System.arraycopy(chunk.amounts, r * ASSETS, amounts, 0, ASSETS);
+                System.arraycopy(chunk.sips, r * ASSETS, sip, 0, ASSETS); // zeros for rows without SIP
+                record.allocate(amounts, sip); // the row's own plan: nothing is interned per row
+                ids[written++] = chunk.ids[r];
+            }
+            for (int e = 0; e < chunk.errorLines.size(); e++) {
+                chunkErrors.add(new ImportReport.RowError(firstLine + chunk.errorLines.get(e), chunk.errorMessages.get(e)));
+            }
+            chunkErrors.sort(Comparator.comparingLong(ImportReport.RowError::getLine));
+            errors.addAll(chunkErrors);
+            chunkErrors.clear();
+            firstLine += chunk.lines;
+        }
+        return new ImportReport(firstRecord, (written == rows) ? ids : Arrays.copyOf(ids, written), errors);
+    }
+
+    private static void await(Future<Chunk> future) throws IOException, InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** One line-aligned byte range and, once parsed, its valid rows as primitive arrays. */
+    private static final class Chunk {
+        private final boolean first;
+        private final long offset;
+        private final int length;
+        private int lines;
+        private int rows;
+        private String[] ids;
+        private int[] rowLines; // 0-based within the chunk
+        private int[] amounts;
+        private int[] sips;
+        private final List<Integer> errorLines = new ArrayList<>(); // 0-based within the chunk
+        private final List<String> errorMessages = new ArrayList<>();
+        // field bounds of the line being parsed
+        private final int[] fieldStart = new int[COLUMNS_WITH_SIP + 1];
+        private final int[] fieldEnd = new int[COLUMNS_WITH_SIP + 1];
+
+        private Chunk(boolean first, long offset, int length) {
+            this.first = first;
+            this.offset = offset;
+            this.length = length;
+            int expectedRows = Math.max(1, length / IngestConstants.IMPORT_ROW_BYTES_ESTIMATE);
+            ids = new String[expectedRows];
+            rowLines = new int[expectedRows];
+            amounts = new int[expectedRows * ASSETS];
+            sips = new int[expectedRows * ASSETS];
+        }
+
+        private Chunk parse(FileChannel channel) throws IOException {
+            byte[] bytes = new byte[length];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) throw new IOException("File shrank while importing");
+            }
+            int position = 0;
+            while (position < length) {
+                int end = position;
+                while (end < length && bytes[end] != IngestConstants.LINE_FEED) end++;
+                int lineEnd = (end > position && bytes[end - 1] == IngestConstants.CARRIAGE_RETURN) ? end - 1 : end;
+                parseLine(bytes, position, lineEnd);
+                lines++;
+                position = end + 1;
+            }
+            return this;
+        }
+
+        private void parseLine(byte[] bytes, int from, int to) {
+            if (from == to) return; // blank line
+            int fields = 0;
+            int start = from;
+            for (int i = from; i <= to; i++) {
+                if (i == to || bytes[i] == IngestConstants.CSV_DELIMITER) {
+                    if (fields < fieldStart.length) {
+                        fieldStart[fields] = start;
+                        fieldEnd[fields] = i;
+                    }
+                    fields++;
+                    start = i + 1;
+                }
+            }
+            if (first && lines == 0 && fields > 1 && !isNumber(bytes, fieldStart[1], fieldEnd[1])) return; // header
+            if (fields != COLUMNS_WITHOUT_SIP && fields != COLUMNS_WITH_SIP) {
+                reject("Expected " + COLUMNS_WITHOUT_SIP + " or " + COLUMNS_WITH_SIP + " fields, found " + fields);
+                return;
+            }
+            String id = new String(bytes, fieldStart[0], fieldEnd[0] - fieldStart[0], StandardCharsets.UTF_8).trim();
+            if (id.isEmpty()) {
+                reject("Portfolio id is empty");
+                return;
+            }
+            ensureRowCapacity();
+            long total = 0;
+            for (int i = 0; i < ASSETS; i++) {
+                long amount = parseAmount(bytes, fieldStart[1 + i], fieldEnd[1 + i]);
+                if (amount < 0) return;
+                amounts[rows * ASSETS + i] = (int) amount;
+                total += amount;
+            }
+            if (total <= ServiceConstants.MINIMUM_TOTAL_ALLOCATION) {
+                reject("Total allocation must be positive");
+                return;
+            }
+            if (total > Integer.MAX_VALUE) {
+                reject("Total allocation is too large");
+                return;
+            }
+            boolean withSip = fields == COLUMNS_WITH_SIP;
+            for (int i = 0; i < ASSETS; i++) {
+                long amount = withSip ? parseAmount(bytes, fieldStart[1 + ASSETS + i], fieldEnd[1 + ASSETS + i]) : 0;
+                if (amount < 0) return;
+                sips[rows * ASSETS + i] = (int) amount;
+            }
+            rowLines[rows] = lines;
+            ids[rows++] = id;
+        }
+
+        /** A non-negative int, or -1 after rejecting the row. */
+        private long parseAmount(byte[] bytes, int from, int to) {
+            while (from < to && bytes[from] == ' ') from++;
+            while (to > from && bytes[to - 1] == ' ') to--;
+            if (from < to && bytes[from] == '-') {
+                reject("Amount cannot be negative: " + new String(bytes, from, to - from, StandardCharsets.UTF_8));
+                return -1;
+            }
+            if (!isNumber(bytes, from, to)) {
+                reject("Not a whole number: '" + new String(bytes, from, to - from, StandardCharsets.UTF_8) + "'");
+                return -1;
+            }
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                value = value * 10 + (bytes[i] - '0');
+                if (value > Integer.MAX_VALUE) {
+                    reject("Amount too large: " + new String(bytes, from, to - from, StandardCharsets.UTF_8));
+                    return -1;
+                }
+            }
+            return value;
+        }
+
+        private static boolean isNumber(byte[] bytes, int from, int to) {
+            while (from < to && bytes[from] == ' ') from++;
+            while (to > from && bytes[to - 1] == ' ') to--;
+            if (from == to) return false;
+            for (int i = from; i < to; i++) {
+                if (bytes[i] < '0' || bytes[i] > '9') return false;
+            }
+            return true;
+        }
+
+        private void reject(String message) {
+            errorLines.add(lines);
+            errorMessages.add(message);
+        }
+
+        private void ensureRowCapacity() {
+            if (rows < ids.length) return;
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            rowLines = Arrays.copyOf(rowLines, capacity);
+            amounts = Arrays.copyOf(amounts, capacity * ASSETS);
+            sips = Arrays.copyOf(sips, capacity * ASSETS);
+        }
+    }
+}
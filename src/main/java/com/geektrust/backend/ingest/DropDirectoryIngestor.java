@@ -0,0 +1,291 @@
+// -------- ingest/DropDirectoryIngestor.java --------
+package com.geektrust.backend.ingest;
+
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.commands.CommandInvoker;
+import com.geektrust.backend.constants.IngestConstants;
+import com.geektrust.backend.exceptions.NoSuchCommandException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Tails command files dropped into a directory. Every file is its own portfolio session (like one
+ * {@code App.run}); complete lines are executed as they appear and their output is appended to
+ * {@code <outputDirectory>/<file>.out}. After every drain the output is flushed and the byte offset
+ * consumed is checkpointed together with the output length. A restarted ingestor first cuts the
+ * output back to the checkpointed length, so output flushed by a run that died before its
+ * checkpoint is written once more rather than duplicated.
+ *
+ * Portfolio state itself lives in memory: on restart the already-consumed prefix of each file is
+ * re-applied with output discarded to rebuild it. Files are drained concurrently (sessions never
+ * share a portfolio); lines of the same file are always applied in order.
+ * Unknown commands are reported in the file's output and skipped, since a tailed file cannot be abandoned.
+ * A drain that fails is logged and its session dropped, to be rebuilt from the checkpoint by the next
+ * drain. A file shorter than its consumed offset was truncated or replaced and starts a new session,
+ * whose output is appended after the old one.
+ */
+public class DropDirectoryIngestor implements Closeable {
+
+    private final Path dropDirectory;
+    private final Path outputDirectory;
+    private final Path checkpointFile;
+    private final Properties checkpoint = new Properties();
+    private final Map<Path, FileSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Path, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService workers = Executors.newFixedThreadPool(IngestConstants.INGEST_THREADS);
+    private volatile WatchService watchService;
+
+    public DropDirectoryIngestor(Path dropDirectory, Path outputDirectory) throws IOException {
+        this.dropDirectory = dropDirectory;
+        this.outputDirectory = Files.createDirectories(outputDirectory);
+        this.checkpointFile = outputDirectory.resolve(IngestConstants.CHECKPOINT_FILE);
+        if (Files.exists(checkpointFile)) {
+            try (InputStream in = Files.newInputStream(checkpointFile)) {
+                checkpoint.load(in);
+            }
+        }
+    }
+
+    /** Drains what is already there, then watches for new and growing files until closed. */
+    public void watch() throws IOException, InterruptedException {
+        watchService = dropDirectory.getFileSystem().newWatchService();
+        dropDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        scan();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) scan();
+                    else schedule(dropDirectory.resolve((Path) event.context()));
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed on purpose
+        }
+    }
+
+    /** Schedules a drain of every regular file in the drop directory. */
+    public void scan() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dropDirectory)) {
+            for (Path file : files) schedule(file);
+        }
+    }
+
+    /** Blocks until every scheduled drain has finished. */
+    public void awaitIdle() throws InterruptedException, ExecutionException {
+        for (CompletableFuture<Void> drain : new ArrayList<>(pending.values())) drain.get();
+    }
+
+    /** Bytes of {@code file} already executed. */
+    public long offsetOf(Path file) {
+        FileSession session = sessions.get(file.toAbsolutePath());
+        return (session == null) ? checkpointedOffset(file.toAbsolutePath()) : session.offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) watchService.close();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (FileSession session : sessions.values()) session.out.close();
+    }
+
+    private void schedule(Path file) {
+        Path key = file.toAbsolutePath();
+        if (!Files.isRegularFile(key)) return;
+        // chain drains per file: files run in parallel, one file never overlaps itself
+        pending.compute(key, (k, previous) -> (previous == null)
+                ? CompletableFuture.runAsync(() -> drain(k), workers)
+                : previous.thenRunAsync(() -> drain(k), workers));
+    }
+
+    private void drain(Path file) {
+        try {
+            FileSession session = sessions.get(file);
+            if (session == null) {
+                session = openSession(file);
+                sessions.put(file, session);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() < session.offset) session = restartSession(file, session);
+                long consumed = readLines(channel, session.offset, channel.size(), session);
+                if (consumed != session.offset) {
+                    session.out.flush();
+                    session.offset = consumed;
+                    saveCheckpoint(file, consumed, session.output.position());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // anything thrown here would end the file's drain chain, so log it and keep the chain alive
+            System.err.println(file + ": " + e);
+            dropSession(file);
+        }
+    }
+
+    /** The file shrank below the consumed offset, so it was truncated or replaced: run it as a new session. */
+    private FileSession restartSession(Path file, FileSession stale) throws IOException {
+        System.err.println(file + ": shorter than the " + stale.offset + " bytes already executed, starting a new session");
+        sessions.remove(file);
+        stale.out.close();
+        saveCheckpoint(file, IngestConstants.INITIAL_OFFSET, stale.output.position());
+        FileSession session = openSession(file);
+        sessions.put(file, session);
+        return session;
+    }
+
+    /** Forgets a session whose state may be ahead of its checkpoint; the next drain rebuilds it. */
+    private void dropSession(Path file) {
+        FileSession session = sessions.remove(file);
+        if (session != null) session.out.close();
+    }
+
+    /** Rebuilds the in-memory session of a file by silently replaying its checkpointed prefix. */
+    private FileSession openSession(Path file) throws IOException {
+        long resumeAt = checkpointedOffset(file);
+        if (resumeAt > Files.size(file)) {
+            System.err.println(file + ": shorter than the " + resumeAt + " bytes checkpointed, starting a new session");
+            resumeAt = IngestConstants.INITIAL_OFFSET;
+        }
+        SwitchableOutputStream target = new SwitchableOutputStream();
+        PrintStream out = new PrintStream(target, false, "UTF-8");
+        FileSession session = new FileSession(new ApplicationConfig(out).getCommandInvoker(), out, target, IngestConstants.INITIAL_OFFSET);
+        if (resumeAt > IngestConstants.INITIAL_OFFSET) {
+            // output for this prefix was already emitted before the restart
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                session.offset = readLines(channel, IngestConstants.INITIAL_OFFSET, resumeAt, session);
+            }
+            out.flush();
+        }
+        Path output = outputDirectory.resolve(file.getFileName() + IngestConstants.OUTPUT_SUFFIX);
+        long outputBytes = cutOutput(output, checkpointedOutputBytes(file));
+        target.switchTo(new BufferedOutputStream(Files.newOutputStream(output,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)), outputBytes);
+        return session;
+    }
+
+    /** Drops output flushed after the last checkpoint, whose lines are about to run again; returns the kept length. */
+    private static long cutOutput(Path output, long checkpointedBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() > checkpointedBytes) channel.truncate(checkpointedBytes);
+            return channel.size();
+        }
+    }
+
+    private long readLines(FileChannel channel, long from, long to, FileSession session) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(IngestConstants.READ_BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = from;
+        long consumed = from;
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            position += read;
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == IngestConstants.LINE_FEED) {
+                    execute(line, session);
+                    line.reset();
+                    consumed = position - buffer.remaining();
+                } else {
+                    line.write(b);
+                }
+            }
+        }
+        return consumed; // a trailing partial line waits for the writer to finish it
+    }
+
+    private void execute(ByteArrayOutputStream rawLine, FileSession session) {
+        String line = new String(rawLine.toByteArray(), StandardCharsets.UTF_8);
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == IngestConstants.CARRIAGE_RETURN)
+            line = line.substring(0, line.length() - 1);
+        if (line.isEmpty()) return;
+        List<String> tokens = Arrays.asList(line.split(IngestConstants.TOKEN_DELIMITER));
+        try {
+            session.invoker.executeCommand(tokens.get(IngestConstants.COMMAND_NAME_INDEX), tokens);
+        } catch (NoSuchCommandException e) {
+            session.out.println(e);
+        }
+    }
+
+    private long checkpointedOffset(Path file) {
+        String value = checkpoint.getProperty(file.getFileName().toString());
+        return (value == null) ? IngestConstants.INITIAL_OFFSET
+                : Long.parseLong(value.split(IngestConstants.CHECKPOINT_SEPARATOR)[IngestConstants.CHECKPOINT_OFFSET_INDEX]);
+    }
+
+    private long checkpointedOutputBytes(Path file) {
+        String value = checkpoint.getProperty(file.getFileName().toString());
+        return (value == null) ? IngestConstants.INITIAL_OUTPUT_BYTES
+                : Long.parseLong(value.split(IngestConstants.CHECKPOINT_SEPARATOR)[IngestConstants.CHECKPOINT_OUTPUT_INDEX]);
+    }
+
+    private synchronized void saveCheckpoint(Path file, long offset, long outputBytes) throws IOException {
+        checkpoint.setProperty(file.getFileName().toString(), offset + IngestConstants.CHECKPOINT_SEPARATOR + outputBytes);
+        Path temp = checkpointFile.resolveSibling(IngestConstants.CHECKPOINT_FILE + IngestConstants.CHECKPOINT_TEMP_SUFFIX);
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            checkpoint.store(out, null);
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class FileSession {
+        private final CommandInvoker invoker;
+        private final PrintStream out;
+        private final SwitchableOutputStream output;
+        private long offset;
+
+        private FileSession(CommandInvoker invoker, PrintStream out, SwitchableOutputStream output, long offset) {
+            this.invoker = invoker;
+            this.out = out;
+            this.output = output;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Discards writes until a real target is attached; lets a session replay silently, then go live.
+     * Tracks the length the target file will have once flushed.
+     */
+    private static final class SwitchableOutputStream extends OutputStream {
+        private OutputStream target = null;
+        private long position;
+
+        void switchTo(OutputStream target, long position) {
+            this.target = target;
+            this.position = position;
+        }
+
+        long position() { return position; }
+
+        @Override public void write(int b) throws IOException {
+            if (target == null) return;
+            target.write(b);
+            position++;
+        }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null) return;
+            target.write(b, off, len);
+            position += len;
+        }
+
+        @Override public void flush() throws IOException { if (target != null) target.flush(); }
+        @Override public void close() throws IOException { if (target != null) target.close(); }
+    }
+}
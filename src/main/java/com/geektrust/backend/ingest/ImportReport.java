@@ -0,0 +1,50 @@
+// -------- ingest/ImportReport.java --------
+package com.geektrust.backend.ingest;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Outcome of one bulk import: where the new records landed, their ids, and every rejected row. */
+public final class ImportReport {
+
+    private final int firstRecord;
+    private final String[] ids;
+    private final List<RowError> errors;
+
+    ImportReport(int firstRecord, String[] ids, List<RowError> errors) {
+        this.firstRecord = firstRecord;
+        this.ids = ids;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /** Store index of the first imported row; row k of {@link #getIds()} is record firstRecord + k. */
+    public int getFirstRecord() { return firstRecord; }
+
+    public int getImported() { return ids.length; }
+
+    /** Portfolio ids in record order. */
+    public String[] getIds() { return ids.clone(); }
+
+    /** Rejected rows in file order; nothing was stored for them. */
+    public List<RowError> getErrors() { return errors; }
+
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /** 1-based line number in the CSV file. */
+        public long getLine() { return line; }
+
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return line + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+// -------- io/ParallelGzipInputStream.java --------
+package com.geektrust.backend.io;
+
+import com.geektrust.backend.constants.InputConstants;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a (possibly multi-member) gzip file as one decompressed stream, inflating members in parallel.
+ *
+ * A reader thread scans the compressed bytes for member headers and hands each candidate member
+ * to a pool; the stream serves the results strictly in file order. A header-like byte sequence
+ * inside compressed data produces a candidate that does not inflate cleanly; from that member on,
+ * and for members above {@link InputConstants#MAX_MEMBER_BYTES} compressed or
+ * {@link InputConstants#MAX_INFLATED_MEMBER_BYTES} inflated, the file is read with a plain sequential
+ * {@link GZIPInputStream} from the member's offset, so output is always correct and at most
+ * {@link InputConstants#MEMBERS_IN_FLIGHT} bounded members are ever buffered.
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    private static final Member END = new Member(-1, null);
+
+    private final Path file;
+    private final ExecutorService pool;
+    private final BlockingQueue<Future<Member>> members = new ArrayBlockingQueue<>(InputConstants.MEMBERS_IN_FLIGHT);
+    private final Thread scanner;
+    private volatile boolean closed = false;
+
+    private byte[] current = new byte[0];
+    private int position = 0;
+    private InputStream sequential = null; // set once we give up on parallel members
+    private boolean finished = false;
+
+    public ParallelGzipInputStream(Path file) throws IOException {
+        if (!Files.isReadable(file)) throw new FileNotFoundException(file.toString());
+        this.file = file;
+        this.pool = Executors.newFixedThreadPool(InputConstants.DECOMPRESSION_THREADS, daemonThreads());
+        this.scanner = new Thread(this::scan, "gzip-member-scanner");
+        this.scanner.setDaemon(true);
+        this.scanner.start();
+    }
+
+    /** Opens {@code inputFile} as text bytes, decompressing when it ends in {@code .gz}. */
+    public static InputStream open(String inputFile) throws IOException {
+        if (inputFile.endsWith(InputConstants.GZIP_SUFFIX)) return new ParallelGzipInputStream(Paths.get(inputFile));
+        return new FileInputStream(inputFile);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return (read(one, 0, 1) == -1) ? -1 : (one[0] & 0xff);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        while (true) {
+            if (sequential != null) return sequential.read(b, off, len);
+            if (position < current.length) {
+                int n = Math.min(len, current.length - position);
+                System.arraycopy(current, position, b, off, n);
+                position += n;
+                return n;
+            }
+            if (finished) return -1;
+            nextMember();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        scanner.interrupt();
+        pool.shutdownNow();
+        if (sequential != null) sequential.close();
+    }
+
+    private void nextMember() throws IOException {
+        Member member;
+        try {
+            member = members.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a gzip member");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        if (member == END) {
+            finished = true;
+        } else if (member.data == null) {
+            fallBackToSequential(member.offset);
+        } else {
+            current = member.data;
+            position = 0;
+        }
+    }
+
+    private void fallBackToSequential(long offset) throws IOException {
+        closed = true;
+        scanner.interrupt();
+        pool.shutdownNow();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(offset);
+        sequential = new GZIPInputStream(new BufferedInputStream(Channels.newInputStream(channel),
+                InputConstants.READ_BLOCK_SIZE), InputConstants.READ_BLOCK_SIZE);
+    }
+
+    // --- scanner side ---
+
+    private void scan() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer block = ByteBuffer.allocate(InputConstants.READ_BLOCK_SIZE);
+            GrowableBytes segment = new GrowableBytes();
+            long segmentStart = 0;
+            long filePosition = 0;
+            while (!closed) {
+                boolean endOfFile = channel.read(block) == -1;
+                block.flip();
+                // a header may straddle two reads: leave the last few bytes for the next round
+                while (block.remaining() >= InputConstants.GZIP_HEADER_BYTES || (endOfFile && block.hasRemaining())) {
+                    // look for the next header only once the current member holds a header itself
+                    if (segment.size() >= InputConstants.GZIP_HEADER_BYTES && looksLikeHeader(block)) {
+                        submit(segmentStart, segment.toByteArray());
+                        segment.reset();
+                        segmentStart = filePosition;
+                    }
+                    segment.write(block.get());
+                    filePosition++;
+                    if (segment.size() > InputConstants.MAX_MEMBER_BYTES) {
+                        members.put(CompletableFuture.completedFuture(new Member(segmentStart, null)));
+                        return;
+                    }
+                }
+                if (endOfFile) break;
+                block.compact();
+            }
+            if (segment.size() > 0) submit(segmentStart, segment.toByteArray());
+            members.put(CompletableFuture.completedFuture(END));
+        } catch (InterruptedException | ClosedByInterruptException | RejectedExecutionException e) {
+            // reader closed or switched to sequential mode
+        } catch (IOException e) {
+            try {
+                members.put(failed(e));
+            } catch (InterruptedException closedMeanwhile) {
+                // nobody is reading anymore
+            }
+        }
+    }
+
+    /** Header candidate at the buffer position; needs the full fixed header to be buffered. */
+    private static boolean looksLikeHeader(ByteBuffer block) {
+        int p = block.position();
+        if (block.limit() - p < InputConstants.GZIP_HEADER_BYTES) return false;
+        int os = block.get(p + InputConstants.GZIP_OS_OFFSET) & 0xff;
+        int xfl = block.get(p + InputConstants.GZIP_XFL_OFFSET) & 0xff;
+        return (block.get(p) & 0xff) == InputConstants.GZIP_ID1
+                && (block.get(p + 1) & 0xff) == InputConstants.GZIP_ID2
+                && block.get(p + 2) == InputConstants.GZIP_CM_DEFLATE
+                && (block.get(p + InputConstants.GZIP_FLG_OFFSET) & InputConstants.GZIP_FLG_RESERVED_MASK) == 0
+                && (xfl == 0 || xfl == 2 || xfl == 4)
+                && (os <= InputConstants.GZIP_OS_MAX_KNOWN || os == InputConstants.GZIP_OS_UNKNOWN);
+    }
+
+    private void submit(long offset, byte[] compressed) throws InterruptedException {
+        members.put(pool.submit(() -> inflate(offset, compressed)));
+    }
+
+    /** A member that fails to inflate on its own marks where sequential reading must take over. */
+    private static Member inflate(long offset, byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed), InputConstants.READ_BLOCK_SIZE)) {
+            GrowableBytes out = new GrowableBytes();
+            byte[] buffer = new byte[InputConstants.READ_BLOCK_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                if (out.size() > InputConstants.MAX_INFLATED_MEMBER_BYTES) return new Member(offset, null); // stream it instead
+            }
+            return new Member(offset, out.toByteArray());
+        } catch (IOException e) {
+            return new Member(offset, null);
+        }
+    }
+
+    private static Future<Member> failed(IOException e) {
+        CompletableFuture<Member> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "gzip-inflater");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Member {
+        private final long offset;
+        private final byte[] data; // null: could not be inflated on its own
+
+        private Member(long offset, byte[] data) {
+            this.offset = offset;
+            this.data = data;
+        }
+    }
+
+    /** ByteArrayOutputStream without synchronization, with bulk append from a buffer. */
+    private static final class GrowableBytes {
+        private byte[] bytes = new byte[InputConstants.READ_BLOCK_SIZE];
+        private int size = 0;
+
+        int size() { return size; }
+
+        void reset() { size = 0; }
+
+        void write(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+
+        byte[] toByteArray() {
+            byte[] copy = new byte[size];
+            System.arraycopy(bytes, 0, copy, 0, size);
+            return copy;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + extra)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+// -------- offheap/ModelPortfolio.java --------
+package com.geektrust.backend.offheap;
+
+import java.util.Arrays;
+
+/**
+ * An immutable model: target allocation ratios plus a monthly SIP plan, indexed by asset ordinal.
+ * Models are interned per {@link OffHeapPortfolioStore}, so every customer on the same plan
+ * references one instance by id instead of carrying their own copy.
+ */
+public final class ModelPortfolio {
+
+    private final int id;
+    private final double[] ratios;
+    private final int[] sip;
+
+    ModelPortfolio(int id, double[] ratios, int[] sip) {
+        this.id = id;
+        this.ratios = ratios.clone();
+        this.sip = sip.clone();
+    }
+
+    /** Position in the store's model table; stored in every record that follows this model. */
+    public int getId() { return id; }
+
+    public double getRatio(int asset) { return ratios[asset]; }
+
+    public int getSip(int asset) { return sip[asset]; }
+
+    /** Models are equal when their definitions are; the id is where the store filed it. */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ModelPortfolio)) return false;
+        ModelPortfolio other = (ModelPortfolio) o;
+        return Arrays.equals(ratios, other.ratios) && Arrays.equals(sip, other.sip);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ratios) + Arrays.hashCode(sip);
+    }
+
+    @Override
+    public String toString() {
+        return "Model" + id + Arrays.toString(ratios) + Arrays.toString(sip);
+    }
+}
@@ -0,0 +1,182 @@
+// -------- offheap/OffHeapPortfolioStore.java --------
+package com.geektrust.backend.offheap;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.OffHeapConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Portfolio state for very large books, kept outside the Java heap.
+ *
+ * Every portfolio is one fixed-size record in a direct {@link ByteBuffer} chunk, so the heap holds
+ * only the chunk handles however many portfolios are loaded. Record layout (native byte order,
+ * N = asset types, M = months):
+ * <pre>
+ * double amount[N]                                      -- holdings
+ * int allocation[N] | int sip[N] | int modelId | flags  -- own plan, model followed, rebalanced / own SIP bits
+ * int recordedMonths (bit per Month) | int balance[M][N] -- monthly snapshot ring
+ * int rebalance[N]                                      -- last rebalance snapshot
+ * </pre>
+ * With three asset types that is 216 bytes, padded to a multiple of 8 so the doubles of every
+ * record stay 8-byte aligned (the layout before models was 224 bytes).
+ *
+ * A record's own plan is its ALLOCATE amounts, from which the ratios are derived exactly as
+ * ALLOCATE computed them, plus its SIP. A record that {@link PortfolioRecord#follow(ModelPortfolio)
+ * follows} a declared {@link ModelPortfolio} reads both from the model table instead, and
+ * {@link #rebalanceCohort(int)} rebalances all of a model's followers in one pass with the
+ * coefficients read once. A SIP set while following keeps the model's ratios and overrides only the
+ * SIP. Only declared models are interned, so the model table grows with the number of plans on
+ * offer, not with the book. Model id 0 (OWN_PLAN_MODEL) means "own plan", which is what a zeroed
+ * record starts on.
+ *
+ * Records are read and written through {@link PortfolioRecord} flyweights. The store is not
+ * thread-safe for writers; use one flyweight per thread.
+ */
+public class OffHeapPortfolioStore {
+
+    static final int ASSETS = AssetType.values().length;
+    static final int MONTHS = Month.values().length;
+
+    static final int AMOUNT_OFFSET = 0;
+    static final int ALLOCATION_OFFSET = AMOUNT_OFFSET + ASSETS * Double.BYTES;
+    static final int SIP_OFFSET = ALLOCATION_OFFSET + ASSETS * Integer.BYTES;
+    static final int MODEL_OFFSET = SIP_OFFSET + ASSETS * Integer.BYTES;
+    static final int FLAGS_OFFSET = MODEL_OFFSET + Integer.BYTES;
+    static final int RECORDED_MONTHS_OFFSET = FLAGS_OFFSET + Integer.BYTES;
+    static final int BALANCE_OFFSET = RECORDED_MONTHS_OFFSET + Integer.BYTES;
+    static final int REBALANCE_OFFSET = BALANCE_OFFSET + MONTHS * ASSETS * Integer.BYTES;
+    static final int RECORD_BYTES = alignToDouble(REBALANCE_OFFSET + ASSETS * Integer.BYTES);
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int size = 0;
+    private final List<ModelPortfolio> models = new ArrayList<>(Collections.singletonList(null)); // id 0: own plan
+    private final Map<ModelPortfolio, ModelPortfolio> interned = new HashMap<>();
+    // the model table, flattened: model id * ASSETS + asset ordinal (slot 0 unused)
+    double[] modelRatios = new double[OffHeapConstants.INITIAL_MODELS * ASSETS];
+    int[] modelSips = new int[OffHeapConstants.INITIAL_MODELS * ASSETS];
+
+    public OffHeapPortfolioStore() {
+        this(OffHeapConstants.RECORDS_PER_CHUNK);
+    }
+
+    /** Pre-sizes the store for {@code expectedPortfolios} records. */
+    public OffHeapPortfolioStore(int expectedPortfolios) {
+        ensureCapacity(expectedPortfolios);
+    }
+
+    /** Appends a zeroed record and returns its index. */
+    public int addRecord() {
+        ensureCapacity(size + 1);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Off-heap bytes reserved by the store. */
+    public long reservedBytes() {
+        return (long) chunks.size() * OffHeapConstants.RECORDS_PER_CHUNK * RECORD_BYTES;
+    }
+
+    /**
+     * Declares a model: the shared model with these ratios and SIP plan, created on first use.
+     * Arrays are copied. Models are never released, so declare plans, not individual customers.
+     */
+    public ModelPortfolio intern(double[] ratios, int[] sip) {
+        if (ratios.length != ASSETS || sip.length != ASSETS)
+            throw new IllegalArgumentException("Expected " + ASSETS + " values, one per asset type");
+        ModelPortfolio candidate = new ModelPortfolio(models.size(), ratios, sip);
+        ModelPortfolio existing = interned.get(candidate);
+        if (existing != null) return existing;
+        interned.put(candidate, candidate);
+        models.add(candidate);
+        int id = candidate.getId();
+        if ((id + 1) * ASSETS > modelRatios.length) {
+            modelRatios = Arrays.copyOf(modelRatios, modelRatios.length * 2);
+            modelSips = Arrays.copyOf(modelSips, modelSips.length * 2);
+        }
+        for (int i = 0; i < ASSETS; i++) {
+            modelRatios[id * ASSETS + i] = ratios[i];
+            modelSips[id * ASSETS + i] = sip[i];
+        }
+        return candidate;
+    }
+
+    /** The model filed under {@code id}; null for OWN_PLAN_MODEL. */
+    public ModelPortfolio model(int id) {
+        return models.get(id);
+    }
+
+    /** Declared models. */
+    public int modelCount() {
+        return models.size() - 1;
+    }
+
+    /**
+     * Rebalances every record that follows {@code modelId} to the model's ratios, with the same
+     * floored targets as {@link PortfolioRecord#rebalanceToOriginalRatios()}. The coefficients are
+     * read once; the loop over records touches only primitive reads and writes.
+     *
+     * @return records rebalanced
+     */
+    public int rebalanceCohort(int modelId) {
+        if (modelId <= OffHeapConstants.OWN_PLAN_MODEL || modelId >= models.size())
+            throw new IllegalArgumentException("No model " + modelId);
+        double[] ratios = Arrays.copyOfRange(modelRatios, modelId * ASSETS, (modelId + 1) * ASSETS);
+        int rebalanced = 0;
+        for (int chunkIndex = 0; chunkIndex < chunks.size(); chunkIndex++) {
+            ByteBuffer chunk = chunks.get(chunkIndex);
+            int first = chunkIndex << OffHeapConstants.RECORDS_PER_CHUNK_SHIFT;
+            int records = Math.min(OffHeapConstants.RECORDS_PER_CHUNK, size - first);
+            for (int r = 0, base = 0; r < records; r++, base += RECORD_BYTES) {
+                if (chunk.getInt(base + MODEL_OFFSET) != modelId) continue;
+                int flags = chunk.getInt(base + FLAGS_OFFSET);
+                if ((flags & OffHeapConstants.OWN_SIP_FLAG) != 0) continue; // left the model for its own SIP
+                int total = 0;
+                for (int i = 0; i < ASSETS; i++) total += (int) Math.floor(chunk.getDouble(base + AMOUNT_OFFSET + i * Double.BYTES));
+                for (int i = 0; i < ASSETS; i++) {
+                    int target = (int) Math.floor(total * ratios[i]);
+                    chunk.putDouble(base + AMOUNT_OFFSET + i * Double.BYTES, target);
+                    chunk.putInt(base + REBALANCE_OFFSET + i * Integer.BYTES, target);
+                }
+                chunk.putInt(base + FLAGS_OFFSET, flags | OffHeapConstants.REBALANCED_FLAG);
+                rebalanced++;
+            }
+        }
+        return rebalanced;
+    }
+
+    /** A flyweight positioned on the given record. */
+    public PortfolioRecord record(int index) {
+        return new PortfolioRecord(this).moveTo(index);
+    }
+
+    public void ensureCapacity(int records) {
+        while ((long) chunks.size() * OffHeapConstants.RECORDS_PER_CHUNK < records) {
+            chunks.add(ByteBuffer.allocateDirect(OffHeapConstants.RECORDS_PER_CHUNK * RECORD_BYTES)
+                    .order(ByteOrder.nativeOrder()));
+        }
+    }
+
+    ByteBuffer chunkOf(int index) {
+        checkIndex(index);
+        return chunks.get(index >>> OffHeapConstants.RECORDS_PER_CHUNK_SHIFT);
+    }
+
+    static int baseOf(int index) {
+        return (index & (OffHeapConstants.RECORDS_PER_CHUNK - 1)) * RECORD_BYTES;
+    }
+
+    private static int alignToDouble(int bytes) {
+        return (bytes + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("No portfolio record " + index);
+    }
+}
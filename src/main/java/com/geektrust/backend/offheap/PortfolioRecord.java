@@ -0,0 +1,222 @@
+// -------- offheap/PortfolioRecord.java --------
+package com.geektrust.backend.offheap;
+
+import com.geektrust.backend.constants.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Flyweight over one {@link OffHeapPortfolioStore} record. Reposition it with {@link #moveTo(int)}
+ * to walk many portfolios without allocating. Rules mirror {@code Portfolio} and {@code Asset}:
+ * SIP before ROI, floor after ROI, zero floor, rebalance to the original ratios with floored targets.
+ * Array arguments and results are indexed by AssetType ordinal. Ratios and SIP come from the
+ * record's own plan, or from its {@link ModelPortfolio} while it follows one.
+ */
+public class PortfolioRecord {
+
+    private static final int ASSETS = OffHeapPortfolioStore.ASSETS;
+    private static final int[] NO_SIP = new int[ASSETS];
+
+    private final OffHeapPortfolioStore store;
+    private ByteBuffer chunk;
+    private int base;
+    private int index;
+
+    PortfolioRecord(OffHeapPortfolioStore store) {
+        this.store = store;
+    }
+
+    public PortfolioRecord moveTo(int index) {
+        this.chunk = store.chunkOf(index);
+        this.base = OffHeapPortfolioStore.baseOf(index);
+        this.index = index;
+        return this;
+    }
+
+    public int index() { return index; }
+
+    /** Fresh allocation: amounts become holdings and define the original ratios; history is cleared. */
+    public void allocate(int[] amounts) {
+        allocate(amounts, NO_SIP);
+    }
+
+    /** ALLOCATE followed by SIP in one write; both are checked before the record is touched. */
+    public void allocate(int[] amounts, int[] sipAmounts) {
+        requireValidSip(sipAmounts);
+        long total = 0;
+        for (int i = 0; i < ASSETS; i++) {
+            if (amounts[i] < EntityConstants.MINIMUM_AMOUNT)
+                throw new IllegalArgumentException("Initial amount cannot be negative");
+            total += amounts[i];
+        }
+        if (total <= ServiceConstants.MINIMUM_TOTAL_ALLOCATION)
+            throw new IllegalArgumentException("Total allocation must be positive");
+        if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("Total allocation is too large");
+        for (int i = 0; i < ASSETS; i++) {
+            setAmount(i, amounts[i]);
+            chunk.putInt(allocationSlot(i), amounts[i]);
+            chunk.putInt(sipSlot(i), sipAmounts[i]);
+        }
+        setModel(OffHeapConstants.OWN_PLAN_MODEL);
+        setFlags(OffHeapConstants.NO_FLAGS);
+        chunk.putInt(base + OffHeapPortfolioStore.RECORDED_MONTHS_OFFSET, OffHeapConstants.NO_MONTHS_RECORDED);
+    }
+
+    /** Replaces the SIP plan. A record following a model leaves it for its own SIP, keeping the model's ratios. */
+    public void setSip(int[] sipAmounts) {
+        requireValidSip(sipAmounts);
+        for (int i = 0; i < ASSETS; i++) chunk.putInt(sipSlot(i), sipAmounts[i]);
+        setFlags(flags() | OffHeapConstants.OWN_SIP_FLAG);
+    }
+
+    /** Follow {@code model}: its ratios and SIP plan replace the record's, holdings are kept. */
+    public void follow(ModelPortfolio model) {
+        if (model.getId() > store.modelCount() || store.model(model.getId()) != model) throw new IllegalArgumentException("Model belongs to another store");
+        setModel(model.getId());
+        setFlags(flags() & ~OffHeapConstants.OWN_SIP_FLAG);
+    }
+
+    /** The model followed, or null while the record is on its own plan or SIP. */
+    public ModelPortfolio getModel() {
+        return ownsSip() ? null : store.model(modelId());
+    }
+
+    /** Apply SIP + ROI for a month; roi is decimal (0.08 for 8%). */
+    public void applyMonthlyChanges(double[] roi) {
+        for (int i = 0; i < ASSETS; i++) {
+            if (roi[i] < PortfolioConstants.MIN_ROI) throw new IllegalArgumentException("ROI < -100% not allowed");
+        }
+        for (int i = 0; i < ASSETS; i++) {
+            double amount = Math.floor((amount(i) + sip(i)) * (EntityConstants.ROI_MULTIPLIER_BASE + roi[i]));
+            setAmount(i, Math.max(EntityConstants.MINIMUM_FINAL_AMOUNT, amount));
+        }
+    }
+
+    public void saveMonthlySnapshot(Month month) {
+        int slot = base + OffHeapPortfolioStore.BALANCE_OFFSET + month.ordinal() * ASSETS * Integer.BYTES;
+        for (int i = 0; i < ASSETS; i++) chunk.putInt(slot + i * Integer.BYTES, getAmount(i));
+        int recorded = chunk.getInt(base + OffHeapPortfolioStore.RECORDED_MONTHS_OFFSET);
+        chunk.putInt(base + OffHeapPortfolioStore.RECORDED_MONTHS_OFFSET, recorded | (1 << month.ordinal()));
+    }
+
+    public void rebalanceToOriginalRatios() {
+        int total = totalValue();
+        for (int i = 0; i < ASSETS; i++) {
+            int target = (int) Math.floor(total * ratio(i));
+            setAmount(i, target);
+            chunk.putInt(base + OffHeapPortfolioStore.REBALANCE_OFFSET + i * Integer.BYTES, target);
+        }
+        setFlags(flags() | OffHeapConstants.REBALANCED_FLAG);
+    }
+
+    /** Month's BALANCE, or null when the month was never recorded. */
+    public int[] getMonthlySnapshot(Month month) {
+        int recorded = chunk.getInt(base + OffHeapPortfolioStore.RECORDED_MONTHS_OFFSET);
+        if ((recorded & (1 << month.ordinal())) == 0) return null;
+        int slot = base + OffHeapPortfolioStore.BALANCE_OFFSET + month.ordinal() * ASSETS * Integer.BYTES;
+        int[] snapshot = new int[ASSETS];
+        for (int i = 0; i < ASSETS; i++) snapshot[i] = chunk.getInt(slot + i * Integer.BYTES);
+        return snapshot;
+    }
+
+    /** Last REBALANCE result, or null before the first rebalance. */
+    public int[] getLastRebalancedSnapshot() {
+        if (!isRebalanced()) return null;
+        int[] snapshot = new int[ASSETS];
+        for (int i = 0; i < ASSETS; i++) {
+            snapshot[i] = chunk.getInt(base + OffHeapPortfolioStore.REBALANCE_OFFSET + i * Integer.BYTES);
+        }
+        return snapshot;
+    }
+
+    /** Single-value reads for scans, so walking a book does not allocate a snapshot per record. */
+    public boolean hasMonthlySnapshot(Month month) {
+        return (chunk.getInt(base + OffHeapPortfolioStore.RECORDED_MONTHS_OFFSET) & (1 << month.ordinal())) != 0;
+    }
+
+    /** One asset of a month's BALANCE; meaningful only when {@link #hasMonthlySnapshot} is true. */
+    public int getMonthlyBalance(Month month, int asset) {
+        return chunk.getInt(base + OffHeapPortfolioStore.BALANCE_OFFSET + (month.ordinal() * ASSETS + asset) * Integer.BYTES);
+    }
+
+    public boolean isRebalanced() {
+        return (flags() & OffHeapConstants.REBALANCED_FLAG) != 0;
+    }
+
+    /** One asset of the last REBALANCE; meaningful only when {@link #isRebalanced} is true. */
+    public int getRebalancedAmount(int asset) {
+        return chunk.getInt(base + OffHeapPortfolioStore.REBALANCE_OFFSET + asset * Integer.BYTES);
+    }
+
+    /** Reported (floored) amount of an asset. */
+    public int getAmount(int asset) { return (int) Math.floor(amount(asset)); }
+
+    public int getSipAmount(int asset) { return sip(asset); }
+
+    public double getAllocationRatio(int asset) { return ratio(asset); }
+
+    public int totalValue() {
+        int total = 0;
+        for (int i = 0; i < ASSETS; i++) total += getAmount(i);
+        return total;
+    }
+
+    private static void requireValidSip(int[] sipAmounts) {
+        for (int i = 0; i < ASSETS; i++) {
+            if (sipAmounts[i] < EntityConstants.MINIMUM_AMOUNT)
+                throw new IllegalArgumentException("SIP amount cannot be negative");
+        }
+    }
+
+    // --- raw field access ---
+
+    private double amount(int asset) {
+        return chunk.getDouble(base + OffHeapPortfolioStore.AMOUNT_OFFSET + asset * Double.BYTES);
+    }
+
+    private void setAmount(int asset, double amount) {
+        chunk.putDouble(base + OffHeapPortfolioStore.AMOUNT_OFFSET + asset * Double.BYTES, amount);
+    }
+
+    private int modelId() {
+        return chunk.getInt(base + OffHeapPortfolioStore.MODEL_OFFSET);
+    }
+
+    private void setModel(int modelId) {
+        chunk.putInt(base + OffHeapPortfolioStore.MODEL_OFFSET, modelId);
+    }
+
+    private int flags() {
+        return chunk.getInt(base + OffHeapPortfolioStore.FLAGS_OFFSET);
+    }
+
+    private void setFlags(int flags) {
+        chunk.putInt(base + OffHeapPortfolioStore.FLAGS_OFFSET, flags);
+    }
+
+    private boolean ownsSip() {
+        return modelId() == OffHeapConstants.OWN_PLAN_MODEL || (flags() & OffHeapConstants.OWN_SIP_FLAG) != 0;
+    }
+
+    private int sip(int asset) {
+        return ownsSip() ? chunk.getInt(sipSlot(asset)) : store.modelSips[modelId() * ASSETS + asset];
+    }
+
+    /** The model's ratio, or the own allocation's share, computed as ALLOCATE did. */
+    private double ratio(int asset) {
+        int model = modelId();
+        if (model != OffHeapConstants.OWN_PLAN_MODEL) return store.modelRatios[model * ASSETS + asset];
+        long total = 0;
+        for (int i = 0; i < ASSETS; i++) total += chunk.getInt(allocationSlot(i));
+        return (total == 0) ? EntityConstants.MINIMUM_ALLOCATION_RATIO : chunk.getInt(allocationSlot(asset)) / (double) total;
+    }
+
+    private int allocationSlot(int asset) {
+        return base + OffHeapPortfolioStore.ALLOCATION_OFFSET + asset * Integer.BYTES;
+    }
+
+    private int sipSlot(int asset) {
+        return base + OffHeapPortfolioStore.SIP_OFFSET + asset * Integer.BYTES;
+    }
+}
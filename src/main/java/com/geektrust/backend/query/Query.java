@@ -0,0 +1,189 @@
+// -------- query/Query.java --------
+package com.geektrust.backend.query;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.QueryConstants;
+
+import java.util.*;
+
+/**
+ * A parsed book query:
+ * <pre>
+ * COUNT | IDS | SUM col | AVG col | MIN col | MAX col  [WHERE cond [AND cond]...]  [LIMIT n]
+ * cond := col op number | asset% op number            op := &lt; &lt;= &gt; &gt;= = !=
+ * col  := [MONTH. | REBALANCED.](EQUITY | DEBT | GOLD | TOTAL)  |  MODEL
+ * </pre>
+ * A bare column is the current holding, {@code JUNE.GOLD} is GOLD in June's BALANCE and
+ * {@code REBALANCED.TOTAL} is the total after the last rebalance. {@code GOLD% > 20} compares GOLD's
+ * share of the TOTAL of the same snapshot, in percent. MODEL is the id of the model a record follows;
+ * records on their own plan have none. Tokens are separated by spaces.
+ */
+public final class Query {
+
+    public enum Aggregate { COUNT, IDS, SUM, AVG, MIN, MAX }
+
+    public enum Operator {
+        LT("<"), LE("<="), GT(">"), GE(">="), EQ("="), NE("!=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean test(double left, double right) {
+            switch (this) {
+                case LT: return left < right;
+                case LE: return left <= right;
+                case GT: return left > right;
+                case GE: return left >= right;
+                case EQ: return left == right;
+                default: return left != right;
+            }
+        }
+
+        static Operator of(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) return operator;
+            }
+            throw new IllegalArgumentException("Unknown operator: " + symbol);
+        }
+    }
+
+    enum Source { CURRENT, MONTH, REBALANCED, MODEL }
+
+    /** One column of the book; TOTAL is asset -1. Equal columns share one materialised array. */
+    static final class Column {
+        static final int TOTAL = -1;
+
+        final Source source;
+        final Month month; // MONTH source only
+        final int asset;
+
+        Column(Source source, Month month, int asset) {
+            this.source = source;
+            this.month = month;
+            this.asset = asset;
+        }
+
+        Column total() {
+            return new Column(source, month, TOTAL);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Column)) return false;
+            Column other = (Column) o;
+            return source == other.source && month == other.month && asset == other.asset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, month, asset);
+        }
+    }
+
+    /** column op value, or for a share: column * 100 op value * shareOf. */
+    static final class Condition {
+        final Column column;
+        final Column shareOf; // null unless the condition is on a share
+        final Operator operator;
+        final double value;
+
+        Condition(Column column, Column shareOf, Operator operator, double value) {
+            this.column = column;
+            this.shareOf = shareOf;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+
+    private final Aggregate aggregate;
+    private final Column target; // null for COUNT and IDS
+    private final List<Condition> conditions;
+    private final long limit;
+
+    private Query(Aggregate aggregate, Column target, List<Condition> conditions, long limit) {
+        this.aggregate = aggregate;
+        this.target = target;
+        this.conditions = Collections.unmodifiableList(conditions);
+        this.limit = limit;
+    }
+
+    public static Query parse(String text) {
+        return parse(Arrays.asList(text.trim().split("\\s+")));
+    }
+
+    /** Parses query tokens, i.e. a QUERY line without its command name. */
+    public static Query parse(List<String> tokens) {
+        Iterator<String> it = tokens.iterator();
+        Aggregate aggregate = Aggregate.valueOf(next(it, "an aggregate").toUpperCase(Locale.ROOT));
+        Column target = null;
+        if (aggregate != Aggregate.COUNT && aggregate != Aggregate.IDS) {
+            String name = next(it, "a column to " + aggregate);
+            if (name.endsWith(QueryConstants.SHARE_SUFFIX)) throw new IllegalArgumentException("Shares can only be filtered on: " + name);
+            target = column(name);
+        }
+        List<Condition> conditions = new ArrayList<>();
+        long limit = QueryConstants.NO_LIMIT;
+        String keyword = it.hasNext() ? it.next().toUpperCase(Locale.ROOT) : null;
+        if (QueryConstants.WHERE.equals(keyword)) {
+            do {
+                conditions.add(condition(next(it, "a column"), next(it, "an operator"), next(it, "a value")));
+                keyword = it.hasNext() ? it.next().toUpperCase(Locale.ROOT) : null;
+            } while (QueryConstants.AND.equals(keyword));
+        }
+        if (QueryConstants.LIMIT.equals(keyword)) {
+            limit = Long.parseLong(next(it, "a row limit"));
+            if (limit < 0) throw new IllegalArgumentException("LIMIT cannot be negative");
+            keyword = it.hasNext() ? it.next() : null;
+        }
+        if (keyword != null) throw new IllegalArgumentException("Unexpected token: " + keyword);
+        return new Query(aggregate, target, conditions, limit);
+    }
+
+    public Aggregate getAggregate() { return aggregate; }
+
+    /** Matching rows to stop at; Long.MAX_VALUE when there is no LIMIT. */
+    public long getLimit() { return limit; }
+
+    Column getTarget() { return target; }
+
+    List<Condition> getConditions() { return conditions; }
+
+    // --- parsing helpers ---
+
+    private static Condition condition(String name, String operator, String value) {
+        boolean share = name.endsWith(QueryConstants.SHARE_SUFFIX);
+        Column column = column(share ? name.substring(0, name.length() - 1) : name);
+        if (share && (column.asset == Column.TOTAL || column.source == Source.MODEL))
+            throw new IllegalArgumentException("Only an asset has a share: " + name);
+        return new Condition(column, share ? column.total() : null, Operator.of(operator), Double.parseDouble(value));
+    }
+
+    private static Column column(String name) {
+        String upper = name.toUpperCase(Locale.ROOT);
+        if (QueryConstants.MODEL.equals(upper)) return new Column(Source.MODEL, null, Column.TOTAL);
+        Source source = Source.CURRENT;
+        Month month = null;
+        int separator = upper.indexOf(QueryConstants.SOURCE_SEPARATOR);
+        if (separator >= 0) {
+            String prefix = upper.substring(0, separator);
+            upper = upper.substring(separator + 1);
+            if (QueryConstants.REBALANCED.equals(prefix)) {
+                source = Source.REBALANCED;
+            } else {
+                source = Source.MONTH;
+                month = Month.fromString(prefix);
+            }
+        }
+        int asset = QueryConstants.TOTAL.equals(upper) ? Column.TOTAL : AssetType.valueOf(upper).ordinal();
+        return new Column(source, month, asset);
+    }
+
+    private static String next(Iterator<String> it, String expected) {
+        if (!it.hasNext()) throw new IllegalArgumentException("Query needs " + expected);
+        return it.next();
+    }
+}
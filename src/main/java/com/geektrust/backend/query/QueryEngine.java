@@ -0,0 +1,227 @@
+// -------- query/QueryEngine.java --------
+package com.geektrust.backend.query;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.QueryConstants;
+import com.geektrust.backend.offheap.ModelPortfolio;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.offheap.PortfolioRecord;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Answers {@link Query}s over every record of an {@link OffHeapPortfolioStore}.
+ *
+ * Each column a query touches is copied once into an int[] indexed by record, in parallel blocks with
+ * one flyweight per block, and kept for later queries until {@link #refresh()}. A scan then splits the
+ * book into SCAN_BLOCK_SIZE blocks that run in parallel. Inside a block the first condition writes the
+ * matching indices into a selection vector and every further condition only narrows that vector, so a
+ * selective first condition saves the work of the rest. Blocks return partial aggregates that are
+ * merged at the end. A LIMIT keeps the lowest matching records, so answers do not depend on which
+ * block finished first: matches are taken in block order after the scan, and once the finished
+ * blocks at the front of the book hold LIMIT matches, the blocks after them are not scanned.
+ *
+ * Columns are snapshots: refresh after the store changes, or the next query answers the old state.
+ */
+public class QueryEngine {
+
+    private static final int ASSETS = AssetType.values().length;
+
+    private final OffHeapPortfolioStore store;
+    private final Map<Query.Column, int[]> columns = new ConcurrentHashMap<>();
+    private int captured; // store size the cached columns were copied at
+
+    public QueryEngine(OffHeapPortfolioStore store) {
+        this.store = Objects.requireNonNull(store, "Store cannot be null");
+    }
+
+    /** Drops every cached column, so the next query reads the store again. */
+    public synchronized void refresh() {
+        columns.clear();
+        captured = 0;
+    }
+
+    public synchronized QueryResult execute(Query query) {
+        int size = store.size();
+        if (size != captured) { // records were added since the columns were copied
+            columns.clear();
+            captured = size;
+        }
+        List<Query.Condition> conditions = query.getConditions();
+        int[][] left = new int[conditions.size()][];
+        int[][] shareOf = new int[conditions.size()][];
+        for (int c = 0; c < conditions.size(); c++) {
+            left[c] = column(conditions.get(c).column, size);
+            if (conditions.get(c).shareOf != null) shareOf[c] = column(conditions.get(c).shareOf, size);
+        }
+        int[] target = query.getTarget() == null ? null : column(query.getTarget(), size);
+        long limit = query.getLimit();
+
+        int blocks = (size + QueryConstants.SCAN_BLOCK_SIZE - 1) / QueryConstants.SCAN_BLOCK_SIZE;
+        Partial[] partials = new Partial[blocks];
+        AtomicIntegerArray scanned = new AtomicIntegerArray(blocks); // matches + 1 once a block is done
+        // last block the answer can need: the first whose prefix of finished blocks reaches the limit
+        AtomicInteger lastNeeded = new AtomicInteger(limit == 0 ? -1 : blocks - 1);
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            if (b > lastNeeded.get()) return; // earlier blocks already hold LIMIT matches
+            partials[b] = scan(b, size, conditions, left, shareOf, target, limit);
+            if (limit == QueryConstants.NO_LIMIT) return;
+            scanned.set(b, partials[b].selected + 1);
+            long prefix = 0;
+            for (int k = 0; k < blocks && scanned.get(k) > 0; k++) {
+                prefix += scanned.get(k) - 1;
+                if (prefix < limit) continue;
+                lastNeeded.accumulateAndGet(k, Math::min);
+                break;
+            }
+        });
+        return merge(query.getAggregate(), partials, target, limit);
+    }
+
+    // --- scan ---
+
+    /** One block's matches, in index order, and the aggregate over the first {@code taken} of them. */
+    private static final class Partial {
+        int[] selection;
+        int selected;
+        int taken = -1; // -1 until aggregated
+        long values;
+        long sum;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        void aggregate(int[] target, int count) {
+            taken = count;
+            if (target == null) return;
+            for (int s = 0; s < count; s++) {
+                int value = target[selection[s]];
+                if (value == QueryConstants.NULL_VALUE) continue;
+                values++;
+                sum += value;
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+        }
+    }
+
+    /**
+     * Builds the block's selection vector. Without a LIMIT the block aggregates all of it here, in
+     * parallel; with one, it keeps at most LIMIT matches and {@link #merge} aggregates the prefix it needs.
+     */
+    private static Partial scan(int block, int size, List<Query.Condition> conditions, int[][] left, int[][] shareOf,
+                                int[] target, long limit) {
+        int from = block * QueryConstants.SCAN_BLOCK_SIZE;
+        int to = Math.min(size, from + QueryConstants.SCAN_BLOCK_SIZE);
+        int[] selection = new int[to - from];
+        int selected;
+        if (conditions.isEmpty()) {
+            for (int i = from; i < to; i++) selection[i - from] = i;
+            selected = to - from;
+        } else {
+            selected = 0;
+            for (int i = from; i < to; i++) {
+                if (matches(conditions.get(0), left[0], shareOf[0], i)) selection[selected++] = i;
+            }
+            for (int c = 1; c < conditions.size() && selected > 0; c++) {
+                int kept = 0;
+                for (int s = 0; s < selected; s++) {
+                    int i = selection[s];
+                    if (matches(conditions.get(c), left[c], shareOf[c], i)) selection[kept++] = i;
+                }
+                selected = kept;
+            }
+        }
+
+        Partial partial = new Partial();
+        partial.selection = selection;
+        partial.selected = (int) Math.min(selected, limit);
+        if (limit == QueryConstants.NO_LIMIT) partial.aggregate(target, partial.selected);
+        return partial;
+    }
+
+    /** A share compares asset * 100 with value * total, so no per-record division is needed. */
+    private static boolean matches(Query.Condition condition, int[] left, int[] shareOf, int i) {
+        int value = left[i];
+        if (value == QueryConstants.NULL_VALUE) return false;
+        if (shareOf == null) return condition.operator.test(value, condition.value);
+        int total = shareOf[i];
+        if (total <= 0) return false; // an empty portfolio has no shares
+        return condition.operator.test(value * QueryConstants.PERCENT, condition.value * total);
+    }
+
+    /** Takes matches block by block in index order, so LIMIT keeps the lowest matching records. */
+    private static QueryResult merge(Query.Aggregate aggregate, Partial[] partials, int[] target, long limit) {
+        long remaining = limit;
+        long matched = 0, values = 0, sum = 0;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (Partial partial : partials) {
+            if (partial == null || remaining == 0) break; // a skipped block lies past the LIMIT
+            int take = (int) Math.min(partial.selected, remaining);
+            if (partial.taken < 0) partial.aggregate(target, take);
+            remaining -= take;
+            matched += take;
+            values += partial.values;
+            sum += partial.sum;
+            min = Math.min(min, partial.min);
+            max = Math.max(max, partial.max);
+        }
+        int[] ids = new int[aggregate == Query.Aggregate.IDS ? (int) matched : 0];
+        int at = 0;
+        for (int b = 0; b < partials.length && at < ids.length; b++) {
+            System.arraycopy(partials[b].selection, 0, ids, at, partials[b].taken);
+            at += partials[b].taken;
+        }
+        if (values == 0) return new QueryResult(matched, OptionalDouble.empty(), ids);
+        switch (aggregate) {
+            case SUM: return new QueryResult(matched, OptionalDouble.of(sum), ids);
+            case AVG: return new QueryResult(matched, OptionalDouble.of((double) sum / values), ids);
+            case MIN: return new QueryResult(matched, OptionalDouble.of(min), ids);
+            case MAX: return new QueryResult(matched, OptionalDouble.of(max), ids);
+            default: return new QueryResult(matched, OptionalDouble.empty(), ids);
+        }
+    }
+
+    // --- columns ---
+
+    private int[] column(Query.Column column, int size) {
+        return columns.computeIfAbsent(column, c -> capture(c, size));
+    }
+
+    private int[] capture(Query.Column column, int size) {
+        int[] values = new int[size];
+        int blocks = (size + QueryConstants.SCAN_BLOCK_SIZE - 1) / QueryConstants.SCAN_BLOCK_SIZE;
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int from = b * QueryConstants.SCAN_BLOCK_SIZE;
+            int to = Math.min(size, from + QueryConstants.SCAN_BLOCK_SIZE);
+            PortfolioRecord record = store.record(from);
+            for (int i = from; i < to; i++) values[i] = read(record.moveTo(i), column);
+        });
+        return values;
+    }
+
+    private static int read(PortfolioRecord record, Query.Column column) {
+        switch (column.source) {
+            case MODEL:
+                ModelPortfolio model = record.getModel();
+                return (model == null) ? QueryConstants.NULL_VALUE : model.getId();
+            case MONTH:
+                if (!record.hasMonthlySnapshot(column.month)) return QueryConstants.NULL_VALUE;
+                if (column.asset != Query.Column.TOTAL) return record.getMonthlyBalance(column.month, column.asset);
+                int monthTotal = 0;
+                for (int a = 0; a < ASSETS; a++) monthTotal += record.getMonthlyBalance(column.month, a);
+                return monthTotal;
+            case REBALANCED:
+                if (!record.isRebalanced()) return QueryConstants.NULL_VALUE;
+                if (column.asset != Query.Column.TOTAL) return record.getRebalancedAmount(column.asset);
+                int rebalancedTotal = 0;
+                for (int a = 0; a < ASSETS; a++) rebalancedTotal += record.getRebalancedAmount(a);
+                return rebalancedTotal;
+            default:
+                return column.asset == Query.Column.TOTAL ? record.totalValue() : record.getAmount(column.asset);
+        }
+    }
+}
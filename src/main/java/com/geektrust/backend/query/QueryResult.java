@@ -0,0 +1,28 @@
+// -------- query/QueryResult.java --------
+package com.geektrust.backend.query;
+
+import java.util.Arrays;
+import java.util.OptionalDouble;
+
+/** Outcome of a {@link Query}: how many records matched, the aggregate over them, and their indices for IDS. */
+public final class QueryResult {
+
+    private final long matched;
+    private final OptionalDouble value;
+    private final int[] ids;
+
+    QueryResult(long matched, OptionalDouble value, int[] ids) {
+        this.matched = matched;
+        this.value = value;
+        this.ids = ids;
+    }
+
+    /** Matching records, capped at the query's LIMIT. */
+    public long getMatched() { return matched; }
+
+    /** SUM/AVG/MIN/MAX over matching records that have the column; empty when none do. */
+    public OptionalDouble getValue() { return value; }
+
+    /** Store indices of the matching records in ascending order; empty unless the query is IDS. */
+    public int[] getIds() { return Arrays.copyOf(ids, ids.length); }
+}
@@ -0,0 +1,237 @@
+// -------- readmodel/PortfolioReadModel.java --------
+package com.geektrust.backend.readmodel;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.services.PortfolioEventListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read side of the portfolio: BALANCE and REBALANCE answers kept in flat arrays
+ * (month-major, indexed by AssetType ordinal) and never touching the mutable {@code Portfolio}.
+ *
+ * Each event from the write path is folded into a new immutable {@link View} that carries the
+ * sequence number of the last event it includes (the watermark). By default events are folded as
+ * they are published, on the writer's thread: a command stream that queries its own portfolio gains
+ * nothing from a hand-off. Where queries run on other threads while the log is applied (a replica),
+ * pass an executor: events are then queued and folded in the background. A query still needs every
+ * event published before it; when the background pass has not caught up yet, the query folds the
+ * remaining events itself instead of parking. Readers never lock the write path's {@code Portfolio}.
+ */
+public class PortfolioReadModel implements PortfolioEventListener {
+
+    private static final int ASSETS = AssetType.values().length;
+    private static final int MONTHS = Month.values().length;
+
+    private final Executor executor; // null: fold on publish
+    private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicLong published = new AtomicLong();
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private volatile View view = View.EMPTY;
+    private List<Event> batch; // writer-only: events held back until the batch ends
+    private int batchDepth;
+
+    /** Folds each event as it is published, on the writer's thread. */
+    public PortfolioReadModel() {
+        this.executor = null;
+    }
+
+    /** Folds events in the background on {@code executor}, for readers on other threads. */
+    public PortfolioReadModel(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+    }
+
+    @Override
+    public void onAllocated() {
+        publish(new Event(null, null, null));
+    }
+
+    @Override
+    public void onMonthClosed(Month month, int[] balance, int[] rebalanced) {
+        publish(new Event(month, balance, rebalanced));
+    }
+
+    @Override
+    public void onBatchStart() {
+        if (batchDepth++ == 0) batch = new ArrayList<>();
+    }
+
+    /** Publishes the held-back events as one event, so readers see all of the batch or none of it. */
+    @Override
+    public void onBatchEnd() {
+        if (--batchDepth > 0) return;
+        List<Event> parts = batch;
+        batch = null;
+        if (!parts.isEmpty()) publish(new Event(parts.toArray(new Event[0])));
+    }
+
+    /** BALANCE query; empty when the month was never recorded. */
+    public Map<AssetType, Integer> getBalance(Month month) {
+        View v = awaitCaughtUp();
+        if (!v.isRecorded(month)) return Collections.emptyMap();
+        return toMap(v.balances, month.ordinal() * ASSETS);
+    }
+
+    /** REBALANCE query; empty when no rebalance happened yet. */
+    public Map<AssetType, Integer> getRebalance() {
+        View v = awaitCaughtUp();
+        return (v.rebalanced == null) ? Collections.emptyMap() : toMap(v.rebalanced, 0);
+    }
+
+    /** Sequence number of the last event visible to queries. */
+    public long watermark() {
+        return view.sequence;
+    }
+
+    /** Sequence number of the last event handed over by the write path. */
+    public long published() {
+        return published.get();
+    }
+
+    // --- write side ---
+
+    private void publish(Event event) {
+        if (batch != null) {
+            batch.add(event);
+            return;
+        }
+        event.sequence = published.get() + 1; // single writer: the service's command stream
+        if (executor == null) {
+            applyLock.lock();
+            try {
+                view = view.apply(event);
+            } finally {
+                applyLock.unlock();
+            }
+            published.set(event.sequence);
+            return;
+        }
+        pending.add(event);
+        published.set(event.sequence);
+        if (scheduled.compareAndSet(false, true)) executor.execute(this::drainInBackground);
+    }
+
+    private void drainInBackground() {
+        scheduled.set(false); // events published from now on schedule another pass
+        drain();
+    }
+
+    /** Folds every queued event into a new view; whoever holds the lock applies, in order. */
+    private void drain() {
+        applyLock.lock();
+        try {
+            View next = view;
+            Event event;
+            while ((event = pending.poll()) != null) next = next.apply(event);
+            view = next;
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    // --- read side ---
+
+    private View awaitCaughtUp() {
+        long target = published.get();
+        View v = view;
+        // behind the writer: fold the pending events here rather than waiting for the pool
+        while (v.sequence < target) {
+            drain();
+            v = view;
+        }
+        return checkAllocated(v);
+    }
+
+    private static View checkAllocated(View v) {
+        if (!v.allocated) throw new IllegalStateException("Portfolio not allocated");
+        return v;
+    }
+
+    private static Map<AssetType, Integer> toMap(int[] values, int offset) {
+        Map<AssetType, Integer> map = new LinkedHashMap<>();
+        for (AssetType type : AssetType.values()) map.put(type, values[offset + type.ordinal()]);
+        return map;
+    }
+
+    private static final class Event {
+        private final Month month; // null: allocation reset
+        private final int[] balance;
+        private final int[] rebalanced;
+        private final Event[] parts; // non-null: a batch, applied in order under one sequence number
+        private long sequence;
+
+        private Event(Month month, int[] balance, int[] rebalanced) {
+            this.month = month;
+            this.balance = balance;
+            this.rebalanced = rebalanced;
+            this.parts = null;
+        }
+
+        private Event(Event[] parts) {
+            this.month = null;
+            this.balance = null;
+            this.rebalanced = null;
+            this.parts = parts;
+        }
+    }
+
+    /** Immutable snapshot of the read model at one watermark. */
+    private static final class View {
+        private static final View EMPTY = new View(0, false, 0, new int[MONTHS * ASSETS], null);
+
+        private final long sequence;
+        private final boolean allocated;
+        private final int recordedMonths; // bit per Month ordinal
+        private final int[] balances;
+        private final int[] rebalanced;
+
+        private View(long sequence, boolean allocated, int recordedMonths, int[] balances, int[] rebalanced) {
+            this.sequence = sequence;
+            this.allocated = allocated;
+            this.recordedMonths = recordedMonths;
+            this.balances = balances;
+            this.rebalanced = rebalanced;
+        }
+
+        private boolean isRecorded(Month month) {
+            return (recordedMonths & (1 << month.ordinal())) != 0;
+        }
+
+        private View apply(Event event) {
+            if (event.parts != null) return applyBatch(event);
+            if (event.month == null) return new View(event.sequence, true, 0, new int[MONTHS * ASSETS], null);
+            int[] nextBalances = balances.clone();
+            System.arraycopy(event.balance, 0, nextBalances, event.month.ordinal() * ASSETS, ASSETS);
+            int[] nextRebalanced = (event.rebalanced == null) ? rebalanced : event.rebalanced;
+            return new View(event.sequence, allocated, recordedMonths | (1 << event.month.ordinal()),
+                    nextBalances, nextRebalanced);
+        }
+
+        /** Folds a batch into one new view, copying the balance table once. */
+        private View applyBatch(Event event) {
+            boolean nextAllocated = allocated;
+            int nextRecorded = recordedMonths;
+            int[] nextBalances = balances.clone();
+            int[] nextRebalanced = rebalanced;
+            for (Event part : event.parts) {
+                if (part.month == null) {
+                    nextAllocated = true;
+                    nextRecorded = 0;
+                    Arrays.fill(nextBalances, 0);
+                    nextRebalanced = null;
+                    continue;
+                }
+                System.arraycopy(part.balance, 0, nextBalances, part.month.ordinal() * ASSETS, ASSETS);
+                nextRecorded |= 1 << part.month.ordinal();
+                if (part.rebalanced != null) nextRebalanced = part.rebalanced;
+            }
+            return new View(event.sequence, nextAllocated, nextRecorded, nextBalances, nextRebalanced);
+        }
+    }
+}
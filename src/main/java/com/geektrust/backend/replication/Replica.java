@@ -0,0 +1,148 @@
+// -------- replication/Replica.java --------
+package com.geektrust.backend.replication;
+
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.commands.BalanceCommand;
+import com.geektrust.backend.commands.CommandInvoker;
+import com.geektrust.backend.commands.RebalanceCommand;
+import com.geektrust.backend.constants.ReplicationConstants;
+import com.geektrust.backend.daemon.CommandDaemon;
+import com.geektrust.backend.exceptions.NoSuchCommandException;
+import com.geektrust.backend.readmodel.PortfolioReadModel;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Read replica: applies a {@link ReplicationPrimary}'s mutation log, in order, to its own
+ * {@link ApplicationConfig} and answers BALANCE, REBALANCE and LAG jobs from {@code DaemonClient}s.
+ *
+ * Replay is deterministic because the log holds exactly the command lines the primary applied.
+ * After each burst of frames the replica acknowledges its applied sequence number to the primary.
+ * LAG prints {@code "<applied> <primary head> <lag>"}; the head is the newest one the primary has announced.
+ */
+public class Replica implements Closeable {
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] b, int off, int len) {}
+    };
+
+    // queries arrive on daemon threads while the log is applied, so fold read-model events in the background
+    private final ApplicationConfig session = new ApplicationConfig(new PrintStream(DISCARD), null,
+            new PortfolioReadModel(ForkJoinPool.commonPool()));
+    private final Socket primary;
+    private final CommandDaemon queries;
+    private final Object progress = new Object();
+    private Thread applier;
+    private volatile long applied = ReplicationConstants.NO_ENTRIES;
+    private volatile long knownHead = ReplicationConstants.NO_ENTRIES;
+
+    public Replica(int primaryPort, int queryPort) throws IOException {
+        this.primary = new Socket(InetAddress.getLoopbackAddress(), primaryPort);
+        this.queries = new CommandDaemon(queryPort, this::querySession);
+    }
+
+    /** Starts applying the log and serving queries on background threads. */
+    public Replica start() {
+        applier = new Thread(this::applyLog, "replica-applier");
+        applier.setDaemon(true);
+        applier.start();
+        queries.start();
+        return this;
+    }
+
+    /** Blocks until the replication stream ends: the primary closed it, or a malformed frame made this replica disconnect. */
+    public void awaitClose() throws InterruptedException {
+        applier.join();
+    }
+
+    public int getQueryPort() {
+        return queries.getPort();
+    }
+
+    public long appliedSequence() {
+        return applied;
+    }
+
+    /** Entries the primary has announced that this replica has not applied yet. */
+    public long lag() {
+        return knownHead - applied;
+    }
+
+    /** Waits until {@code sequence} is applied; false on timeout. */
+    public boolean awaitApplied(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (progress) {
+            while (applied < sequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) return false;
+                progress.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        primary.close();
+        queries.close();
+    }
+
+    private CommandInvoker querySession(PrintStream out) {
+        CommandInvoker invoker = new CommandInvoker(out);
+        invoker.register("BALANCE", new BalanceCommand(session.getReadModel(), out));
+        invoker.register("REBALANCE", new RebalanceCommand(session.getReadModel(), out));
+        invoker.register(ReplicationConstants.LAG_COMMAND, tokens -> out.println(applied
+                + ReplicationConstants.FIELD_DELIMITER + knownHead + ReplicationConstants.FIELD_DELIMITER + lag()));
+        return invoker;
+    }
+
+    private void applyLog() {
+        CommandInvoker invoker = session.getCommandInvoker();
+        try (BufferedReader frames = new BufferedReader(new InputStreamReader(primary.getInputStream(), StandardCharsets.UTF_8),
+                     ReplicationConstants.IO_BUFFER_SIZE);
+             Writer acks = new OutputStreamWriter(primary.getOutputStream(), StandardCharsets.UTF_8)) {
+            String frame;
+            while ((frame = frames.readLine()) != null) {
+                int sequenceEnd = frame.indexOf(ReplicationConstants.FIELD_DELIMITER);
+                int headEnd = frame.indexOf(ReplicationConstants.FIELD_DELIMITER, sequenceEnd + 1);
+                long sequence;
+                try {
+                    sequence = Long.parseLong(frame.substring(0, sequenceEnd));
+                    knownHead = Math.max(knownHead, Long.parseLong(frame.substring(sequenceEnd + 1, headEnd)));
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    // applying past a lost frame would diverge from the primary; disconnect so the lag shows
+                    System.err.println("Malformed replication frame after entry " + applied + ", disconnecting: " + frame);
+                    primary.close();
+                    return;
+                }
+
+                List<String> tokens = Arrays.asList(frame.substring(headEnd + 1).split(ReplicationConstants.TOKEN_DELIMITER));
+                try {
+                    invoker.executeCommand(tokens.get(ReplicationConstants.COMMAND_NAME_INDEX), tokens);
+                } catch (NoSuchCommandException e) {
+                    System.err.println(e);
+                }
+                applied = sequence;
+
+                if (!frames.ready()) { // end of a burst: report progress once
+                    acks.write(sequence + "\n");
+                    acks.flush();
+                    synchronized (progress) {
+                        progress.notifyAll();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (!primary.isClosed()) System.err.println(e);
+        }
+    }
+}
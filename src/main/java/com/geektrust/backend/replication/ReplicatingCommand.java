@@ -0,0 +1,29 @@
+// -------- replication/ReplicatingCommand.java --------
+package com.geektrust.backend.replication;
+
+import com.geektrust.backend.commands.Command;
+import com.geektrust.backend.constants.ReplicationConstants;
+
+import java.util.List;
+
+/**
+ * Runs a mutating command and, once it has been applied, appends its line to the {@link ReplicationLog}.
+ * A command that throws is not shipped. That is only safe because PortfolioService checks every rule
+ * of ALLOCATE, SIP and CHANGE before it mutates anything; keep new mutating commands to that contract.
+ */
+public class ReplicatingCommand implements Command {
+
+    private final Command delegate;
+    private final ReplicationLog log;
+
+    public ReplicatingCommand(Command delegate, ReplicationLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override
+    public void execute(List<String> tokens) {
+        delegate.execute(tokens);
+        log.append(String.join(ReplicationConstants.TOKEN_DELIMITER, tokens));
+    }
+}
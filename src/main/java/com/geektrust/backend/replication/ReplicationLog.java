@@ -0,0 +1,103 @@
+// -------- replication/ReplicationLog.java --------
+package com.geektrust.backend.replication;
+
+import com.geektrust.backend.constants.ReplicationConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered mutation log of a primary: every ALLOCATE/SIP/CHANGE line that was applied, numbered from 1.
+ *
+ * The newest {@code retainedEntries} entries are always kept. Older ones are dropped in batches once
+ * every connected reader has acknowledged them, so the log holds at most twice the window plus what
+ * the slowest connected replica has not confirmed. A replica that connects before anything was dropped
+ * replays from the start; one that connects later cannot rebuild the state and is refused.
+ */
+public class ReplicationLog {
+
+    private final int retainedEntries;
+    private final List<String> entries = new ArrayList<>();
+    private final Map<Integer, Long> readers = new HashMap<>(); // connected replica id -> acknowledged sequence
+    private long dropped = ReplicationConstants.NO_ENTRIES; // sequence of the newest dropped entry
+    private boolean closed;
+
+    public ReplicationLog() {
+        this(ReplicationConstants.RETAINED_ENTRIES);
+    }
+
+    public ReplicationLog(int retainedEntries) {
+        if (retainedEntries <= 0) throw new IllegalArgumentException("Retained entries must be positive: " + retainedEntries);
+        this.retainedEntries = retainedEntries;
+    }
+
+    /** Appends an applied command line and returns its sequence number. */
+    public synchronized long append(String commandLine) {
+        if (closed) throw new IllegalStateException("Replication log is closed");
+        entries.add(commandLine);
+        if (entries.size() >= 2 * retainedEntries) dropAcknowledged();
+        notifyAll();
+        return head();
+    }
+
+    /** Sequence number of the newest entry, or 0 when empty. */
+    public synchronized long head() {
+        return dropped + entries.size();
+    }
+
+    /** Entries still held in memory. */
+    public synchronized int retained() {
+        return entries.size();
+    }
+
+    public synchronized String get(long sequence) {
+        if (sequence <= dropped && sequence > ReplicationConstants.NO_ENTRIES)
+            throw new IllegalArgumentException("Log entry " + sequence + " was dropped");
+        if (sequence <= ReplicationConstants.NO_ENTRIES || sequence > head())
+            throw new IllegalArgumentException("No log entry " + sequence);
+        return entries.get((int) (sequence - dropped - 1));
+    }
+
+    /** Registers a replica that will replay from entry 1; refused once entries have been dropped. */
+    public synchronized void openReader(int reader) {
+        if (dropped > ReplicationConstants.NO_ENTRIES)
+            throw new IllegalStateException("Replication log no longer starts at entry 1: entries up to " + dropped + " were dropped");
+        readers.put(reader, ReplicationConstants.NO_ENTRIES);
+    }
+
+    /** Records that {@code reader} has applied every entry up to {@code sequence}. */
+    public synchronized void acknowledge(int reader, long sequence) {
+        if (readers.containsKey(reader)) readers.put(reader, Math.min(sequence, head()));
+    }
+
+    /** Forgets a replica that went away; it no longer holds entries in the log. */
+    public synchronized void closeReader(int reader) {
+        readers.remove(reader);
+    }
+
+    /**
+     * Blocks until an entry with {@code sequence} exists and returns the head at that moment,
+     * or returns a head below {@code sequence} once the log is closed.
+     */
+    public synchronized long awaitEntry(long sequence) throws InterruptedException {
+        while (head() < sequence && !closed) wait();
+        return head();
+    }
+
+    /** Wakes every waiting sender; no further entries are accepted. */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    // drops at least a window's worth at a time, so shifting the remaining entries stays amortized O(1)
+    private void dropAcknowledged() {
+        long through = head() - retainedEntries;
+        for (long acknowledged : readers.values()) through = Math.min(through, acknowledged);
+        if (through - dropped < retainedEntries) return;
+        entries.subList(0, (int) (through - dropped)).clear();
+        dropped = through;
+    }
+}
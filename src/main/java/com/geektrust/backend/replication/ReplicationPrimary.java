@@ -0,0 +1,137 @@
+// -------- replication/ReplicationPrimary.java --------
+package com.geektrust.backend.replication;
+
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.constants.ReplicationConstants;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ships a {@link ReplicationLog} to {@link Replica} processes over loopback TCP.
+ *
+ * Each replica connection gets a sender thread that writes {@code "<sequence> <head> <command line>"}
+ * frames in log order, flushing whenever it has caught up with the head, and an ack reader that
+ * records the last sequence number the replica reports as applied. The difference is the lag.
+ * Acknowledgements also let the log drop entries every replica has applied; a replica that connects
+ * after that is refused, since it could no longer replay from entry 1.
+ */
+public class ReplicationPrimary implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final ReplicationLog log;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "replication-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, AtomicLong> acknowledged = new ConcurrentHashMap<>(); // replica id -> applied sequence
+    private final List<Socket> replicas = new CopyOnWriteArrayList<>();
+    private Thread acceptor;
+    private int nextReplicaId;
+
+    public ReplicationPrimary(int port, ReplicationLog log) throws IOException {
+        this.serverSocket = new ServerSocket(port, DaemonConstants.CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+        this.log = log;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Accepts replicas on a background daemon thread and returns immediately. */
+    public ReplicationPrimary start() {
+        acceptor = new Thread(this::acceptReplicas, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    /** Blocks until {@link #close()} stops the acceptor. */
+    public void awaitClose() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /** Per connected replica: how many log entries it has not yet confirmed as applied. */
+    public Map<Integer, Long> replicaLags() {
+        long head = log.head();
+        Map<Integer, Long> lags = new TreeMap<>();
+        for (Map.Entry<Integer, AtomicLong> e : acknowledged.entrySet()) lags.put(e.getKey(), head - e.getValue().get());
+        return lags;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket replica : replicas) replica.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptReplicas() {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                int id = ++nextReplicaId;
+                try {
+                    log.openReader(id);
+                } catch (IllegalStateException e) {
+                    System.err.println("Refusing replica " + id + ": " + e.getMessage());
+                    socket.close();
+                    continue;
+                }
+                AtomicLong applied = new AtomicLong(ReplicationConstants.NO_ENTRIES);
+                acknowledged.put(id, applied);
+                replicas.add(socket);
+                connections.execute(() -> send(socket, id));
+                connections.execute(() -> readAcks(socket, id, applied));
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) System.err.println(e); // otherwise: closed on purpose
+        }
+    }
+
+    private void send(Socket socket, int id) {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8),
+                ReplicationConstants.IO_BUFFER_SIZE)) {
+            long next = ReplicationConstants.NO_ENTRIES + 1;
+            while (true) {
+                long head = log.awaitEntry(next);
+                if (head < next) break; // log closed and fully shipped
+                for (; next <= head; next++) {
+                    out.write(next + ReplicationConstants.FIELD_DELIMITER + head
+                            + ReplicationConstants.FIELD_DELIMITER + log.get(next));
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // replica went away; its lag entry is dropped below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            acknowledged.remove(id);
+            replicas.remove(socket);
+            log.closeReader(id);
+        }
+    }
+
+    private void readAcks(Socket socket, int id, AtomicLong applied) {
+        try {
+            BufferedReader acks = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = acks.readLine()) != null) {
+                applied.set(Long.parseLong(line.trim()));
+                log.acknowledge(id, applied.get());
+            }
+        } catch (IOException | NumberFormatException e) {
+            // connection closed; the sender notices on its next write
+        } finally {
+            acknowledged.remove(id);
+            log.closeReader(id);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+// -------- scheduling/Lane.java --------
+package com.geektrust.backend.scheduling;
+
+import com.geektrust.backend.constants.SchedulingConstants;
+
+import java.util.Locale;
+
+/** Scheduling class of a command: interactive queries or bulk mutations. */
+public enum Lane {
+    INTERACTIVE, BULK;
+
+    public static Lane of(String commandName) {
+        return SchedulingConstants.INTERACTIVE_COMMANDS.contains(commandName.toUpperCase(Locale.ROOT)) ? INTERACTIVE : BULK;
+    }
+}
@@ -0,0 +1,152 @@
+// -------- scheduling/LaneScheduler.java --------
+package com.geektrust.backend.scheduling;
+
+import com.geektrust.backend.constants.SchedulingConstants;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission gate with {@code slots} execution slots. When threads are waiting, the next slot goes to a
+ * lane by stride scheduling, so each lane gets service in proportion to its weight. Used with one slot
+ * per hosted portfolio, it lets a BALANCE go ahead of the next line of a CHANGE batch on the same
+ * portfolio; used with a slot per core, it bounds how many commands run at once.
+ *
+ * Callers run their own commands in their own order, so commands of one connection are never
+ * reordered. Only who goes next across connections is decided here.
+ */
+public class LaneScheduler {
+
+    private static final Lane[] LANES = Lane.values();
+
+    private final int slots;
+    private final long[] strides = new long[LANES.length];
+    private final long[] pass = new long[LANES.length];
+    private final int[] waiting = new int[LANES.length];
+    private final AtomicIntegerArray active = new AtomicIntegerArray(LANES.length);
+    private final AtomicLongArray granted = new AtomicLongArray(LANES.length);
+    private final AtomicIntegerArray uncharged = new AtomicIntegerArray(LANES.length); // lock-free grants since the last queue
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile int queued; // sum of waiting[], written under the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition[] turns = new Condition[LANES.length];
+    private long virtualTime; // pass of the most recent queued grant
+
+    public LaneScheduler() {
+        this(SchedulingConstants.EXECUTION_SLOTS, SchedulingConstants.INTERACTIVE_WEIGHT, SchedulingConstants.BULK_WEIGHT);
+    }
+
+    public LaneScheduler(int slots, int interactiveWeight, int bulkWeight) {
+        if (slots <= 0 || interactiveWeight <= 0 || bulkWeight <= 0)
+            throw new IllegalArgumentException("Slots and weights must be positive");
+        this.slots = slots;
+        strides[Lane.INTERACTIVE.ordinal()] = SchedulingConstants.STRIDE / interactiveWeight;
+        strides[Lane.BULK.ordinal()] = SchedulingConstants.STRIDE / bulkWeight;
+        for (Lane lane : LANES) turns[lane.ordinal()] = lock.newCondition();
+    }
+
+    /** Runs {@code task} once its lane is granted a slot. */
+    public void run(Lane lane, Runnable task) {
+        enter(lane);
+        try {
+            task.run();
+        } finally {
+            exit(lane);
+        }
+    }
+
+    /**
+     * Blocks until {@code lane} is granted a slot; pair with {@link #exit(Lane)}. While nobody is queued
+     * and a slot is free, the slot is taken without the lock: the lanes only matter once the gate is full.
+     */
+    public void enter(Lane lane) {
+        int l = lane.ordinal();
+        if (queued == 0 && tryTakeSlot()) {
+            active.incrementAndGet(l);
+            granted.incrementAndGet(l);
+            uncharged.lazySet(l, 1);
+            return;
+        }
+        lock.lock();
+        try {
+            chargeUncontended();
+            if (waiting[l] == 0 && active.get(l) == 0) pass[l] = Math.max(pass[l], virtualTime); // no credit for idle time
+            waiting[l]++;
+            queued++;
+            while (nextLane() != l || !tryTakeSlot()) turns[l].awaitUninterruptibly();
+            waiting[l]--;
+            queued--;
+            active.incrementAndGet(l);
+            virtualTime = pass[l];
+            pass[l] += strides[l];
+            granted.incrementAndGet(l);
+            signalNext(); // another slot may still be free
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void exit(Lane lane) {
+        active.decrementAndGet(lane.ordinal());
+        running.decrementAndGet(); // before reading queued: a thread that queues after this sees the free slot
+        if (queued == 0) return;
+        lock.lock();
+        try {
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Slots granted to {@code lane} so far. */
+    public long granted(Lane lane) {
+        return granted.get(lane.ordinal());
+    }
+
+    /** Threads currently queued on {@code lane}. */
+    public int waiting(Lane lane) {
+        lock.lock();
+        try {
+            return waiting[lane.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryTakeSlot() {
+        for (int taken = running.get(); taken < slots; taken = running.get()) {
+            if (running.compareAndSet(taken, taken + 1)) return true;
+        }
+        return false;
+    }
+
+    // --- internals (lock held) ---
+
+    /** A lane that ran without contention is charged one grant, however long the run: no debt for it either. */
+    private void chargeUncontended() {
+        for (int l = 0; l < LANES.length; l++) {
+            if (uncharged.getAndSet(l, 0) == 0) continue;
+            pass[l] = Math.max(pass[l], virtualTime);
+            virtualTime = pass[l];
+            pass[l] += strides[l];
+        }
+    }
+
+    /** Waiting lane with the smallest pass; ties go to the lane declared first (INTERACTIVE). */
+    private int nextLane() {
+        int next = -1;
+        for (int l = 0; l < LANES.length; l++) {
+            if (waiting[l] > 0 && (next < 0 || pass[l] < pass[next])) next = l;
+        }
+        return next;
+    }
+
+    private void signalNext() {
+        if (running.get() >= slots) return;
+        int next = nextLane();
+        if (next >= 0) turns[next].signalAll();
+    }
+}
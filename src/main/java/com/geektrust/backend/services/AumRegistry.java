@@ -0,0 +1,42 @@
+// -------- services/AumRegistry.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.entities.HoldingsListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Firm-wide assets under management, maintained incrementally from holding deltas.
+ * Striped counters keep concurrent writers cheap; reads never walk portfolios.
+ */
+public class AumRegistry implements HoldingsListener {
+
+    private final LongAdder[] totals = new LongAdder[AssetType.values().length];
+
+    public AumRegistry() {
+        for (int i = 0; i < totals.length; i++) totals[i] = new LongAdder();
+    }
+
+    @Override
+    public void onHoldingChanged(AssetType type, long delta) {
+        totals[type.ordinal()].add(delta);
+    }
+
+    public long get(AssetType type) {
+        return totals[type.ordinal()].sum();
+    }
+
+    public long total() {
+        long sum = 0;
+        for (LongAdder t : totals) sum += t.sum();
+        return sum;
+    }
+
+    public Map<AssetType, Long> snapshot() {
+        Map<AssetType, Long> snapshot = new EnumMap<>(AssetType.class);
+        for (AssetType type : AssetType.values()) snapshot.put(type, get(type));
+        return snapshot;
+    }
+}
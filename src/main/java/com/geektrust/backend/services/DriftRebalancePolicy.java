@@ -0,0 +1,23 @@
+// -------- services/DriftRebalancePolicy.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.ServiceConstants;
+
+/** Rebalances in any month once some asset has drifted more than the threshold from its target ratio. */
+public class DriftRebalancePolicy implements RebalancePolicy {
+
+    private final double threshold;
+
+    /** @param threshold allowed drift as a fraction, e.g. 0.05 for five percentage points */
+    public DriftRebalancePolicy(double threshold) {
+        if (threshold < ServiceConstants.MINIMUM_DRIFT_THRESHOLD)
+            throw new IllegalArgumentException("Drift threshold cannot be negative");
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean shouldRebalance(Month month, double drift) {
+        return drift > threshold;
+    }
+}
@@ -0,0 +1,113 @@
+// -------- services/GoalSeeker.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.ServiceConstants;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.offheap.PortfolioRecord;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the smallest monthly SIP that grows a portfolio to a target value within a horizon.
+ *
+ * A candidate total SIP S is split across assets as floor(S * weight) and simulated with the
+ * {@link ProjectionKernel}. The search doubles S until the target is reached, then bisects the
+ * bracket on whole rupees, so a 40-year horizon costs about 60 kernel runs and no allocation. The
+ * answer is exact whenever the final value grows with the SIP, which holds for scheduled
+ * rebalancing; a drift policy can in principle make the value step down as the SIP grows.
+ *
+ * An instance reuses scratch arrays and is not thread-safe; {@link #minimumSips} runs one per worker.
+ */
+public final class GoalSeeker {
+
+    private final ProjectionKernel kernel;
+    private final double[] noSip = new double[ProjectionKernel.WIDTH];
+    private final double[] candidate = new double[ProjectionKernel.WIDTH];
+
+    public GoalSeeker(RebalancePolicy rebalancePolicy) {
+        this.kernel = new ProjectionKernel(Objects.requireNonNull(rebalancePolicy, "Rebalance policy cannot be null"));
+    }
+
+    /**
+     * @param start        current holdings, by asset ordinal
+     * @param ratios       original allocation ratios, by asset ordinal
+     * @param weights      how a total SIP is split across assets; they should sum to 1
+     * @param skipFirstSip true while the first SIP is still waiting for its first CHANGE
+     * @return per-asset SIP amounts, or null when even the largest SIP misses the target
+     */
+    public int[] minimumSip(double[] start, double[] ratios, double[] weights, boolean skipFirstSip,
+                            Month first, int months, double[] roiSeries, long target) {
+        if (months < ServiceConstants.MINIMUM_PROJECTION_MONTHS)
+            throw new IllegalArgumentException("Goal needs a positive number of months");
+        ProjectionKernel.requireValidRoi(roiSeries);
+
+        long low = 0; // reaches(low) is false unless low is the answer
+        if (!reaches(low, start, ratios, weights, skipFirstSip, first, months, roiSeries, target)) {
+            long high = 1;
+            while (!reaches(high, start, ratios, weights, skipFirstSip, first, months, roiSeries, target)) {
+                low = high;
+                high <<= 1;
+                if (high > ServiceConstants.GOAL_MAXIMUM_SIP) return null;
+            }
+            while (high - low > 1) {
+                long mid = (low + high) >>> 1;
+                if (reaches(mid, start, ratios, weights, skipFirstSip, first, months, roiSeries, target)) high = mid;
+                else low = mid;
+            }
+            low = high;
+        }
+        int[] sip = new int[ProjectionKernel.WIDTH];
+        for (int i = 0; i < sip.length; i++) sip[i] = (int) Math.floor(low * weights[i]);
+        return sip;
+    }
+
+    /**
+     * Solves the same goal for every record of {@code store} in parallel. Each record's SIP is split
+     * like its current SIP, or by its allocation ratios when it has none, and starts with the first
+     * projected month.
+     *
+     * @return total monthly SIP per record index, or GOAL_UNREACHABLE
+     */
+    public static long[] minimumSips(OffHeapPortfolioStore store, RebalancePolicy rebalancePolicy,
+                                     Month first, int months, double[] roiSeries, long target) {
+        int size = store.size();
+        long[] totals = new long[size];
+        int blocks = (size + ServiceConstants.GOAL_BLOCK_SIZE - 1) / ServiceConstants.GOAL_BLOCK_SIZE;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            GoalSeeker seeker = new GoalSeeker(rebalancePolicy);
+            double[] start = new double[ProjectionKernel.WIDTH];
+            double[] ratios = new double[ProjectionKernel.WIDTH];
+            double[] weights = new double[ProjectionKernel.WIDTH];
+            int from = block * ServiceConstants.GOAL_BLOCK_SIZE;
+            int to = Math.min(size, from + ServiceConstants.GOAL_BLOCK_SIZE);
+            PortfolioRecord record = store.record(from);
+            for (int index = from; index < to; index++) {
+                record.moveTo(index);
+                long sipTotal = 0;
+                for (int i = 0; i < start.length; i++) {
+                    start[i] = record.getAmount(i);
+                    ratios[i] = record.getAllocationRatio(i);
+                    sipTotal += record.getSipAmount(i);
+                }
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = (sipTotal > 0) ? record.getSipAmount(i) / (double) sipTotal : ratios[i];
+                }
+                int[] sip = seeker.minimumSip(start, ratios, weights, false, first, months, roiSeries, target);
+                sipTotal = 0;
+                if (sip != null) for (int amount : sip) sipTotal += amount;
+                totals[index] = (sip == null) ? ServiceConstants.GOAL_UNREACHABLE : sipTotal;
+            }
+        });
+        return totals;
+    }
+
+    private boolean reaches(long total, double[] start, double[] ratios, double[] weights, boolean skipFirstSip,
+                            Month first, int months, double[] roiSeries, long target) {
+        for (int i = 0; i < candidate.length; i++) candidate[i] = Math.floor(total * weights[i]);
+        double value = kernel.run(start, ratios, first, months, roiSeries,
+                skipFirstSip ? noSip : candidate, candidate, null, null);
+        return value >= target;
+    }
+}
@@ -0,0 +1,27 @@
+// -------- services/PortfolioEventListener.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Month;
+
+/**
+ * Mutation stream of {@link PortfolioService}, delivered synchronously on the writing thread.
+ * Amount arrays are indexed by AssetType ordinal and owned by the receiver.
+ */
+public interface PortfolioEventListener {
+
+    /** A fresh portfolio replaced the previous one. */
+    void onAllocated();
+
+    /**
+     * A CHANGE completed.
+     * @param balance    post-change, pre-rebalance amounts (the month's BALANCE)
+     * @param rebalanced amounts after rebalancing, or null when this month did not rebalance
+     */
+    void onMonthClosed(Month month, int[] balance, int[] rebalanced);
+
+    /** Events until the matching {@link #onBatchEnd()} belong to one atomic batch. */
+    default void onBatchStart() {}
+
+    /** The batch is complete; its events may become visible together. */
+    default void onBatchEnd() {}
+}
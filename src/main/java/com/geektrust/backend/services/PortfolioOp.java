@@ -0,0 +1,47 @@
+// -------- services/PortfolioOp.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Month;
+
+import java.util.Objects;
+
+/**
+ * One ALLOCATE, SIP or CHANGE for {@link PortfolioService#applyBatch}.
+ * Values are indexed by AssetType ordinal and copied on construction.
+ */
+public final class PortfolioOp {
+
+    public enum Kind { ALLOCATE, SIP, CHANGE }
+
+    private final Kind kind;
+    private final Month month; // CHANGE only
+    private final int[] amounts; // ALLOCATE and SIP
+    private final double[] roi; // CHANGE
+
+    private PortfolioOp(Kind kind, Month month, int[] amounts, double[] roi) {
+        this.kind = kind;
+        this.month = month;
+        this.amounts = amounts;
+        this.roi = roi;
+    }
+
+    public static PortfolioOp allocate(int[] amounts) {
+        return new PortfolioOp(Kind.ALLOCATE, null, amounts.clone(), null);
+    }
+
+    public static PortfolioOp sip(int[] amounts) {
+        return new PortfolioOp(Kind.SIP, null, amounts.clone(), null);
+    }
+
+    public static PortfolioOp change(Month month, double[] roi) {
+        return new PortfolioOp(Kind.CHANGE, Objects.requireNonNull(month, "Month cannot be null"), null, roi.clone());
+    }
+
+    public Kind getKind() { return kind; }
+
+    Month month() { return month; }
+
+    int[] amounts() { return amounts; }
+
+    double[] roi() { return roi; }
+}
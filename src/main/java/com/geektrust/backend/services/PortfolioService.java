@@ -4,7 +4,12 @@ package com.geektrust.backend.services;
 import com.geektrust.backend.constants.*;
 import com.geektrust.backend.entities.Asset;
 import com.geektrust.backend.entities.Portfolio;
+import com.geektrust.backend.entities.Returns;
+import com.geektrust.backend.entities.RiskMetrics;
+import com.geektrust.backend.history.MutationKind;
+import com.geektrust.backend.history.PortfolioHistory;
 import com.geektrust.backend.repositories.PortfolioRepository;
+import com.geektrust.backend.telemetry.FlightRecorder;
 
 import java.util.*;
 
@@ -15,14 +20,32 @@ import java.util.*;
  */
 public class PortfolioService {
 
+    private static final AssetType[] TYPES = AssetType.values(); // values() clones on every call
+
     private final PortfolioRepository repository;
+    private final AumRegistry aumRegistry; // optional firm-wide AUM, fed by holding deltas
+    private final RebalancePolicy rebalancePolicy;
+    private final List<PortfolioEventListener> eventListeners = new ArrayList<>();
+    private PortfolioHistory history; // optional audit trail: every mutation stamped with a sequence number
 
-    // SIP timing control: we store SIPs here until first CHANGE happens
-    private final Map<AssetType, Integer> pendingSip = new EnumMap<>(AssetType.class);
+    // SIP timing control: we store SIPs here until first CHANGE happens (indexed by asset ordinal)
+    private final int[] pendingSip = new int[TYPES.length];
+    private final boolean[] pendingSipSet = new boolean[TYPES.length];
     private boolean sipActivated = ServiceConstants.INITIAL_SIP_STATE; // becomes true right AFTER first CHANGE
+    private Month lastChangeMonth = null; // projections continue from the month after this one
 
     public PortfolioService(PortfolioRepository repository) {
+        this(repository, null);
+    }
+
+    public PortfolioService(PortfolioRepository repository, AumRegistry aumRegistry) {
+        this(repository, aumRegistry, new ScheduledRebalancePolicy());
+    }
+
+    public PortfolioService(PortfolioRepository repository, AumRegistry aumRegistry, RebalancePolicy rebalancePolicy) {
         this.repository = repository;
+        this.aumRegistry = aumRegistry;
+        this.rebalancePolicy = Objects.requireNonNull(rebalancePolicy, "Rebalance policy cannot be null");
     }
 
     /**
@@ -30,51 +53,231 @@ public class PortfolioService {
      * This fixes the earlier bug where default (60/30/10) ratios were used for rebalance.
      */
     public void allocate(Map<AssetType, Integer> allocations) {
-        Portfolio portfolio = new Portfolio();
+        int[] amounts = new int[TYPES.length];
+        for (AssetType type : TYPES) {
+            amounts[type.ordinal()] = allocations.getOrDefault(type, ServiceConstants.DEFAULT_ALLOCATION_AMOUNT);
+        }
+        allocate(amounts);
+    }
 
-        int total = allocations.values().stream().mapToInt(Integer::intValue).sum();
-        if (total <= ServiceConstants.MINIMUM_TOTAL_ALLOCATION)
-            throw new IllegalArgumentException("Total allocation must be positive");
+    /** Primitive ALLOCATE: amounts indexed by asset ordinal. The array is not retained. */
+    public void allocate(int[] allocations) {
+        int total = requireValidAllocation(allocations);
 
-        for (AssetType type : AssetType.values()) {
-            int amount = allocations.getOrDefault(type, ServiceConstants.DEFAULT_ALLOCATION_AMOUNT);
+        Portfolio portfolio = new Portfolio();
+        for (AssetType type : TYPES) {
+            int amount = allocations[type.ordinal()];
             double ratio = amount / (double) total; // original ratio (e.g., 0.5 / 0.1 / 0.4)
             portfolio.addAsset(new Asset(type, amount, ratio));
         }
 
+        if (aumRegistry != null) {
+            // the replaced portfolio leaves the book; the new one enters it
+            Portfolio previous = repository.get();
+            if (previous != null) previous.setHoldingsListener(null);
+            portfolio.setHoldingsListener(aumRegistry);
+        }
         repository.save(portfolio);
+        stamp(MutationKind.ALLOCATE, null, portfolio);
+        for (PortfolioEventListener listener : eventListeners) listener.onAllocated();
         // reset SIP state for a fresh run
-        pendingSip.clear();
+        Arrays.fill(pendingSipSet, false);
         sipActivated = ServiceConstants.INITIAL_SIP_STATE;
+        lastChangeMonth = null;
+    }
+
+    /** Stamp every later mutation into {@code history}; pass null to stop recording. */
+    public void setHistory(PortfolioHistory history) {
+        this.history = history;
+    }
+
+    /** Subscribe to the mutation stream (allocations and closed months). */
+    public void addEventListener(PortfolioEventListener listener) {
+        eventListeners.add(Objects.requireNonNull(listener, "Event listener cannot be null"));
     }
 
     /** SIP values are recorded but NOT applied to assets until after first CHANGE. */
     public void setSip(Map<AssetType, Integer> sipValues) {
-        pendingSip.clear();
-        pendingSip.putAll(sipValues);
+        for (Integer sip : sipValues.values()) requireValidSip(sip);
+        Arrays.fill(pendingSipSet, false);
+        for (Map.Entry<AssetType, Integer> e : sipValues.entrySet()) {
+            pendingSip[e.getKey().ordinal()] = e.getValue();
+            pendingSipSet[e.getKey().ordinal()] = true;
+        }
         if (sipActivated) applySipToAssets();
+        stampSip();
+    }
+
+    /** Primitive SIP: amounts indexed by asset ordinal. The array is copied, not retained. */
+    public void setSip(int[] sipValues) {
+        requireAssetWidth(sipValues.length);
+        for (int sip : sipValues) requireValidSip(sip);
+        System.arraycopy(sipValues, 0, pendingSip, 0, pendingSip.length);
+        Arrays.fill(pendingSipSet, true);
+        if (sipActivated) applySipToAssets();
+        stampSip();
     }
 
     /** CHANGE month: apply model logic. */
     public void change(Month month, Map<AssetType, Double> roiMap) {
         Portfolio portfolio = ensurePortfolio();
+        for (Double roi : roiMap.values()) requireValidRoi(roi);
 
         // For the first CHANGE call, SIP must not be applied.
         portfolio.applyMonthlyChanges(roiMap);
+        closeMonth(portfolio, month);
+    }
+
+    /** Primitive CHANGE: decimal ROI indexed by asset ordinal. The array is not retained. */
+    public void change(Month month, double[] roi) {
+        requireAssetWidth(roi.length);
+        Portfolio portfolio = ensurePortfolio();
+        for (double rate : roi) requireValidRoi(rate);
+
+        // For the first CHANGE call, SIP must not be applied.
+        portfolio.applyMonthlyChanges(roi);
+        closeMonth(portfolio, month);
+    }
+
+    /**
+     * Applies a run of ops as one unit. Every op is checked against every rule that could make it
+     * throw (widths, signs, ROI floor, allocate before change) before anything is touched, so a bad
+     * op rejects the batch with the portfolio unchanged and no op fails once the batch has started.
+     * Listeners see the batch bracketed by onBatchStart/onBatchEnd and may publish it at once.
+     */
+    public void applyBatch(List<PortfolioOp> ops) {
+        validateBatch(ops);
+        for (PortfolioEventListener listener : eventListeners) listener.onBatchStart();
+        try {
+            for (PortfolioOp op : ops) {
+                switch (op.getKind()) {
+                    case ALLOCATE: allocate(op.amounts()); break;
+                    case SIP: setSip(op.amounts()); break;
+                    case CHANGE: change(op.month(), op.roi()); break;
+                    default: throw new IllegalArgumentException("Unsupported op: " + op.getKind());
+                }
+            }
+        } finally {
+            for (PortfolioEventListener listener : eventListeners) listener.onBatchEnd();
+        }
+    }
+
+    private void validateBatch(List<PortfolioOp> ops) {
+        boolean allocated = repository.get() != null;
+        for (PortfolioOp op : ops) {
+            switch (op.getKind()) {
+                case ALLOCATE:
+                    requireValidAllocation(op.amounts());
+                    allocated = true;
+                    break;
+                case SIP:
+                    requireAssetWidth(op.amounts().length);
+                    for (int sip : op.amounts()) requireValidSip(sip);
+                    break;
+                case CHANGE:
+                    requireAssetWidth(op.roi().length);
+                    if (!allocated) throw new IllegalStateException("Portfolio not allocated");
+                    for (double roi : op.roi()) requireValidRoi(roi);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported op: " + op.getKind());
+            }
+        }
+    }
+
+    /** Snapshot, rebalance and SIP activation shared by both CHANGE flavours. */
+    private void closeMonth(Portfolio portfolio, Month month) {
 
         // Snapshot for this month (post-change, pre-rebalance)
         portfolio.saveMonthlySnapshot(month.name());
+        stamp(MutationKind.CHANGE, month, portfolio);
+        int[] balance = eventListeners.isEmpty() ? null : amountsOf(portfolio);
 
-        // On configured rebalance months, rebalance using each asset's original allocation ratio
-        if (Config.REBALANCE_MONTHS.contains(month)) {
+        // When the policy asks for it, rebalance using each asset's original allocation ratio
+        double drift = rebalancePolicy.usesDrift() ? portfolio.currentDrift() : EntityConstants.NO_DRIFT;
+        boolean rebalanced = rebalancePolicy.shouldRebalance(month, drift);
+        if (rebalanced) {
+            Object trace = FlightRecorder.beginRebalance();
+            if (trace != null && !rebalancePolicy.usesDrift()) drift = portfolio.currentDrift(); // the event reports it
             portfolio.rebalanceToOriginalRatios();
+            if (trace != null) FlightRecorder.endRebalance(trace, month, drift, portfolio.currentDrift());
+            stamp(MutationKind.REBALANCE, month, portfolio);
+        }
+        int[] rebalancedAmounts = (rebalanced && balance != null) ? amountsOf(portfolio) : null;
+        for (int l = 0; l < eventListeners.size(); l++) {
+            boolean last = l == eventListeners.size() - 1; // the last listener takes the arrays, the others get copies
+            eventListeners.get(l).onMonthClosed(month, last ? balance : balance.clone(),
+                    (last || rebalancedAmounts == null) ? rebalancedAmounts : rebalancedAmounts.clone());
         }
 
         // After the first CHANGE, activate SIP by pushing the pending values to assets
         if (!sipActivated) {
             sipActivated = true;
             applySipToAssets();
+            stamp(MutationKind.SIP, month, portfolio);
         }
+        lastChangeMonth = month;
+    }
+
+    /**
+     * Fast-forward projection: runs the CHANGE rules (SIP, ROI with floor, rebalance policy)
+     * for the next {@code months} months on a primitive copy of the portfolio. The stored
+     * portfolio is left untouched.
+     *
+     * Series are month-major and indexed by asset ordinal ({@code month * assetCount + ordinal});
+     * a series covering a single month is reused for every projected month.
+     * A null {@code sipSchedule} keeps the current SIP plan, including the delayed first SIP.
+     *
+     * @return post-change, pre-rebalance balances in the same month-major layout
+     */
+    public int[] project(int months, double[] roiSeries, int[] sipSchedule) {
+        if (months < ServiceConstants.MINIMUM_PROJECTION_MONTHS)
+            throw new IllegalArgumentException("Projection needs a positive number of months");
+        Portfolio portfolio = ensurePortfolio();
+        int width = TYPES.length;
+        Objects.requireNonNull(roiSeries, "ROI series cannot be null");
+        requireSeriesLength(roiSeries.length, months, width, "ROI");
+        if (sipSchedule != null) requireSeriesLength(sipSchedule.length, months, width, "SIP");
+        ProjectionKernel.requireValidRoi(roiSeries);
+
+        double[] amounts = new double[width];
+        double[] ratios = new double[width];
+        double[] currentSip = new double[width];
+        double[] plannedSip = new double[width];
+        readProjectionStart(portfolio, amounts, ratios, currentSip, plannedSip);
+
+        int[] balances = new int[months * width];
+        new ProjectionKernel(rebalancePolicy).run(amounts, ratios, nextProjectedMonth(), months, roiSeries,
+                currentSip, plannedSip, sipSchedule, balances);
+        return balances;
+    }
+
+    /**
+     * GOAL query: the smallest monthly SIP whose projection (same rules as {@link #project}) is worth
+     * at least {@code target} after {@code months} months. The SIP is split like the current SIP plan,
+     * or by the original allocation ratios when there is none, and replaces the plan from the first
+     * projected month (from the second if the first SIP is still waiting for its first CHANGE).
+     *
+     * @return per-asset SIP amounts by asset ordinal, or null when no SIP reaches the target
+     */
+    public int[] seekGoal(long target, int months, double[] roiSeries) {
+        Portfolio portfolio = ensurePortfolio();
+        int width = TYPES.length;
+        Objects.requireNonNull(roiSeries, "ROI series cannot be null");
+        requireSeriesLength(roiSeries.length, months, width, "ROI");
+
+        double[] amounts = new double[width];
+        double[] ratios = new double[width];
+        double[] currentSip = new double[width];
+        double[] plannedSip = new double[width];
+        readProjectionStart(portfolio, amounts, ratios, currentSip, plannedSip);
+        double plannedTotal = 0.0;
+        for (double sip : plannedSip) plannedTotal += sip;
+        double[] weights = new double[width];
+        for (int i = 0; i < width; i++) weights[i] = (plannedTotal > 0.0) ? plannedSip[i] / plannedTotal : ratios[i];
+
+        return new GoalSeeker(rebalancePolicy).minimumSip(amounts, ratios, weights, !sipActivated,
+                nextProjectedMonth(), months, roiSeries, target);
     }
 
     /** BALANCE query */
@@ -82,6 +285,32 @@ public class PortfolioService {
         return ensurePortfolio().getMonthlySnapshot(month.name());
     }
 
+    /** Every recorded month's BALANCE, in calendar order. */
+    public Map<Month, Map<AssetType, Integer>> getMonthlyBalances() {
+        Map<String, Map<AssetType, Integer>> snapshots = ensurePortfolio().getMonthlySnapshots();
+        Map<Month, Map<AssetType, Integer>> balances = new EnumMap<>(Month.class);
+        for (Map.Entry<String, Map<AssetType, Integer>> e : snapshots.entrySet()) {
+            balances.put(Month.fromString(e.getKey()), e.getValue());
+        }
+        return balances;
+    }
+
+    /** Firm-wide AUM per asset type; empty when no registry is attached. */
+    public Map<AssetType, Long> getAssetsUnderManagement() {
+        return (aumRegistry == null) ? Collections.emptyMap() : aumRegistry.snapshot();
+    }
+
+    /** RETURNS query: maintained as months close, so this does not walk the history. */
+    public Returns getReturns() {
+        return ensurePortfolio().getReturns();
+    }
+
+    /** RISK query for the whole portfolio, or for one asset class when {@code type} is set. */
+    public RiskMetrics getRisk(AssetType type) {
+        Portfolio portfolio = ensurePortfolio();
+        return (type == null) ? portfolio.getRisk() : portfolio.getRisk(type);
+    }
+
     /** REBALANCE query */
     public Map<AssetType, Integer> getRebalance() {
         return ensurePortfolio().getLastRebalancedSnapshot();
@@ -94,11 +323,88 @@ public class PortfolioService {
         return p;
     }
 
+    /** Holdings, ratios, this month's SIP and the SIP plan after it, as primitive arrays by ordinal. */
+    private void readProjectionStart(Portfolio portfolio, double[] amounts, double[] ratios,
+                                     double[] currentSip, double[] plannedSip) {
+        for (AssetType type : TYPES) {
+            Asset asset = portfolio.getAsset(type);
+            if (asset == null) continue;
+            int i = type.ordinal();
+            amounts[i] = asset.getAmount();
+            ratios[i] = asset.getAllocationRatio();
+            currentSip[i] = asset.getSipAmount();
+            plannedSip[i] = (sipActivated || !pendingSipSet[i]) ? currentSip[i] : pendingSip[i];
+        }
+    }
+
+    /** Projections continue from the month after the last CHANGE. */
+    private Month nextProjectedMonth() {
+        return (lastChangeMonth == null) ? Month.JANUARY : lastChangeMonth.next();
+    }
+
+    private static int[] amountsOf(Portfolio portfolio) {
+        int[] amounts = new int[TYPES.length];
+        for (AssetType type : TYPES) {
+            Asset asset = portfolio.getAsset(type);
+            if (asset != null) amounts[type.ordinal()] = asset.getAmount();
+        }
+        return amounts;
+    }
+
+    private static void requireSeriesLength(int length, int months, int width, String name) {
+        if (length != width && length != months * width)
+            throw new IllegalArgumentException(name + " series needs " + width + " or " + (months * width) + " values");
+    }
+
     private void applySipToAssets() {
         Portfolio p = ensurePortfolio();
-        for (Map.Entry<AssetType, Integer> e : pendingSip.entrySet()) {
-            Asset a = p.getAsset(e.getKey());
-            if (a != null) a.setSipAmount(e.getValue());
+        for (AssetType type : TYPES) {
+            if (!pendingSipSet[type.ordinal()]) continue;
+            Asset a = p.getAsset(type);
+            if (a != null) a.setSipAmount(pendingSip[type.ordinal()]);
         }
     }
+
+    private void stamp(MutationKind kind, Month month, Portfolio portfolio) {
+        if (history != null) history.record(kind, month, portfolio);
+    }
+
+    /** SIPs are stamped once a portfolio exists; before that they only sit in the pending plan. */
+    private void stampSip() {
+        Portfolio portfolio = repository.get();
+        if (portfolio != null) stamp(MutationKind.SIP, null, portfolio);
+    }
+
+    // Mutations check everything up front: a CHANGE that throws half way, or a SIP pushed to the assets
+    // by the next CHANGE, would leave a half-applied month behind.
+
+    /** @return the allocation total */
+    private static int requireValidAllocation(int[] allocations) {
+        requireAssetWidth(allocations.length);
+        long total = 0;
+        for (int amount : allocations) total += amount;
+        if (total <= ServiceConstants.MINIMUM_TOTAL_ALLOCATION)
+            throw new IllegalArgumentException("Total allocation must be positive");
+        for (int amount : allocations) {
+            if (amount < ServiceConstants.DEFAULT_ALLOCATION_AMOUNT)
+                throw new IllegalArgumentException("Initial amount cannot be negative");
+        }
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Total allocation is too large");
+        return (int) total;
+    }
+
+    private static void requireValidSip(int sip) {
+        if (sip < ServiceConstants.DEFAULT_ALLOCATION_AMOUNT)
+            throw new IllegalArgumentException("SIP amount cannot be negative");
+    }
+
+    private static void requireValidRoi(double roi) {
+        if (roi < PortfolioConstants.MIN_ROI) throw new IllegalArgumentException("ROI < -100% not allowed");
+    }
+
+    private static void requireAssetWidth(int length) {
+        if (length != TYPES.length)
+            throw new IllegalArgumentException("Expected " + TYPES.length + " values, one per asset type");
+    }
 }
\ No newline at end of file
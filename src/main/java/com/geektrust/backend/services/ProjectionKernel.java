@@ -0,0 +1,75 @@
+// -------- services/ProjectionKernel.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.EntityConstants;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.PortfolioConstants;
+import com.geektrust.backend.constants.ServiceConstants;
+
+/**
+ * The CHANGE rules (SIP, ROI with floor, rebalance policy) on primitive arrays, for callers that
+ * simulate many months or many times: PROJECT runs it once, GOAL once per candidate SIP. A run
+ * allocates nothing; the kernel keeps its own scratch, so use one per thread.
+ *
+ * Arrays are indexed by asset ordinal. ROI series are month-major ({@code month * width + ordinal});
+ * a series covering a single month is reused for every month.
+ */
+final class ProjectionKernel {
+
+    static final int WIDTH = AssetType.values().length;
+
+    private final RebalancePolicy rebalancePolicy;
+    private final double[] amounts = new double[WIDTH];
+
+    ProjectionKernel(RebalancePolicy rebalancePolicy) {
+        this.rebalancePolicy = rebalancePolicy;
+    }
+
+    /**
+     * Runs {@code months} months from {@code start} without touching it. Month m invests
+     * {@code sipSchedule}'s row when a schedule is given, else {@code firstSip} in the first month
+     * and {@code plannedSip} after that. When {@code balances} is set, it receives every month's
+     * post-change, pre-rebalance balances in the month-major layout.
+     *
+     * @return total value after the last month's change, before any rebalance
+     */
+    double run(double[] start, double[] ratios, Month first, int months, double[] roiSeries,
+               double[] firstSip, double[] plannedSip, int[] sipSchedule, int[] balances) {
+        System.arraycopy(start, 0, amounts, 0, WIDTH);
+        Month month = first;
+        double total = 0.0;
+        for (int m = 0; m < months; m++) {
+            int row = m * WIDTH;
+            int roiRow = (roiSeries.length == WIDTH) ? 0 : row;
+            int sipRow = (sipSchedule == null || sipSchedule.length == WIDTH) ? 0 : row;
+            total = 0.0;
+            for (int i = 0; i < WIDTH; i++) {
+                double sip = (sipSchedule != null) ? sipSchedule[sipRow + i] : (m == 0 ? firstSip[i] : plannedSip[i]);
+                double amount = Math.floor((amounts[i] + sip) * (EntityConstants.ROI_MULTIPLIER_BASE + roiSeries[roiRow + i]));
+                amounts[i] = (amount < EntityConstants.MINIMUM_FINAL_AMOUNT) ? EntityConstants.MINIMUM_FINAL_AMOUNT : amount;
+                if (balances != null) balances[row + i] = (int) amounts[i];
+                total += amounts[i];
+            }
+            double drift = rebalancePolicy.usesDrift() ? drift(ratios, total) : EntityConstants.NO_DRIFT;
+            if (rebalancePolicy.shouldRebalance(month, drift)) {
+                for (int i = 0; i < WIDTH; i++) amounts[i] = Math.floor(total * ratios[i]);
+            }
+            month = month.next();
+        }
+        return total;
+    }
+
+    static void requireValidRoi(double[] roiSeries) {
+        for (double roi : roiSeries) {
+            if (roi < PortfolioConstants.MIN_ROI) throw new IllegalArgumentException("ROI < -100% not allowed");
+        }
+    }
+
+    private double drift(double[] ratios, double total) {
+        if (total <= ServiceConstants.MINIMUM_TOTAL_ALLOCATION) return EntityConstants.NO_DRIFT;
+        double drift = EntityConstants.NO_DRIFT;
+        for (int i = 0; i < WIDTH; i++) drift = Math.max(drift, Math.abs(amounts[i] / total - ratios[i]));
+        return drift;
+    }
+}
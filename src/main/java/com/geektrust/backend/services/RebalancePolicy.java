@@ -0,0 +1,17 @@
+// -------- services/RebalancePolicy.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Month;
+
+/**
+ * Decides, after a CHANGE, whether the portfolio is rebalanced to its original ratios.
+ * Drift is the largest absolute gap between an asset's current weight and its target ratio (0..1).
+ */
+public interface RebalancePolicy {
+    boolean shouldRebalance(Month month, double drift);
+
+    /** False when {@link #shouldRebalance} ignores drift, so callers can skip computing it every month. */
+    default boolean usesDrift() {
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+// -------- services/ScheduledRebalancePolicy.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Config;
+import com.geektrust.backend.constants.Month;
+
+import java.util.*;
+
+/** Rebalances unconditionally in fixed calendar months (Config.REBALANCE_MONTHS by default). */
+public class ScheduledRebalancePolicy implements RebalancePolicy {
+
+    private final Set<Month> months;
+
+    public ScheduledRebalancePolicy() {
+        this(Config.REBALANCE_MONTHS);
+    }
+
+    public ScheduledRebalancePolicy(Set<Month> months) {
+        this.months = EnumSet.copyOf(Objects.requireNonNull(months, "Rebalance months cannot be null"));
+    }
+
+    @Override
+    public boolean shouldRebalance(Month month, double drift) {
+        return months.contains(month);
+    }
+
+    @Override
+    public boolean usesDrift() {
+        return false;
+    }
+}
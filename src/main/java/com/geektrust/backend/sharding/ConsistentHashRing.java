@@ -0,0 +1,56 @@
+// -------- sharding/ConsistentHashRing.java --------
+package com.geektrust.backend.sharding;
+
+import java.util.*;
+
+/**
+ * Consistent-hash ring: each node owns {@code virtualNodes} points and a key belongs to the first
+ * point at or after its hash (wrapping around). Adding a node only moves the keys that now fall
+ * on its points, roughly 1/N of them, and every moved key moves to the new node.
+ */
+public class ConsistentHashRing<N> {
+
+    private final int virtualNodes;
+    private final TreeMap<Integer, N> ring = new TreeMap<>();
+    private final Set<N> nodes = new LinkedHashSet<>();
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) throw new IllegalArgumentException("Virtual nodes must be positive");
+        this.virtualNodes = virtualNodes;
+    }
+
+    public void add(N node) {
+        if (!nodes.add(node)) throw new IllegalArgumentException("Node already on the ring: " + node);
+        for (int i = 0; i < virtualNodes; i++) ring.put(hash(node + "#" + i), node);
+    }
+
+    public void remove(N node) {
+        if (!nodes.remove(node)) return;
+        ring.values().removeIf(node::equals);
+    }
+
+    public N nodeFor(String key) {
+        if (ring.isEmpty()) throw new IllegalStateException("No nodes on the ring");
+        Map.Entry<Integer, N> owner = ring.ceilingEntry(hash(key));
+        return (owner != null ? owner : ring.firstEntry()).getValue();
+    }
+
+    public Set<N> nodes() {
+        return Collections.unmodifiableSet(nodes);
+    }
+
+    /** FNV-1a over the UTF-16 code units, finished with the murmur3 mixer to spread short keys. */
+    static int hash(String key) {
+        int h = 0x811c9dc5;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
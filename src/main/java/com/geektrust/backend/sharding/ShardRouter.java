@@ -0,0 +1,369 @@
+// -------- sharding/ShardRouter.java --------
+package com.geektrust.backend.sharding;
+
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.constants.ShardConstants;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Front door of a sharded book. Clients submit jobs exactly as to a {@code CommandDaemon}
+ * (stream lines, half-close, read the output), but every line is {@code "<portfolioId> <command line>"}.
+ *
+ * The owning {@link ShardWorker} is chosen on a {@link ConsistentHashRing} of worker ports. Lines are
+ * pipelined to their shards and the replies are copied back in input order by a reply pump. Two lines
+ * act as barriers, because they need all earlier replies first:
+ * <ul>
+ *   <li>{@code AUM} merges every shard's {@code @AUM} into one book-wide line;</li>
+ *   <li>{@code @ADD_SHARD <port>} puts a worker on the ring and moves the portfolios it now owns.</li>
+ * </ul>
+ * A portfolio moves by replaying its mutation log ({@code @DUMP}) on the new shard and then dropping it
+ * from the old one. Consistent hashing keeps that to about 1/N of the book. Every moving portfolio is
+ * copied before any is dropped, so a shard that fails mid-copy leaves the ring and the book as they
+ * were. An {@code @ADD_SHARD} that cannot be carried out is answered with the reason, in its place in
+ * the output. Clients cannot send other {@code @} requests; those are only for the router. Topology
+ * changes take the write lock, so they wait for running jobs.
+ */
+public class ShardRouter implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final ConsistentHashRing<Integer> ring = new ConsistentHashRing<>(ShardConstants.VIRTUAL_NODES);
+    private final ReentrantReadWriteLock topology = new ReentrantReadWriteLock();
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-router");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardRouter(int port, Collection<Integer> shardPorts) throws IOException {
+        if (shardPorts.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+        for (int shardPort : shardPorts) ring.add(shardPort);
+        this.serverSocket = new ServerSocket(port, DaemonConstants.CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Accepts jobs until {@link #close()} is called. */
+    public void serve() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                workers.execute(() -> runJob(socket));
+            }
+        } catch (SocketException e) {
+            if (!serverSocket.isClosed()) throw e; // otherwise: closed on purpose
+        }
+    }
+
+    /** Serves on a background daemon thread and returns immediately. */
+    public ShardRouter start() {
+        Thread acceptor = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+        }, "shard-router-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    /** Shard port that owns {@code portfolioId} under the current topology. */
+    public int shardFor(String portfolioId) {
+        topology.readLock().lock();
+        try {
+            return ring.nodeFor(portfolioId);
+        } finally {
+            topology.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a worker to the ring and migrates the portfolios that now hash to it. The worker must be
+     * reachable. If copying to it fails, it is taken off the ring again and the sources keep every
+     * portfolio; the originals are only dropped once all copies are in place.
+     * @return number of portfolios moved
+     */
+    public int addShard(int shardPort) throws IOException {
+        topology.writeLock().lock();
+        try {
+            if (ring.nodes().contains(shardPort)) throw new IllegalArgumentException("Shard already on the ring: " + shardPort);
+            exchange(shardPort, Collections.emptyList()); // reachable before it owns anything
+            Set<Integer> existing = new LinkedHashSet<>(ring.nodes());
+            Map<String, Integer> moving = new LinkedHashMap<>(); // portfolio id -> source shard
+            ring.add(shardPort);
+            try {
+                for (int source : existing) {
+                    for (String id : exchange(source, Collections.singletonList(ShardConstants.LIST_PORTFOLIOS))) {
+                        if (ring.nodeFor(id) == shardPort) moving.put(id, source);
+                    }
+                }
+                for (Map.Entry<String, Integer> move : moving.entrySet()) copy(move.getKey(), move.getValue(), shardPort);
+            } catch (IOException | RuntimeException e) {
+                ring.remove(shardPort);
+                discardCopies(moving.keySet(), shardPort, e);
+                throw e;
+            }
+            for (Map.Entry<String, Integer> move : moving.entrySet()) {
+                exchange(move.getValue(), Collections.singletonList(ShardConstants.DROP_PORTFOLIO + ShardConstants.TOKEN_DELIMITER + move.getKey()));
+            }
+            return moving.size();
+        } finally {
+            topology.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        workers.shutdownNow();
+    }
+
+    // --- jobs ---
+
+    private void runJob(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), ShardConstants.IO_BUFFER_SIZE);
+             PrintStream out = new PrintStream(
+                     new BufferedOutputStream(s.getOutputStream(), ShardConstants.IO_BUFFER_SIZE), false, "UTF-8")) {
+            Forwarder forwarder = null;
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) continue;
+                    String first = line.split(ShardConstants.TOKEN_DELIMITER)[ShardConstants.PORTFOLIO_ID_INDEX];
+                    if (isBarrier(first)) {
+                        if (forwarder != null) forwarder.finish();
+                        forwarder = null;
+                        runBarrier(line, out);
+                        continue;
+                    }
+                    if (forwarder == null) forwarder = new Forwarder(out);
+                    if (first.startsWith(ShardConstants.ADMIN_PREFIX)) { // shard admin requests are the router's own
+                        forwarder.reply("Unknown router request: " + first);
+                        continue;
+                    }
+                    forwarder.forward(ring.nodeFor(first), line);
+                    if (!reader.ready()) forwarder.flush();
+                }
+            } finally {
+                if (forwarder != null) forwarder.finish();
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isBarrier(String first) {
+        return ShardConstants.AUM_COMMAND.equalsIgnoreCase(first) || ShardConstants.ADD_SHARD.equalsIgnoreCase(first);
+    }
+
+    private void runBarrier(String line, PrintStream out) throws IOException {
+        String[] tokens = line.split(ShardConstants.TOKEN_DELIMITER);
+        if (ShardConstants.ADD_SHARD.equalsIgnoreCase(tokens[ShardConstants.PORTFOLIO_ID_INDEX])) {
+            out.println(runAddShard(tokens));
+            return;
+        }
+        long[] totals = null;
+        topology.readLock().lock();
+        try {
+            for (int shard : ring.nodes()) {
+                String[] shardTotals = exchange(shard, Collections.singletonList(ShardConstants.SHARD_AUM))
+                        .get(0).split(CommandConstants.OUTPUT_DELIMITER);
+                if (totals == null) totals = new long[shardTotals.length];
+                for (int i = 0; i < totals.length; i++) totals[i] += Long.parseLong(shardTotals[i]);
+            }
+        } finally {
+            topology.readLock().unlock();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (long total : totals) sb.append(total).append(CommandConstants.OUTPUT_DELIMITER);
+        out.println(sb.toString().trim());
+    }
+
+    /** The number of portfolios moved, or why the shard could not be added. */
+    private String runAddShard(String[] tokens) {
+        if (tokens.length <= ShardConstants.ADMIN_ARGUMENT_INDEX) return "Cannot add shard: no port given";
+        String port = tokens[ShardConstants.ADMIN_ARGUMENT_INDEX];
+        try {
+            return String.valueOf(addShard(Integer.parseInt(port)));
+        } catch (NumberFormatException e) {
+            return "Cannot add shard " + port + ": not a port";
+        } catch (IOException | IllegalArgumentException e) {
+            return "Cannot add shard " + port + ": " + e.getMessage();
+        }
+    }
+
+    // --- migration ---
+
+    private void copy(String id, int source, int target) throws IOException {
+        List<String> replay = new ArrayList<>();
+        for (String mutation : exchange(source, Collections.singletonList(ShardConstants.DUMP_PORTFOLIO + ShardConstants.TOKEN_DELIMITER + id))) {
+            replay.add(id + ShardConstants.TOKEN_DELIMITER + mutation);
+        }
+        exchange(target, replay); // replies are empty: the log holds only commands that applied without error
+    }
+
+    /** Best effort: the target is off the ring, so copies left behind are never routed to. */
+    private void discardCopies(Collection<String> ids, int target, Exception failure) {
+        List<String> drops = new ArrayList<>();
+        for (String id : ids) drops.add(ShardConstants.DROP_PORTFOLIO + ShardConstants.TOKEN_DELIMITER + id);
+        try {
+            exchange(target, drops);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /** Sends {@code requests} on a fresh connection and returns every reply line, END markers removed. */
+    private List<String> exchange(int shard, List<String> requests) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), shard);
+             BufferedReader replies = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            // write from another thread so neither side can block on a full socket buffer
+            Future<?> sender = workers.submit(() -> {
+                PrintStream requestStream = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false, "UTF-8");
+                for (String request : requests) requestStream.println(request);
+                requestStream.flush();
+                socket.shutdownOutput();
+                return null;
+            });
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = replies.readLine()) != null) {
+                if (!ShardConstants.END_OF_REPLY.equals(line)) lines.add(line);
+            }
+            sender.get();
+            return lines;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while talking to shard " + shard);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not send to shard " + shard, e.getCause());
+        }
+    }
+
+    /**
+     * Pipelines one job's lines to their shards. Each shard link drains its replies on its own thread,
+     * so no worker ever blocks on a full socket. The reply pump copies the replies back in the order
+     * the lines arrived. Holds the topology read lock from construction until {@link #finish()}.
+     */
+    private final class Forwarder {
+        private final Map<Integer, ShardLink> links = new HashMap<>();
+        private final BlockingQueue<ShardLink> order = new LinkedBlockingQueue<>();
+        private final ShardLink endOfJob = new ShardLink();
+        private final Future<?> pump;
+
+        private Forwarder(PrintStream out) {
+            topology.readLock().lock();
+            pump = workers.submit(() -> {
+                ShardLink link;
+                while ((link = order.take()) != endOfJob) {
+                    for (String reply : link.nextReply()) out.println(reply);
+                }
+                return null;
+            });
+        }
+
+        private void forward(int shard, String line) throws IOException {
+            ShardLink link = links.get(shard);
+            if (link == null) {
+                link = new ShardLink(shard);
+                links.put(shard, link);
+                workers.execute(link::drainReplies);
+            }
+            link.requests.println(line);
+            order.add(link);
+        }
+
+        /** Answers a line without a shard, in its place in the reply order. */
+        private void reply(String line) {
+            order.add(new ShardLink(Collections.singletonList(line)));
+        }
+
+        private void flush() {
+            for (ShardLink link : links.values()) link.requests.flush();
+        }
+
+        private void finish() throws IOException, InterruptedException {
+            try {
+                flush();
+                order.add(endOfJob);
+                pump.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Shard reply failed", e.getCause());
+            } finally {
+                for (ShardLink link : links.values()) link.close();
+                topology.readLock().unlock();
+            }
+        }
+    }
+
+    private static final class ShardLink implements Closeable {
+        private static final List<String> CONNECTION_LOST = Collections.singletonList("Shard connection lost");
+
+        private final Socket socket;
+        private final PrintStream requests;
+        private final BufferedReader replies;
+        private final BlockingQueue<List<String>> received = new LinkedBlockingQueue<>();
+
+        private ShardLink() { // end-of-job marker
+            socket = null;
+            requests = null;
+            replies = null;
+        }
+
+        private ShardLink(List<String> reply) { // a reply the router makes itself
+            this();
+            received.add(reply);
+        }
+
+        private ShardLink(int shard) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), shard);
+            requests = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), ShardConstants.IO_BUFFER_SIZE), false, "UTF-8");
+            replies = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), ShardConstants.IO_BUFFER_SIZE);
+        }
+
+        /** Reads whole replies off the socket as they arrive. */
+        private void drainReplies() {
+            List<String> reply = new ArrayList<>();
+            try {
+                String line;
+                while ((line = replies.readLine()) != null) {
+                    if (!ShardConstants.END_OF_REPLY.equals(line)) {
+                        reply.add(line);
+                        continue;
+                    }
+                    received.add(reply);
+                    reply = new ArrayList<>();
+                }
+            } catch (IOException e) {
+                // closed after the job, or the shard died; a waiting pump is released below
+            }
+            received.add(CONNECTION_LOST);
+        }
+
+        private List<String> nextReply() throws InterruptedException {
+            List<String> reply = received.take();
+            if (reply == CONNECTION_LOST) received.add(reply); // every later request on this link fails too
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
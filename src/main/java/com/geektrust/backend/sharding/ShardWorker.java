@@ -0,0 +1,189 @@
+// -------- sharding/ShardWorker.java --------
+package com.geektrust.backend.sharding;
+
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.CommandConstants;
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.constants.SchedulingConstants;
+import com.geektrust.backend.constants.ShardConstants;
+import com.geektrust.backend.exceptions.NoSuchCommandException;
+import com.geektrust.backend.replication.ReplicationLog;
+import com.geektrust.backend.scheduling.Lane;
+import com.geektrust.backend.scheduling.LaneScheduler;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * One shard of the book: hosts any number of named portfolios, each a full {@link ApplicationConfig}
+ * session, and serves {@link ShardRouter} connections on the loopback interface.
+ *
+ * Requests are lines of {@code "<portfolioId> <command line>"}, or admin lines starting with '@'.
+ * Each reply is the command's output followed by a {@link ShardConstants#END_OF_REPLY} line, so the
+ * router can pipeline many requests on one connection. Every portfolio keeps its applied mutations in
+ * a {@link ReplicationLog}; {@code @DUMP} returns them so the portfolio can be rebuilt on another shard.
+ * Each portfolio queues the commands sent to it from all connections in its own {@link LaneScheduler}
+ * lanes, so an advisor's BALANCE runs between two lines of a revaluation batch streaming in on another
+ * connection instead of after the whole batch. A shared scheduler caps how many commands run at once.
+ */
+public class ShardWorker implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final ConcurrentMap<String, HostedPortfolio> portfolios = new ConcurrentHashMap<>();
+    private final LaneScheduler scheduler = new LaneScheduler();
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardWorker(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, DaemonConstants.CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Accepts router connections until {@link #close()} is called. */
+    public void serve() throws IOException {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serveConnection(socket));
+            }
+        } catch (SocketException e) {
+            if (!serverSocket.isClosed()) throw e; // otherwise: closed on purpose
+        }
+    }
+
+    /** Serves on a background daemon thread and returns immediately. */
+    public ShardWorker start() {
+        Thread acceptor = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+        }, "shard-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    /** Number of portfolios currently hosted here. */
+    public int size() {
+        return portfolios.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void serveConnection(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader requests = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), ShardConstants.IO_BUFFER_SIZE);
+             PrintStream replies = new PrintStream(
+                     new BufferedOutputStream(s.getOutputStream(), ShardConstants.IO_BUFFER_SIZE), false, "UTF-8")) {
+            String line;
+            while ((line = requests.readLine()) != null) {
+                List<String> tokens = Arrays.asList(line.split(ShardConstants.TOKEN_DELIMITER));
+                handle(tokens, replies);
+                replies.println(ShardConstants.END_OF_REPLY);
+                if (!requests.ready()) replies.flush(); // pipelined requests share one flush
+            }
+            replies.flush();
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+
+    private void handle(List<String> tokens, PrintStream out) {
+        String first = tokens.get(ShardConstants.PORTFOLIO_ID_INDEX);
+        if (!first.startsWith(ShardConstants.ADMIN_PREFIX)) {
+            portfolios.computeIfAbsent(first, id -> new HostedPortfolio(id, scheduler))
+                    .execute(tokens.subList(ShardConstants.PORTFOLIO_ID_INDEX + 1, tokens.size()), out);
+            return;
+        }
+        switch (first) {
+            case ShardConstants.LIST_PORTFOLIOS:
+                for (String id : portfolios.keySet()) out.println(id);
+                break;
+            case ShardConstants.DUMP_PORTFOLIO:
+                HostedPortfolio dumped = portfolios.get(tokens.get(ShardConstants.ADMIN_ARGUMENT_INDEX));
+                if (dumped != null) dumped.dump(out);
+                break;
+            case ShardConstants.DROP_PORTFOLIO:
+                portfolios.remove(tokens.get(ShardConstants.ADMIN_ARGUMENT_INDEX));
+                break;
+            case ShardConstants.SHARD_AUM:
+                printAum(out);
+                break;
+            default:
+                out.println("Unknown shard request: " + first);
+        }
+    }
+
+    /** Sum of every hosted portfolio's holdings, in AssetType order. */
+    private void printAum(PrintStream out) {
+        long[] totals = new long[AssetType.values().length];
+        for (HostedPortfolio portfolio : portfolios.values()) {
+            Map<AssetType, Long> aum = portfolio.session.getAumRegistry().snapshot();
+            for (AssetType type : AssetType.values()) totals[type.ordinal()] += aum.get(type);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (long total : totals) sb.append(total).append(CommandConstants.OUTPUT_DELIMITER);
+        out.println(sb.toString().trim());
+    }
+
+    /**
+     * A portfolio session whose output is captured per request and whose mutations are logged. Commands
+     * take turns through {@code turns}: queries waiting on the portfolio go before queued batch lines.
+     */
+    private static final class HostedPortfolio {
+        private final LaneScheduler turns = new LaneScheduler(SchedulingConstants.PORTFOLIO_SLOTS,
+                SchedulingConstants.INTERACTIVE_WEIGHT, SchedulingConstants.BULK_WEIGHT);
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final PrintStream output;
+        private final ReplicationLog log = new ReplicationLog();
+        private final ApplicationConfig session;
+
+        private HostedPortfolio(String id, LaneScheduler scheduler) {
+            try {
+                output = new PrintStream(buffer, false, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+            session = new ApplicationConfig(output, log);
+            session.getCommandInvoker().setScheduler(scheduler);
+            session.getCommandInvoker().setPortfolioId(id);
+        }
+
+        private void execute(List<String> tokens, PrintStream out) {
+            if (tokens.isEmpty()) return;
+            turns.run(Lane.of(tokens.get(0)), () -> {
+                try {
+                    session.getCommandInvoker().executeCommand(tokens.get(0), tokens);
+                } catch (NoSuchCommandException e) {
+                    output.println(e);
+                }
+                output.flush();
+                out.write(buffer.toByteArray(), 0, buffer.size());
+                buffer.reset();
+            });
+        }
+
+        private void dump(PrintStream out) {
+            turns.run(Lane.BULK, () -> {
+                for (long sequence = 1; sequence <= log.head(); sequence++) out.println(log.get(sequence));
+            });
+        }
+    }
+}
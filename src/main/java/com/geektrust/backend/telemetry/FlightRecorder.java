@@ -0,0 +1,73 @@
+// -------- telemetry/FlightRecorder.java --------
+package com.geektrust.backend.telemetry;
+
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.TelemetryConstants;
+
+/**
+ * Custom Java Flight Recorder events for the command lifecycle and portfolio mutations, so GC and
+ * CPU hot spots in a recording can be lined up with the commands that caused them.
+ *
+ * Off by default. With {@code -Dmymoney.jfr=true} on a JVM that ships JFR, three event types are
+ * registered: {@code mymoney.Command} (command, portfolio, time spent dispatching including any lane
+ * wait, failure flag; the event spans dispatch and execution), {@code mymoney.Rebalance} (month,
+ * drift before and after) and {@code mymoney.Snapshot} (month, encoded snapshot bytes). Call sites
+ * test {@link #ENABLED} first; it is a static final, so the JIT removes the disabled path.
+ */
+public final class FlightRecorder {
+
+    public static final boolean ENABLED;
+    private static final JfrEventType COMMAND;
+    private static final JfrEventType REBALANCE;
+    private static final JfrEventType SNAPSHOT;
+
+    static {
+        JfrEventType command = null, rebalance = null, snapshot = null;
+        if (Boolean.getBoolean(TelemetryConstants.JFR_PROPERTY) && JfrEventType.AVAILABLE) {
+            try {
+                command = JfrEventType.define(TelemetryConstants.COMMAND_EVENT, "Command", TelemetryConstants.CATEGORY,
+                        "command", String.class, "portfolio", String.class, "dispatchNanos", long.class,
+                        "failed", boolean.class);
+                rebalance = JfrEventType.define(TelemetryConstants.REBALANCE_EVENT, "Rebalance", TelemetryConstants.CATEGORY,
+                        "month", String.class, "driftBefore", double.class, "driftAfter", double.class);
+                snapshot = JfrEventType.define(TelemetryConstants.SNAPSHOT_EVENT, "Monthly Snapshot", TelemetryConstants.CATEGORY,
+                        "month", String.class, "encodedBytes", int.class);
+            } catch (ReflectiveOperationException e) {
+                command = null; // leave tracing off rather than fail start-up
+            }
+        }
+        ENABLED = command != null;
+        COMMAND = command;
+        REBALANCE = rebalance;
+        SNAPSHOT = snapshot;
+    }
+
+    private FlightRecorder() {}
+
+    /** Starts a command event; null when tracing is off. */
+    public static Object beginCommand() {
+        return ENABLED ? COMMAND.begin() : null;
+    }
+
+    public static void endCommand(Object event, String command, String portfolio, long dispatchNanos, boolean failed) {
+        if (event != null) JfrEventType.commit(event, command, portfolio, dispatchNanos, failed);
+    }
+
+    /** Starts a rebalance event; null when tracing is off. */
+    public static Object beginRebalance() {
+        return ENABLED ? REBALANCE.begin() : null;
+    }
+
+    public static void endRebalance(Object event, Month month, double driftBefore, double driftAfter) {
+        if (event != null) JfrEventType.commit(event, month.name(), driftBefore, driftAfter);
+    }
+
+    /** Starts a snapshot event; null when tracing is off. */
+    public static Object beginSnapshot() {
+        return ENABLED ? SNAPSHOT.begin() : null;
+    }
+
+    public static void endSnapshot(Object event, String month, int encodedBytes) {
+        if (event != null) JfrEventType.commit(event, month, encodedBytes);
+    }
+}
@@ -0,0 +1,115 @@
+// -------- telemetry/JfrEventType.java --------
+package com.geektrust.backend.telemetry;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One custom JFR event type, defined at runtime through {@code jdk.jfr.EventFactory}. The build
+ * targets Java 8, which has no {@code jdk.jfr} API to compile against, so everything goes through
+ * reflection; on a JVM without JFR {@link #AVAILABLE} is false and no type can be defined.
+ */
+final class JfrEventType {
+
+    static final boolean AVAILABLE;
+    private static final Constructor<?> NEW_ANNOTATION;
+    private static final Constructor<?> NEW_FIELD;
+    private static final Method CREATE;
+    private static final Method NEW_EVENT;
+    private static final Method SET;
+    private static final Method BEGIN;
+    private static final Method COMMIT;
+    private static final Class<?> NAME, LABEL, CATEGORY, TIMESPAN;
+
+    static {
+        Class<?> element = null, name = null, label = null, category = null, timespan = null;
+        Constructor<?> newAnnotation = null, newField = null;
+        Method create = null, newEvent = null, set = null, begin = null, commit = null;
+        try {
+            element = Class.forName("jdk.jfr.AnnotationElement");
+            name = Class.forName("jdk.jfr.Name");
+            label = Class.forName("jdk.jfr.Label");
+            category = Class.forName("jdk.jfr.Category");
+            timespan = Class.forName("jdk.jfr.Timespan");
+            Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+            newAnnotation = element.getConstructor(Class.class, Object.class);
+            newField = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+            create = factory.getMethod("create", List.class, List.class);
+            newEvent = factory.getMethod("newEvent");
+            set = event.getMethod("set", int.class, Object.class);
+            begin = event.getMethod("begin");
+            commit = event.getMethod("commit");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            element = null; // Java 8 without the JFR API backport
+        }
+        AVAILABLE = element != null;
+        NAME = name;
+        LABEL = label;
+        CATEGORY = category;
+        TIMESPAN = timespan;
+        NEW_ANNOTATION = newAnnotation;
+        NEW_FIELD = newField;
+        CREATE = create;
+        NEW_EVENT = newEvent;
+        SET = set;
+        BEGIN = begin;
+        COMMIT = commit;
+    }
+
+    private final Object factory;
+
+    private JfrEventType(Object factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Defines and registers an event type. {@code fields} alternates field name and type; a field
+     * whose name ends in "Nanos" is shown as a duration.
+     */
+    static JfrEventType define(String name, String label, String category, Object... fields)
+            throws ReflectiveOperationException {
+        if (!AVAILABLE) throw new IllegalStateException("JFR is not available on this JVM");
+        List<Object> annotations = Arrays.asList(
+                annotation(NAME, name), annotation(LABEL, label), annotation(CATEGORY, new String[]{category}));
+        List<Object> descriptors = new ArrayList<>();
+        for (int i = 0; i < fields.length; i += 2) {
+            String field = (String) fields[i];
+            List<Object> fieldAnnotations = field.endsWith("Nanos")
+                    ? Collections.singletonList(annotation(TIMESPAN, "NANOSECONDS"))
+                    : Collections.emptyList();
+            descriptors.add(NEW_FIELD.newInstance(fields[i + 1], field, fieldAnnotations));
+        }
+        return new JfrEventType(CREATE.invoke(null, annotations, descriptors));
+    }
+
+    /** A new instance of this type with its clock started. */
+    Object begin() {
+        try {
+            Object event = NEW_EVENT.invoke(factory);
+            BEGIN.invoke(event);
+            return event;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Sets the fields in declaration order and commits; JFR drops it when the type is not being recorded. */
+    static void commit(Object event, Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) SET.invoke(event, i, values[i]);
+            COMMIT.invoke(event);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object annotation(Class<?> type, Object value) throws ReflectiveOperationException {
+        return NEW_ANNOTATION.newInstance(type.asSubclass(Annotation.class), value);
+    }
+}
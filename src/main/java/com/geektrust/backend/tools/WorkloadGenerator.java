@@ -0,0 +1,186 @@
+// -------- tools/WorkloadGenerator.java --------
+package com.geektrust.backend.tools;
+
+import com.geektrust.backend.App;
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.GeneratorConstants;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.exceptions.NoSuchCommandException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Generates realistic MyMoney command streams for load and correctness testing.
+ *
+ * Each portfolio is one session: ALLOCATE, SIP, then one CHANGE per month with BALANCE,
+ * REBALANCE and SIP updates mixed in at the configured rates. Malformed lines use known
+ * commands with bad arguments, so {@code App.run} reports them and keeps going.
+ * With {@code --reference}, the generated file is also run through the engine and its output
+ * saved, giving a golden file for later comparisons.
+ *
+ * <pre>
+ * java -cp geektrust.jar com.geektrust.backend.tools.WorkloadGenerator --output load.txt
+ *      [--reference load.expected] [--seed 42] [--portfolios 1000] [--months 120]
+ *      [--query-rate 0.3] [--rebalance-rate 0.05] [--sip-change-rate 0.02] [--malformed-rate 0]
+ * </pre>
+ */
+public class WorkloadGenerator {
+
+    private static final String[] MALFORMED = {
+            "CHANGE 1.00%", "SIP 100 abc 100", "BALANCE SMARCH", "ALLOCATE 0 0 0", "CHANGE x% 1.00% 1.00% JULY"
+    };
+
+    private final Random random;
+    private final int portfolios;
+    private final int months;
+    private final double queryRate;
+    private final double rebalanceRate;
+    private final double sipChangeRate;
+    private final double malformedRate;
+    private final StringBuilder line = new StringBuilder();
+
+    public WorkloadGenerator(long seed, int portfolios, int months, double queryRate,
+                             double rebalanceRate, double sipChangeRate, double malformedRate) {
+        this.random = new Random(seed);
+        this.portfolios = portfolios;
+        this.months = months;
+        this.queryRate = queryRate;
+        this.rebalanceRate = rebalanceRate;
+        this.sipChangeRate = sipChangeRate;
+        this.malformedRate = malformedRate;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        String output = options.get(GeneratorConstants.OUTPUT);
+        if (output == null) throw new IllegalArgumentException("--output is required");
+
+        WorkloadGenerator generator = new WorkloadGenerator(
+                longOption(options, GeneratorConstants.SEED, GeneratorConstants.DEFAULT_SEED),
+                (int) longOption(options, GeneratorConstants.PORTFOLIOS, GeneratorConstants.DEFAULT_PORTFOLIOS),
+                (int) longOption(options, GeneratorConstants.MONTHS, GeneratorConstants.DEFAULT_MONTHS),
+                doubleOption(options, GeneratorConstants.QUERY_RATE, GeneratorConstants.DEFAULT_QUERY_RATE),
+                doubleOption(options, GeneratorConstants.REBALANCE_RATE, GeneratorConstants.DEFAULT_REBALANCE_RATE),
+                doubleOption(options, GeneratorConstants.SIP_CHANGE_RATE, GeneratorConstants.DEFAULT_SIP_CHANGE_RATE),
+                doubleOption(options, GeneratorConstants.MALFORMED_RATE, GeneratorConstants.DEFAULT_MALFORMED_RATE));
+
+        long start = System.nanoTime();
+        long lines;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(output), StandardCharsets.UTF_8), GeneratorConstants.WRITE_BUFFER_SIZE)) {
+            lines = generator.generate(writer);
+        }
+        report("generated", lines, start);
+
+        String reference = options.get(GeneratorConstants.REFERENCE);
+        if (reference != null) {
+            start = System.nanoTime();
+            writeReference(Paths.get(output), Paths.get(reference));
+            report("replayed", lines, start);
+        }
+    }
+
+    /** Writes the whole stream; returns the number of lines written. */
+    public long generate(Writer writer) throws IOException {
+        long lines = 0;
+        for (int p = 0; p < portfolios; p++) {
+            lines += emit(writer, amounts("ALLOCATE", GeneratorConstants.MIN_ALLOCATION, GeneratorConstants.MAX_ALLOCATION));
+            lines += emit(writer, amounts("SIP", 0, GeneratorConstants.MAX_SIP));
+
+            Month month = Month.JANUARY;
+            List<Month> recorded = new ArrayList<>();
+            for (int m = 0; m < months; m++) {
+                if (m > 0 && chance(sipChangeRate))
+                    lines += emit(writer, amounts("SIP", 0, GeneratorConstants.MAX_SIP));
+                lines += emit(writer, change(month));
+                if (!recorded.contains(month)) recorded.add(month);
+                if (chance(queryRate))
+                    lines += emit(writer, "BALANCE " + recorded.get(random.nextInt(recorded.size())).name());
+                if (chance(rebalanceRate)) lines += emit(writer, "REBALANCE");
+                if (chance(malformedRate)) lines += emit(writer, MALFORMED[random.nextInt(MALFORMED.length)]);
+                month = month.next();
+            }
+        }
+        return lines;
+    }
+
+    /** Runs the generated stream through the engine and stores what it prints. */
+    public static void writeReference(Path input, Path reference) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(reference),
+                     GeneratorConstants.WRITE_BUFFER_SIZE), false, "UTF-8")) {
+            App.process(reader, new ApplicationConfig(out).getCommandInvoker());
+        } catch (NoSuchCommandException e) {
+            throw new IllegalStateException("Generator produced an unknown command", e);
+        }
+    }
+
+    private String amounts(String command, int min, int max) {
+        line.setLength(0);
+        line.append(command);
+        for (int i = 0; i < AssetType.values().length; i++) {
+            int amount = min + random.nextInt(max - min + 1);
+            line.append(' ').append(amount - amount % GeneratorConstants.AMOUNT_ROUNDING);
+        }
+        return line.toString();
+    }
+
+    private String change(Month month) {
+        line.setLength(0);
+        line.append("CHANGE");
+        for (AssetType type : AssetType.values()) {
+            int i = type.ordinal();
+            int bp = (int) Math.round(GeneratorConstants.ROI_MEAN_BP[i] + random.nextGaussian() * GeneratorConstants.ROI_STDDEV_BP[i]);
+            line.append(' ');
+            appendPercent(Math.max(GeneratorConstants.MIN_ROI_BP, bp));
+        }
+        return line.append(' ').append(month.name()).toString();
+    }
+
+    /** Basis points as a two-decimal percentage, e.g. -125 -> "-1.25%", without String.format. */
+    private void appendPercent(int bp) {
+        if (bp < 0) line.append('-');
+        int abs = Math.abs(bp);
+        int fraction = abs % GeneratorConstants.BASIS_POINTS_PER_PERCENT;
+        line.append(abs / GeneratorConstants.BASIS_POINTS_PER_PERCENT).append('.');
+        if (fraction < 10) line.append('0');
+        line.append(fraction).append('%');
+    }
+
+    private boolean chance(double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private static int emit(Writer writer, String text) throws IOException {
+        writer.write(text);
+        writer.write('\n');
+        return 1;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith(GeneratorConstants.OPTION_PREFIX))
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            options.put(args[i].substring(GeneratorConstants.OPTION_PREFIX.length()), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static long longOption(Map<String, String> options, String name, long fallback) {
+        return options.containsKey(name) ? Long.parseLong(options.get(name)) : fallback;
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double fallback) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : fallback;
+    }
+
+    private static void report(String what, long lines, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / GeneratorConstants.NANOS_PER_SECOND;
+        System.err.printf("%s %d lines in %.2fs (%.0f lines/s)%n", what, lines, seconds, lines / seconds);
+    }
+}
@@ -0,0 +1,57 @@
+// -------- test/ExportCommandTest.java --------
+package com.geektrust.backend.commands;
+
+import com.geektrust.backend.constants.ExportConstants;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.repositories.InMemoryPortfolioRepository;
+import com.geektrust.backend.services.PortfolioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+public class ExportCommandTest {
+
+    private Path root;
+    private Path exportDirectory;
+    private ExportCommand export;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("export-command");
+        exportDirectory = root.resolve("exports");
+        PortfolioService service = new PortfolioService(new InMemoryPortfolioRepository());
+        service.allocate(new int[] {6000, 3000, 1000});
+        service.change(Month.JANUARY, new double[] {0.10, 0.0, 0.0});
+        export = new ExportCommand(service, exportDirectory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        Files.walk(root).forEach(paths::add);
+        Collections.reverse(paths);
+        for (Path path : paths) Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testExport_WritesUnderTheExportDirectory() {
+        export.execute(Arrays.asList("EXPORT", "daily/book"));
+
+        assertTrue(Files.exists(exportDirectory.resolve("daily/book" + ExportConstants.CSV_SUFFIX)));
+        assertTrue(Files.exists(exportDirectory.resolve("daily/book" + ExportConstants.COLUMNAR_SUFFIX)));
+    }
+
+    @Test
+    void testExport_RejectsPathsLeavingTheExportDirectory() {
+        String outside = root.resolve("stolen").toAbsolutePath().toString();
+        for (String prefix : Arrays.asList(outside, "../stolen", "daily/../../stolen", ".", "")) {
+            assertThrows(IllegalArgumentException.class, () -> export.execute(Arrays.asList("EXPORT", prefix)), prefix);
+        }
+        assertFalse(Files.exists(root.resolve("stolen" + ExportConstants.CSV_SUFFIX)));
+        assertFalse(Files.exists(exportDirectory));
+    }
+}
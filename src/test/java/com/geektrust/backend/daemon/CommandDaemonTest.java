@@ -0,0 +1,64 @@
+// -------- test/CommandDaemonTest.java --------
+package com.geektrust.backend.daemon;
+
+import com.geektrust.backend.constants.DaemonConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class CommandDaemonTest {
+
+    private CommandDaemon daemon;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        daemon = new CommandDaemon(DaemonConstants.EPHEMERAL_PORT).start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        daemon.close();
+    }
+
+    @Test
+    void testSubmit_ReturnsSameOutputAsFileRun() throws IOException {
+        String expected = "15937 14552 6187\n" +
+                "23292 16055 7690\n" +
+                "CANNOT_REBALANCE";
+
+        assertEquals(normalize(expected), normalize(submit("sample_input/input2.txt")));
+    }
+
+    @Test
+    void testSubmit_ConcurrentJobsDoNotShareState() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String file = (i % 2 == 0) ? "sample_input/input1.txt" : "sample_input/input2.txt";
+                results.add(clients.submit(() -> submit(file)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                String output = normalize(results.get(i).get(10, TimeUnit.SECONDS));
+                assertTrue(output.endsWith(i % 2 == 0 ? "59002 11800 47201" : "CANNOT_REBALANCE"), output);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private String submit(String file) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DaemonClient.submit(daemon.getPort(), file, output);
+        return output.toString("UTF-8");
+    }
+
+    private String normalize(String input) {
+        return input.trim().replaceAll("\\s+", " ");
+    }
+}
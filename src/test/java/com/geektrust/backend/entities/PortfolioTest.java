@@ -306,4 +306,178 @@ public class PortfolioTest {
         assertEquals(AssetType.EQUITY, keyOrder.get(1));
         assertEquals(AssetType.DEBT, keyOrder.get(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExposedTypes_TracksHoldingsAndSip() {
+        Asset emptyGold = new Asset(AssetType.GOLD, 0, 0.0);
+        portfolio.addAsset(equityAsset);
+        portfolio.addAsset(emptyGold);
+
+        assertEquals(EnumSet.of(AssetType.EQUITY), portfolio.getExposedTypes());
+
+        emptyGold.setSipAmount(50);
+        assertEquals(EnumSet.of(AssetType.EQUITY, AssetType.GOLD), portfolio.getExposedTypes());
+
+        emptyGold.setSipAmount(0);
+        assertEquals(EnumSet.of(AssetType.EQUITY), portfolio.getExposedTypes());
+    }
+
+    @Test
+    void testExposedTypes_TotalLossDropsExposure() {
+        portfolio.addAsset(equityAsset);
+        portfolio.addAsset(debtAsset);
+
+        Map<AssetType, Double> roiMap = new HashMap<>();
+        roiMap.put(AssetType.EQUITY, -1.0);
+        portfolio.applyMonthlyChanges(roiMap);
+
+        assertEquals(0, equityAsset.getAmount());
+        assertEquals(EnumSet.of(AssetType.DEBT), portfolio.getExposedTypes());
+    }
+
+    @Test
+    void testExposedTypes_ReplacedAssetIsDetached() {
+        portfolio.addAsset(equityAsset);
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 0, 0.0));
+
+        equityAsset.setSipAmount(100);
+
+        assertTrue(portfolio.getExposedTypes().isEmpty());
+    }
+
+    @Test
+    void testCurrentDrift() {
+        portfolio.addAsset(equityAsset);
+        portfolio.addAsset(debtAsset);
+        portfolio.addAsset(goldAsset);
+        assertEquals(0.0, portfolio.currentDrift(), DELTA);
+
+        Map<AssetType, Double> roiMap = new HashMap<>();
+        roiMap.put(AssetType.GOLD, 1.0); // gold doubles: 6000/3000/2000 of 11000
+        portfolio.applyMonthlyChanges(roiMap);
+
+        assertEquals(2000 / 11000.0 - GOLD_RATIO, portfolio.currentDrift(), DELTA);
+    }
+
+    @Test
+    void testReturns_WithoutSipAllMeasuresAgree() {
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 10000, 1.0));
+        for (int month = 0; month < 12; month++) portfolio.applyMonthlyChanges(Collections.singletonMap(AssetType.EQUITY, 0.01));
+
+        Returns returns = portfolio.getReturns();
+        double expected = portfolio.getAsset(AssetType.EQUITY).getAmount() / 10000.0 - 1.0;
+        assertEquals(12, returns.getMonths());
+        assertEquals(expected, returns.getAbsoluteReturn(), 1e-9);
+        assertEquals(expected, returns.getCagr(), 1e-9); // one year: annualising changes nothing
+        assertEquals(expected, returns.getXirr(), 1e-9);
+    }
+
+    @Test
+    void testReturns_SipAtZeroRoiEarnsNothing() {
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 10000, 1.0));
+        portfolio.getAsset(AssetType.EQUITY).setSipAmount(500);
+        for (int month = 0; month < 6; month++) portfolio.applyMonthlyChanges(Collections.singletonMap(AssetType.EQUITY, 0.0));
+
+        Returns returns = portfolio.getReturns();
+        assertEquals(13000.0, returns.getInvested(), DELTA);
+        assertEquals(0.0, returns.getAbsoluteReturn(), 1e-12);
+        assertEquals(0.0, returns.getCagr(), 1e-12);
+        assertEquals(0.0, returns.getXirr(), 1e-9);
+    }
+
+    @Test
+    void testReturns_XirrMatchesFullRecomputationEveryMonth() {
+        double[] roi = {0.04, -0.02, 0.03, 0.05, -0.06, 0.02, 0.01, 0.07, -0.01, 0.03};
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 6000, 0.6));
+        portfolio.addAsset(new Asset(AssetType.DEBT, 4000, 0.4));
+        List<Double> flows = new ArrayList<>(); // money in at the start of each month
+        for (int month = 0; month < roi.length; month++) {
+            if (month == 1) { // SIP starts from the second month, as the service does it
+                portfolio.getAsset(AssetType.EQUITY).setSipAmount(300);
+                portfolio.getAsset(AssetType.DEBT).setSipAmount(200);
+            }
+            flows.add(month == 0 ? 10000.0 : 500.0);
+            Map<AssetType, Double> change = new EnumMap<>(AssetType.class);
+            change.put(AssetType.EQUITY, roi[month]);
+            change.put(AssetType.DEBT, roi[month] / 2);
+            portfolio.applyMonthlyChanges(change);
+
+            Returns returns = portfolio.getReturns();
+            assertEquals(bisectXirr(flows, month + 1, returns.getValue()), returns.getXirr(), 1e-9);
+        }
+    }
+
+    @Test
+    void testReturns_XirrMatchesFullRecomputationAcrossSipLevels() {
+        int[] sipFrom = {1, 24, 40, 52}; // months where the SIP level changes
+        int[] sipLevel = {400, 700, 400, 0};
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 10000, 1.0));
+        List<Double> flows = new ArrayList<>();
+        int sip = 0;
+        for (int month = 0; month < 60; month++) {
+            for (int i = 0; i < sipFrom.length; i++) {
+                if (sipFrom[i] == month) sip = sipLevel[i];
+            }
+            portfolio.getAsset(AssetType.EQUITY).setSipAmount(sip);
+            flows.add(month == 0 ? 10000.0 : sip);
+            portfolio.applyMonthlyChanges(Collections.singletonMap(AssetType.EQUITY, 0.02 * Math.cos(month)));
+
+            Returns returns = portfolio.getReturns();
+            assertEquals(bisectXirr(flows, month + 1, returns.getValue()), returns.getXirr(), 1e-9);
+        }
+    }
+
+    @Test
+    void testRisk_AssetClassMatchesFullRecomputation() {
+        double[] roi = new double[30];
+        for (int month = 0; month < roi.length; month++) roi[month] = 0.03 * Math.sin(month * 1.7) + 0.004;
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 10000, 1.0));
+        for (double r : roi) portfolio.applyMonthlyChanges(Collections.singletonMap(AssetType.EQUITY, r));
+
+        RiskMetrics risk = portfolio.getRisk(AssetType.EQUITY);
+        assertEquals(roi.length, risk.getMonths());
+        assertEquals(annualisedStdDev(roi, 0, roi.length), risk.getVolatility(), 1e-12);
+        assertEquals(annualisedStdDev(roi, roi.length - 12, roi.length), risk.getRollingVolatility(), 1e-12);
+        double index = 1, peak = 1, maxDrawdown = 0, sum = 0;
+        for (double r : roi) {
+            index *= 1 + r;
+            peak = Math.max(peak, index);
+            maxDrawdown = Math.max(maxDrawdown, 1 - index / peak);
+            sum += r;
+        }
+        assertEquals(maxDrawdown, risk.getMaxDrawdown(), 1e-12);
+        assertEquals(1 - index / peak, risk.getCurrentDrawdown(), 1e-12);
+        assertEquals(sum / roi.length * 12 / risk.getVolatility(), risk.getSharpe(), 1e-9);
+        assertEquals(0, portfolio.getRisk(AssetType.GOLD).getMonths()); // never held
+    }
+
+    @Test
+    void testRisk_PortfolioDrawdownIgnoresSip() {
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 10000, 1.0));
+        portfolio.getAsset(AssetType.EQUITY).setSipAmount(5000);
+        portfolio.applyMonthlyChanges(Collections.singletonMap(AssetType.EQUITY, -0.10));
+        portfolio.applyMonthlyChanges(Collections.singletonMap(AssetType.EQUITY, 0.0)); // value rises by the SIP alone
+
+        RiskMetrics risk = portfolio.getRisk();
+        assertEquals(0.10, risk.getMaxDrawdown(), 1e-9);
+        assertEquals(0.10, risk.getCurrentDrawdown(), 1e-9);
+    }
+
+    private static double annualisedStdDev(double[] values, int from, int to) {
+        double mean = 0, squares = 0;
+        for (int i = from; i < to; i++) mean += values[i] / (to - from);
+        for (int i = from; i < to; i++) squares += (values[i] - mean) * (values[i] - mean);
+        return Math.sqrt(squares / (to - from - 1)) * Math.sqrt(12);
+    }
+
+    /** Reference: solves sum(flow[t] * x^(months - t)) = value for the monthly factor x from scratch. */
+    private static double bisectXirr(List<Double> flows, int months, int value) {
+        double low = 0.5, high = 1.5;
+        for (int i = 0; i < 200; i++) {
+            double x = (low + high) / 2, futureValue = 0;
+            for (int t = 0; t < months; t++) futureValue += flows.get(t) * Math.pow(x, months - t);
+            if (futureValue < value) low = x; else high = x;
+        }
+        return Math.pow((low + high) / 2, 12) - 1;
+    }
+}
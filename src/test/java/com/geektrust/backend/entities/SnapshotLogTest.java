@@ -0,0 +1,58 @@
+// -------- test/SnapshotLogTest.java --------
+package com.geektrust.backend.entities;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class SnapshotLogTest {
+
+    private static final int YEARS = 30;
+
+    @Test
+    void testDecadesOfSnapshots_MatchBoxedReference() {
+        Random random = new Random(42);
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAsset(new Asset(AssetType.EQUITY, 60_000, 0.6));
+        portfolio.addAsset(new Asset(AssetType.GOLD, 10_000, 0.1)); // DEBT joins later, out of ordinal order
+        Map<String, Map<AssetType, Integer>> reference = new LinkedHashMap<>();
+
+        for (int m = 0; m < YEARS * 12; m++) {
+            if (m == 40) portfolio.addAsset(new Asset(AssetType.DEBT, 30_000, 0.3));
+            for (Asset asset : portfolio.getAssets()) asset.applyMonthlyROI((random.nextInt(21) - 8) / 100.0);
+            String month = Month.values()[m % 12].name();
+            portfolio.saveMonthlySnapshot(month);
+            Map<AssetType, Integer> expected = new LinkedHashMap<>();
+            for (Asset asset : portfolio.getAssets()) expected.put(asset.getType(), asset.getAmount());
+            reference.put(month, expected);
+
+            // read an older month now and then so the decode cache is exercised out of order
+            String probe = Month.values()[random.nextInt(12)].name();
+            assertEquals(reference.getOrDefault(probe, Collections.emptyMap()), portfolio.getMonthlySnapshot(probe));
+        }
+
+        assertEquals(reference, portfolio.getMonthlySnapshots());
+        assertEquals(new ArrayList<>(reference.keySet()), new ArrayList<>(portfolio.getMonthlySnapshots().keySet()));
+    }
+
+    @Test
+    void testLog_StaysBoundedByLiveLabels() {
+        SnapshotLog log = new SnapshotLog();
+        Asset[] assets = new Asset[AssetType.values().length];
+        for (AssetType type : AssetType.values()) assets[type.ordinal()] = new Asset(type, 50_000, 1.0 / 3);
+
+        for (int m = 0; m < YEARS * 12; m++) {
+            for (Asset asset : assets) asset.applyMonthlyROI(0.01);
+            log.save(Month.values()[m % 12].name(), assets);
+        }
+
+        assertEquals(12, log.labels().size());
+        // live entries plus a few superseded ones, a few bytes per amount: far below 12 boxed maps
+        assertTrue(log.encodedBytes() < 2 * 12 * (2 + 3 * 5), "bytes " + log.encodedBytes());
+        int[] values = new int[AssetType.values().length];
+        assertEquals(0b111, log.load("DECEMBER", values));
+        assertEquals(assets[AssetType.GOLD.ordinal()].getAmount(), values[AssetType.GOLD.ordinal()]);
+    }
+}
@@ -0,0 +1,82 @@
+// -------- test/SnapshotExporterTest.java --------
+package com.geektrust.backend.export;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.ExportConstants;
+import com.geektrust.backend.constants.Month;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class SnapshotExporterTest {
+
+    private Path directory;
+    private Map<Month, Map<AssetType, Integer>> balances;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("export");
+        balances = new EnumMap<>(Month.class);
+        balances.put(Month.JANUARY, snapshot(6600, 3000, 1000));
+        balances.put(Month.MARCH, snapshot(7000, 3100, 900));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testWriteCsv() throws IOException {
+        Path csv = directory.resolve("book.csv");
+
+        SnapshotExporter.writeCsv(csv, balances);
+
+        assertEquals(Arrays.asList("MONTH,EQUITY,DEBT,GOLD", "JANUARY,6600,3000,1000", "MARCH,7000,3100,900"),
+                Files.readAllLines(csv, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteColumnar_ColumnsFollowHeader() throws IOException {
+        Path bin = directory.resolve("book.bin");
+
+        SnapshotExporter.writeColumnar(bin, balances);
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(bin));
+        assertEquals(ExportConstants.COLUMNAR_MAGIC, data.getInt());
+        assertEquals(ExportConstants.COLUMNAR_VERSION, data.getShort());
+        assertEquals(AssetType.values().length, data.getShort());
+        assertEquals(2, data.getInt());
+        for (AssetType type : AssetType.values()) {
+            byte[] name = new byte[data.get()];
+            data.get(name);
+            assertEquals(type.name(), new String(name, StandardCharsets.US_ASCII));
+        }
+        assertEquals(Month.JANUARY.ordinal(), data.get());
+        assertEquals(Month.MARCH.ordinal(), data.get());
+        assertEquals(6600, data.getInt());
+        assertEquals(7000, data.getInt());
+        assertEquals(3000, data.getInt());
+        assertEquals(3100, data.getInt());
+        assertEquals(1000, data.getInt());
+        assertEquals(900, data.getInt());
+        assertFalse(data.hasRemaining());
+    }
+
+    private Map<AssetType, Integer> snapshot(int equity, int debt, int gold) {
+        Map<AssetType, Integer> snapshot = new EnumMap<>(AssetType.class);
+        snapshot.put(AssetType.EQUITY, equity);
+        snapshot.put(AssetType.DEBT, debt);
+        snapshot.put(AssetType.GOLD, gold);
+        return snapshot;
+    }
+}
@@ -0,0 +1,85 @@
+// -------- test/PortfolioHistoryTest.java --------
+package com.geektrust.backend.history;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.HistoryConstants;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.entities.Asset;
+import com.geektrust.backend.entities.Portfolio;
+import com.geektrust.backend.repositories.InMemoryPortfolioRepository;
+import com.geektrust.backend.services.PortfolioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class PortfolioHistoryTest {
+
+    private PortfolioHistory history;
+
+    @BeforeEach
+    void setUp() {
+        history = new PortfolioHistory();
+    }
+
+    @Test
+    void testStateAt_ReturnsEveryRecordedState() {
+        Random random = new Random(41);
+        Portfolio portfolio = new Portfolio();
+        for (AssetType type : AssetType.values()) portfolio.addAsset(new Asset(type, 1000, 1.0 / 3));
+        List<int[]> expected = new ArrayList<>();
+
+        int mutations = HistoryConstants.KEYFRAME_INTERVAL * 5 + 7;
+        for (int m = 0; m < mutations; m++) {
+            int[] amounts = new int[AssetType.values().length];
+            for (AssetType type : AssetType.values()) {
+                Asset asset = portfolio.getAsset(type);
+                asset.applyMonthlyROI((random.nextInt(41) - 20) / 100.0);
+                asset.setSipAmount(random.nextInt(500));
+                amounts[type.ordinal()] = asset.getAmount();
+            }
+            expected.add(amounts);
+            assertEquals(m + 1, history.record(MutationKind.CHANGE, Month.values()[m % 12], portfolio));
+        }
+
+        for (int m = mutations - 1; m >= 0; m--) {
+            PortfolioState state = history.stateAt(m + 1);
+            for (AssetType type : AssetType.values()) {
+                assertEquals(expected.get(m)[type.ordinal()], state.getAmount(type));
+            }
+            assertEquals(Month.values()[m % 12], state.getMonth());
+        }
+        assertTrue(history.retainedBytes() < (long) mutations * 6 * Integer.BYTES);
+    }
+
+    @Test
+    void testStateAt_OutOfRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> history.stateAt(1));
+    }
+
+    @Test
+    void testService_StampsChangeAndRebalanceSeparately() {
+        PortfolioService service = new PortfolioService(new InMemoryPortfolioRepository());
+        service.setHistory(history);
+        service.allocate(new int[]{6000, 3000, 1000});
+        service.setSip(new int[]{2000, 1000, 500});
+        for (Month month = Month.JANUARY; month != Month.JULY; month = month.next()) {
+            service.change(month, new double[]{0.04, 0.10, 0.02});
+        }
+
+        assertEquals(MutationKind.ALLOCATE, history.stateAt(1).getKind());
+        PortfolioState preRebalance = null;
+        PortfolioState rebalance = null;
+        for (long seq = 1; seq <= history.head(); seq++) {
+            PortfolioState state = history.stateAt(seq);
+            if (state.getMonth() == Month.JUNE && state.getKind() == MutationKind.CHANGE) preRebalance = state;
+            if (state.getKind() == MutationKind.REBALANCE) rebalance = state;
+        }
+        Map<AssetType, Integer> june = service.getBalance(Month.JUNE);
+        Map<AssetType, Integer> rebalanced = service.getRebalance();
+        for (AssetType type : AssetType.values()) {
+            assertEquals(june.get(type), preRebalance.getAmount(type));
+            assertEquals(rebalanced.get(type), rebalance.getAmount(type));
+        }
+    }
+}
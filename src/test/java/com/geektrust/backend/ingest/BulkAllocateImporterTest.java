@@ -0,0 +1,133 @@
+// -------- test/BulkAllocateImporterTest.java --------
+package com.geektrust.backend.ingest;
+
+import com.geektrust.backend.constants.IngestConstants;
+import com.geektrust.backend.offheap.ModelPortfolio;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.offheap.PortfolioRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class BulkAllocateImporterTest {
+
+    private Path csv;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        csv = Files.createTempFile("book", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    void testImport_ManyChunksKeepFileOrderAndReportBadRows() throws Exception {
+        int rows = 3 * IngestConstants.IMPORT_CHUNK_BYTES / 24; // several chunks' worth
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("id,equity,debt,gold,sip_equity,sip_debt,sip_gold\n");
+            for (int n = 0; n < rows; n++) {
+                if (n == 10) writer.write("p10,100,abc,5\r\n");
+                else if (n == rows - 1) writer.write("last,0,0,0\n");
+                else if (n % 2 == 0) writer.write("p" + n + "," + (n + 1) + ",20,30\r\n");
+                else writer.write("p" + n + "," + (n + 1) + ",20,30,5,0,1\n");
+            }
+        }
+        OffHeapPortfolioStore store = new OffHeapPortfolioStore(16);
+        store.record(store.addRecord()).allocate(new int[]{1, 0, 0}); // imports append after existing records
+
+        ImportReport report = new BulkAllocateImporter(store).importFile(csv);
+
+        assertEquals(rows - 2, report.getImported());
+        assertEquals(1, report.getFirstRecord());
+        assertEquals(rows - 1, store.size());
+        assertEquals(2, report.getErrors().size());
+        assertEquals(12L, report.getErrors().get(0).getLine()); // header is line 1, row n is line n + 2
+        assertTrue(report.getErrors().get(0).getMessage().contains("abc"));
+        assertEquals(rows + 1L, report.getErrors().get(1).getLine());
+        assertEquals("Total allocation must be positive", report.getErrors().get(1).getMessage());
+
+        String[] ids = report.getIds();
+        PortfolioRecord record = store.record(report.getFirstRecord());
+        for (int k = 0; k < ids.length; k += 997) {
+            int n = Integer.parseInt(ids[k].substring(1));
+            record.moveTo(report.getFirstRecord() + k);
+            assertEquals(n + 1, record.getAmount(0));
+            assertEquals(20, record.getAmount(1));
+            assertEquals(n % 2 == 0 ? 0 : 5, record.getSipAmount(0));
+            assertEquals(n % 2 == 0 ? 0 : 1, record.getSipAmount(2));
+        }
+        assertEquals("p" + (rows - 2), ids[ids.length - 1]);
+    }
+
+    @Test
+    void testImport_BookOfFewPlans_AddsNoModels() throws Exception {
+        int[][] plans = {{6000, 3000, 1000}, {5000, 2500, 2500}, {7000, 2000, 1000}};
+        List<String> lines = new ArrayList<>();
+        for (int n = 0; n < 30_000; n++) {
+            int[] plan = plans[n % plans.length];
+            int scale = 1 + n % 17; // arbitrary amounts, same ratios
+            lines.add("p" + n + "," + plan[0] * scale + "," + plan[1] * scale + "," + plan[2] * scale
+                    + (n % 2 == 0 ? "" : "," + plan[0] / 10 + "," + plan[1] / 10 + "," + plan[2] / 10));
+        }
+        Files.write(csv, lines, StandardCharsets.UTF_8);
+        OffHeapPortfolioStore store = new OffHeapPortfolioStore(16);
+        ModelPortfolio declared = store.intern(new double[]{0.6, 0.3, 0.1}, new int[]{600, 300, 100});
+
+        ImportReport report = new BulkAllocateImporter(store).importFile(csv);
+
+        assertEquals(30_000, report.getImported());
+        assertEquals(1, store.modelCount()); // only the declared model: rows keep their own plans
+        PortfolioRecord record = store.record(1);
+        assertNull(record.getModel());
+        assertEquals(500, record.getSipAmount(0));
+        record.follow(declared);
+        assertEquals(1, store.modelCount());
+    }
+
+    @Test
+    void testImport_RejectsMalformedRows() throws Exception {
+        Files.write(csv, Arrays.asList("a,1,2", ",1,2,3", "b,-4,2,3", "c,1,2,99999999999", "", "d,6000,3000,1000"),
+                StandardCharsets.UTF_8);
+        OffHeapPortfolioStore store = new OffHeapPortfolioStore(16);
+
+        ImportReport report = new BulkAllocateImporter(store).importFile(csv);
+
+        assertArrayEquals(new String[]{"d"}, report.getIds());
+        assertEquals(4, report.getErrors().size());
+        assertEquals(1L, report.getErrors().get(0).getLine()); // no header: line 1 is a row
+        assertEquals(4L, report.getErrors().get(3).getLine());
+        assertEquals(0.6, store.record(0).getAllocationRatio(0), 1e-12);
+    }
+
+    @Test
+    void testImport_RejectsOverflowingTotalsAndDuplicateIds() throws Exception {
+        Files.write(csv, Arrays.asList("p1,2000000000,2000000000,100", "p2,600,300,100", "p3,1,1,1", "p2,1,2,3"),
+                StandardCharsets.UTF_8);
+        OffHeapPortfolioStore store = new OffHeapPortfolioStore(16);
+        BulkAllocateImporter importer = new BulkAllocateImporter(store);
+
+        ImportReport report = importer.importFile(csv);
+
+        assertArrayEquals(new String[]{"p2", "p3"}, report.getIds());
+        assertEquals(2, report.getErrors().size());
+        assertEquals("1: Total allocation is too large", report.getErrors().get(0).toString());
+        assertEquals("4: Duplicate portfolio id: p2", report.getErrors().get(1).toString());
+        assertEquals(1000, store.record(0).totalValue());
+
+        Files.write(csv, Arrays.asList("p3,5,5,5", "p4,5,5,5"), StandardCharsets.UTF_8);
+        ImportReport again = importer.importFile(csv); // ids already imported stay taken
+
+        assertArrayEquals(new String[]{"p4"}, again.getIds());
+        assertEquals(1L, again.getErrors().get(0).getLine());
+        assertEquals(3, store.size());
+    }
+}
@@ -0,0 +1,145 @@
+// -------- test/DropDirectoryIngestorTest.java --------
+package com.geektrust.backend.ingest;
+
+import com.geektrust.backend.constants.IngestConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class DropDirectoryIngestorTest {
+
+    private Path dropDirectory;
+    private Path outputDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path root = Files.createTempDirectory("ingest");
+        dropDirectory = Files.createDirectories(root.resolve("drop"));
+        outputDirectory = root.resolve("out");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Path root = dropDirectory.getParent();
+        List<Path> paths = new ArrayList<>();
+        Files.walk(root).forEach(paths::add);
+        Collections.reverse(paths);
+        for (Path path : paths) Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testGrowingFile_PartialLineWaitsForNewline() throws Exception {
+        Path feed = dropDirectory.resolve("feed.txt");
+        append(feed, "ALLOCATE 6000 3000 1000\nCHANGE 10.00% 0.00% 0.00% JANUARY\nBALANCE JAN");
+
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+            assertEquals("", output(feed));
+
+            append(feed, "UARY\n");
+            drain(ingestor);
+            assertEquals("6600 3000 1000", output(feed));
+            assertEquals(Files.size(feed), ingestor.offsetOf(feed));
+        }
+    }
+
+    @Test
+    void testRestart_ResumesFromCheckpointWithoutRepeatingOutput() throws Exception {
+        Path feed = dropDirectory.resolve("feed.txt");
+        append(feed, "ALLOCATE 6000 3000 1000\nCHANGE 10.00% 0.00% 0.00% JANUARY\nBALANCE JANUARY\n");
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+        }
+
+        append(feed, "CHANGE 0.00% 10.00% 0.00% FEBRUARY\nBALANCE FEBRUARY\n");
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+        }
+
+        assertEquals("6600 3000 1000\n6600 3300 1000", output(feed));
+        assertTrue(Files.exists(outputDirectory.resolve(IngestConstants.CHECKPOINT_FILE)));
+    }
+
+    @Test
+    void testFiles_AreIndependentSessions() throws Exception {
+        Path first = dropDirectory.resolve("a.txt");
+        Path second = dropDirectory.resolve("b.txt");
+        append(first, "ALLOCATE 6000 3000 1000\nCHANGE 10.00% 0.00% 0.00% JANUARY\nBALANCE JANUARY\n");
+        append(second, "ALLOCATE 100 200 300\nCHANGE 0.00% 0.00% 0.00% JANUARY\nBALANCE JANUARY\nUNKNOWN\nBALANCE JANUARY\n");
+
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+        }
+
+        assertEquals("6600 3000 1000", output(first));
+        assertEquals("100 200 300\nNo such command registered: UNKNOWN\n100 200 300",
+                output(second).replace("com.geektrust.backend.exceptions.NoSuchCommandException: ", ""));
+    }
+
+    @Test
+    void testRestart_AfterOutputFlushedButNotCheckpointed_DoesNotDuplicateOutput() throws Exception {
+        Path feed = dropDirectory.resolve("feed.txt");
+        append(feed, "ALLOCATE 6000 3000 1000\nCHANGE 10.00% 0.00% 0.00% JANUARY\nBALANCE JANUARY\n");
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+        }
+        // a run that executed the next line and flushed its output, then died before checkpointing
+        append(feed, "BALANCE JANUARY\n");
+        append(outputDirectory.resolve("feed.txt" + IngestConstants.OUTPUT_SUFFIX), "6600 3000 1000\n");
+
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+        }
+
+        assertEquals("6600 3000 1000\n6600 3000 1000", output(feed));
+    }
+
+    @Test
+    void testTruncatedFile_StartsANewSession() throws Exception {
+        Path feed = dropDirectory.resolve("feed.txt");
+        append(feed, "ALLOCATE 6000 3000 1000\nCHANGE 10.00% 0.00% 0.00% JANUARY\nBALANCE JANUARY\n");
+
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor);
+            Files.write(feed, "ALLOCATE 1 2 3\nCHANGE 0.00% 0.00% 0.00% JANUARY\nBALANCE JANUARY\n".getBytes(StandardCharsets.UTF_8));
+            drain(ingestor);
+
+            assertEquals("6600 3000 1000\n1 2 3", output(feed));
+            assertEquals(Files.size(feed), ingestor.offsetOf(feed));
+        }
+    }
+
+    @Test
+    void testFailedDrain_IsLoggedAndLeavesTheFileScheduled() throws Exception {
+        Path feed = dropDirectory.resolve("feed.txt");
+        append(feed, "ALLOCATE 6000 3000 1000\nBALANCE JANUARY\n");
+        Files.createDirectories(outputDirectory);
+        Files.write(outputDirectory.resolve(IngestConstants.CHECKPOINT_FILE), "feed.txt=garbage\n".getBytes(StandardCharsets.UTF_8));
+
+        try (DropDirectoryIngestor ingestor = new DropDirectoryIngestor(dropDirectory, outputDirectory)) {
+            drain(ingestor); // the unreadable checkpoint throws inside the drain, not out of awaitIdle
+            drain(ingestor);
+            assertEquals("", output(feed));
+        }
+    }
+
+    private void drain(DropDirectoryIngestor ingestor) throws Exception {
+        ingestor.scan();
+        ingestor.awaitIdle();
+    }
+
+    private void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private String output(Path feed) throws IOException {
+        Path output = outputDirectory.resolve(feed.getFileName() + IngestConstants.OUTPUT_SUFFIX);
+        if (!Files.exists(output)) return "";
+        return new String(Files.readAllBytes(output), StandardCharsets.UTF_8).trim().replace("\r\n", "\n");
+    }
+}
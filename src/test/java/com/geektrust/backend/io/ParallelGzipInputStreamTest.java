@@ -0,0 +1,98 @@
+// -------- test/ParallelGzipInputStreamTest.java --------
+package com.geektrust.backend.io;
+
+import com.geektrust.backend.constants.InputConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+public class ParallelGzipInputStreamTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("commands", ".txt.gz");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testMultiMemberFile_DecompressesInOrder() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int member = 0; member < 40; member++) {
+                StringBuilder text = new StringBuilder();
+                for (int line = 0; line < 500; line++) {
+                    text.append("CHANGE ").append(member).append(".00% ").append(line).append(".00% 1.00% JANUARY\n");
+                }
+                expected.append(text);
+                out.write(gzip(text.toString(), Deflater.DEFAULT_COMPRESSION));
+            }
+        }
+
+        assertEquals(expected.toString(), readAll());
+    }
+
+    @Test
+    void testHeaderLookalikeInsideMember_FallsBackToSequential() throws IOException {
+        // stored (level 0) deflate blocks copy the payload verbatim, header bytes included
+        byte[] lookalike = {0x1f, (byte) 0x8b, 0x08, 0x00, 0, 0, 0, 0, 0x00, 0x03};
+        String first = "ALLOCATE 1 2 3\n" + new String(lookalike, StandardCharsets.ISO_8859_1) + "\nBALANCE MARCH\n";
+        String second = "REBALANCE\n";
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(gzip(first, Deflater.NO_COMPRESSION));
+            out.write(gzip(second, Deflater.DEFAULT_COMPRESSION));
+        }
+
+        assertEquals(first + second, readAll());
+    }
+
+    @Test
+    void testHighlyCompressibleMember_StreamedSequentially() throws IOException {
+        String line = "CHANGE 1.00% 2.00% 3.00% JANUARY\n";
+        StringBuilder large = new StringBuilder();
+        while (large.length() <= InputConstants.MAX_INFLATED_MEMBER_BYTES) large.append(line);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(gzip("ALLOCATE 1 2 3\n", Deflater.DEFAULT_COMPRESSION));
+            out.write(gzip(large.toString(), Deflater.BEST_COMPRESSION)); // a few KB that inflate past the cap
+            out.write(gzip("REBALANCE\n", Deflater.DEFAULT_COMPRESSION));
+        }
+
+        assertEquals("ALLOCATE 1 2 3\n" + large + "REBALANCE\n", readAll());
+    }
+
+    @Test
+    void testSingleMemberFile() throws IOException {
+        Files.write(file, gzip("BALANCE JANUARY\n", Deflater.BEST_SPEED));
+
+        assertEquals("BALANCE JANUARY\n", readAll());
+    }
+
+    private String readAll() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = ParallelGzipInputStream.open(file.toString())) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] gzip(String text, int level) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {{ def.setLevel(level); }}) {
+            out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,167 @@
+// -------- test/OffHeapPortfolioStoreTest.java --------
+package com.geektrust.backend.offheap;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.OffHeapConstants;
+import com.geektrust.backend.entities.Asset;
+import com.geektrust.backend.entities.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class OffHeapPortfolioStoreTest {
+
+    private OffHeapPortfolioStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapPortfolioStore(16);
+    }
+
+    @Test
+    void testRecord_BehavesLikePortfolio() {
+        int[] amounts = {15000, 3000, 12000};
+        int[] sip = {1000, 1000, 2000};
+        PortfolioRecord record = store.record(store.addRecord());
+        record.allocate(amounts);
+        record.setSip(sip);
+
+        Portfolio portfolio = new Portfolio();
+        for (AssetType type : AssetType.values()) {
+            Asset asset = new Asset(type, amounts[type.ordinal()], amounts[type.ordinal()] / 30000.0);
+            asset.setSipAmount(sip[type.ordinal()]);
+            portfolio.addAsset(asset);
+        }
+
+        Random random = new Random(11);
+        Month month = Month.JANUARY;
+        for (int m = 0; m < 36; m++) {
+            double[] roi = new double[AssetType.values().length];
+            Map<AssetType, Double> roiMap = new EnumMap<>(AssetType.class);
+            for (AssetType type : AssetType.values()) {
+                roi[type.ordinal()] = (random.nextInt(4001) - 2000) / 10000.0;
+                roiMap.put(type, roi[type.ordinal()]);
+            }
+            record.applyMonthlyChanges(roi);
+            record.saveMonthlySnapshot(month);
+            portfolio.applyMonthlyChanges(roiMap);
+            portfolio.saveMonthlySnapshot(month.name());
+            if (month == Month.JUNE || month == Month.DECEMBER) {
+                record.rebalanceToOriginalRatios();
+                portfolio.rebalanceToOriginalRatios();
+            }
+
+            assertArrayEquals(toArray(portfolio.getMonthlySnapshot(month.name())), record.getMonthlySnapshot(month));
+            month = month.next();
+        }
+        assertArrayEquals(toArray(portfolio.getLastRebalancedSnapshot()), record.getLastRebalancedSnapshot());
+    }
+
+    @Test
+    void testFlyweight_SpansChunks() {
+        int count = OffHeapConstants.RECORDS_PER_CHUNK + 10;
+        store.ensureCapacity(count);
+        PortfolioRecord record = store.record(store.addRecord());
+        for (int i = 1; i < count; i++) store.addRecord();
+
+        for (int i = 0; i < count; i++) record.moveTo(i).allocate(new int[]{i + 1, 0, 0});
+
+        assertEquals(count, store.size());
+        assertEquals(1, record.moveTo(0).getAmount(0));
+        assertEquals(count, record.moveTo(count - 1).getAmount(0));
+        assertEquals(2L * OffHeapConstants.RECORDS_PER_CHUNK * OffHeapPortfolioStore.RECORD_BYTES, store.reservedBytes());
+    }
+
+    @Test
+    void testRecordLayout_KeepsDoublesAligned() {
+        assertEquals(216, OffHeapPortfolioStore.RECORD_BYTES); // three asset types
+        assertEquals(0, OffHeapPortfolioStore.RECORD_BYTES % Double.BYTES);
+        assertEquals(0, OffHeapPortfolioStore.AMOUNT_OFFSET % Double.BYTES);
+    }
+
+    @Test
+    void testRecord_UnrecordedMonthAndValidation() {
+        PortfolioRecord record = store.record(store.addRecord());
+        record.allocate(new int[]{100, 100, 100});
+
+        assertNull(record.getMonthlySnapshot(Month.MARCH));
+        assertNull(record.getLastRebalancedSnapshot());
+        assertThrows(IllegalArgumentException.class, () -> record.allocate(new int[]{0, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> record.allocate(new int[]{2000000000, 2000000000, 100}));
+        assertEquals(300, record.totalValue()); // the rejected allocation left the record as it was
+        assertThrows(IllegalArgumentException.class, () -> record.applyMonthlyChanges(new double[]{-1.5, 0, 0}));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.record(5));
+    }
+
+    @Test
+    void testModels_SharedOnlyByFollowers() {
+        PortfolioRecord first = store.record(store.addRecord());
+        PortfolioRecord second = store.record(store.addRecord());
+        first.allocate(new int[]{6000, 3000, 1000});
+        second.allocate(new int[]{60000, 30000, 10000}); // same ratios, still its own plan
+        first.setSip(new int[]{600, 300, 100});
+
+        assertNull(first.getModel());
+        assertNull(second.getModel());
+        assertEquals(0, store.modelCount());
+        assertEquals(0.6, second.getAllocationRatio(0), 1e-12);
+        assertEquals(0, second.getSipAmount(1));
+
+        ModelPortfolio model = store.intern(new double[]{0.5, 0.3, 0.2}, new int[]{500, 300, 200});
+        first.follow(model);
+        second.follow(model);
+        assertSame(model, store.intern(new double[]{0.5, 0.3, 0.2}, new int[]{500, 300, 200}));
+        assertSame(first.getModel(), second.getModel());
+        assertEquals(300, second.getSipAmount(1));
+
+        second.setSip(new int[]{50, 50, 50}); // leaves the model, keeps its ratios
+        assertNull(second.getModel());
+        assertEquals(0.5, second.getAllocationRatio(0), 1e-12);
+        assertEquals(50, second.getSipAmount(0));
+        assertEquals(500, first.getSipAmount(0));
+        assertEquals(1, store.modelCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> first.follow(new OffHeapPortfolioStore(1).intern(new double[]{1, 0, 0}, new int[3])));
+        assertThrows(IllegalArgumentException.class, () -> store.rebalanceCohort(OffHeapConstants.OWN_PLAN_MODEL));
+    }
+
+    @Test
+    void testRebalanceCohort_OnlyTouchesTheModelsRecords() {
+        ModelPortfolio model = store.intern(new double[]{0.5, 0.3, 0.2}, new int[]{500, 300, 200});
+        store.ensureCapacity(150);
+        PortfolioRecord record = store.record(store.addRecord());
+        for (int n = 1; n < 150; n++) store.addRecord();
+        Random random = new Random(48);
+        for (int n = 0; n < 150; n++) {
+            record.moveTo(n).allocate(new int[]{1 + random.nextInt(100000), random.nextInt(50000), random.nextInt(9000)});
+            if (n % 5 != 0) record.follow(model); // every fifth record keeps its own allocation
+            record.applyMonthlyChanges(new double[]{0.07, -0.02, 0.01});
+        }
+
+        int[][] expected = new int[150][];
+        for (int n = 0; n < 150; n++) {
+            record.moveTo(n);
+            expected[n] = new int[]{record.getAmount(0), record.getAmount(1), record.getAmount(2)};
+            if (record.getModel() != model) continue;
+            int total = record.totalValue();
+            for (int i = 0; i < 3; i++) expected[n][i] = (int) Math.floor(total * model.getRatio(i));
+        }
+
+        assertEquals(120, store.rebalanceCohort(model.getId()));
+
+        for (int n = 0; n < 150; n++) {
+            record.moveTo(n);
+            assertArrayEquals(expected[n], new int[]{record.getAmount(0), record.getAmount(1), record.getAmount(2)});
+            if (n % 5 != 0) assertArrayEquals(expected[n], record.getLastRebalancedSnapshot());
+            else assertNull(record.getLastRebalancedSnapshot());
+        }
+    }
+
+    private static int[] toArray(Map<AssetType, Integer> snapshot) {
+        int[] values = new int[AssetType.values().length];
+        for (Map.Entry<AssetType, Integer> e : snapshot.entrySet()) values[e.getKey().ordinal()] = e.getValue();
+        return values;
+    }
+}
@@ -0,0 +1,124 @@
+// -------- test/QueryEngineTest.java --------
+package com.geektrust.backend.query;
+
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.QueryConstants;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.offheap.PortfolioRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class QueryEngineTest {
+
+    private static final int RECORDS = QueryConstants.SCAN_BLOCK_SIZE * 2 + 500; // spans three scan blocks
+
+    private OffHeapPortfolioStore store;
+    private QueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapPortfolioStore(RECORDS);
+        PortfolioRecord record = store.record(store.addRecord());
+        for (int n = 1; n < RECORDS; n++) store.addRecord();
+        Random random = new Random(50);
+        for (int n = 0; n < RECORDS; n++) {
+            record.moveTo(n).allocate(new int[]{1 + random.nextInt(60000), random.nextInt(30000), random.nextInt(20000)});
+            record.applyMonthlyChanges(new double[]{0.04, 0.01, -0.02});
+            if (n % 3 == 0) record.saveMonthlySnapshot(Month.MARCH);
+            if (n % 7 == 0) record.rebalanceToOriginalRatios();
+        }
+        engine = new QueryEngine(store);
+    }
+
+    @Test
+    void testAggregates_MatchBruteForce() {
+        PortfolioRecord record = store.record(0);
+        long count = 0, sum = 0;
+        int max = Integer.MIN_VALUE;
+        List<Integer> ids = new ArrayList<>();
+        for (int n = 0; n < RECORDS; n++) {
+            record.moveTo(n);
+            int total = record.totalValue();
+            boolean goldHeavy = total > 0 && record.getAmount(2) * 100.0 > 20 * total;
+            if (!goldHeavy || !record.hasMonthlySnapshot(Month.MARCH)) continue;
+            count++;
+            sum += total;
+            max = Math.max(max, record.getMonthlyBalance(Month.MARCH, 0));
+            if (record.getAmount(1) < 2000) ids.add(n);
+        }
+
+        assertEquals(count, engine.execute(Query.parse("COUNT WHERE GOLD% > 20 AND MARCH.TOTAL >= 0")).getMatched());
+        assertEquals(sum, (long) engine.execute(Query.parse("SUM TOTAL WHERE GOLD% > 20 AND march.total >= 0")).getValue().getAsDouble());
+        assertEquals((double) sum / count, engine.execute(Query.parse("AVG TOTAL WHERE GOLD% > 20 AND MARCH.TOTAL >= 0")).getValue().getAsDouble(), 1e-9);
+        assertEquals(max, (long) engine.execute(Query.parse("MAX MARCH.EQUITY WHERE GOLD% > 20")).getValue().getAsDouble());
+        int[] expected = new int[ids.size()];
+        for (int i = 0; i < expected.length; i++) expected[i] = ids.get(i);
+        assertArrayEquals(expected, engine.execute(Query.parse("IDS WHERE GOLD% > 20 AND MARCH.DEBT >= 0 AND DEBT < 2000")).getIds());
+    }
+
+    @Test
+    void testLimit_CapsMatchesAndSkipsRemainingBlocks() {
+        QueryResult all = engine.execute(Query.parse("IDS WHERE REBALANCED.TOTAL > 0"));
+        QueryResult limited = engine.execute(Query.parse("IDS WHERE REBALANCED.TOTAL > 0 LIMIT 10"));
+
+        assertEquals((RECORDS + 6) / 7, all.getMatched());
+        assertEquals(10, limited.getMatched());
+        assertEquals(10, limited.getIds().length);
+        for (int id : limited.getIds()) assertEquals(0, id % 7);
+        assertEquals(0, engine.execute(Query.parse("COUNT LIMIT 0")).getMatched());
+    }
+
+    @Test
+    void testLimit_TakesLowestMatchingRecords() {
+        PortfolioRecord record = store.record(0);
+        List<Integer> expected = new ArrayList<>();
+        long expectedSum = 0;
+        for (int n = 0; n < RECORDS && expected.size() < 5; n++) {
+            if (record.moveTo(n).getAmount(1) >= 29000) {
+                expected.add(n);
+                expectedSum += record.getAmount(0);
+            }
+        }
+        int[] first = new int[expected.size()];
+        for (int i = 0; i < first.length; i++) first[i] = expected.get(i);
+
+        for (int run = 0; run < 20; run++) {
+            engine.refresh(); // scan from cold columns, as the first query after an import does
+            assertArrayEquals(first, engine.execute(Query.parse("IDS WHERE DEBT >= 29000 LIMIT 5")).getIds());
+            assertEquals(expectedSum, (long) engine.execute(Query.parse("SUM EQUITY WHERE DEBT >= 29000 LIMIT 5")).getValue().getAsDouble());
+        }
+        assertArrayEquals(new int[]{0, 1, 2}, engine.execute(Query.parse("IDS WHERE EQUITY > 0 LIMIT 3")).getIds());
+    }
+
+    @Test
+    void testMissingColumnValues_AreLeftOut() {
+        QueryResult result = engine.execute(Query.parse("MIN APRIL.TOTAL"));
+
+        assertEquals(RECORDS, result.getMatched());
+        assertFalse(result.getValue().isPresent());
+        assertEquals(0, engine.execute(Query.parse("COUNT WHERE APRIL.GOLD != 5")).getMatched());
+    }
+
+    @Test
+    void testRefresh_SeesStoreChanges() {
+        assertEquals(0, engine.execute(Query.parse("COUNT WHERE EQUITY > 1000000")).getMatched());
+        store.record(5).allocate(new int[]{2000000, 0, 0});
+        assertEquals(0, engine.execute(Query.parse("COUNT WHERE EQUITY > 1000000")).getMatched()); // cached column
+
+        engine.refresh();
+        assertEquals(1, engine.execute(Query.parse("COUNT WHERE EQUITY > 1000000")).getMatched());
+    }
+
+    @Test
+    void testParse_RejectsBadQueries() {
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("AVERAGE TOTAL"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("SUM"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("SUM GOLD%"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("COUNT WHERE TOTAL% > 5"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("COUNT WHERE GOLD ~ 5"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("COUNT WHERE SMARCH.GOLD > 5"));
+        assertThrows(IllegalArgumentException.class, () -> Query.parse("COUNT LIMIT 5 EXTRA"));
+    }
+}
@@ -0,0 +1,100 @@
+// -------- test/PortfolioReadModelTest.java --------
+package com.geektrust.backend.readmodel;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class PortfolioReadModelTest {
+
+    private PortfolioReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new PortfolioReadModel();
+    }
+
+    @Test
+    void testQueries_BeforeAllocation_Throw() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> readModel.getBalance(Month.JANUARY));
+        assertEquals("Portfolio not allocated", exception.getMessage());
+    }
+
+    @Test
+    void testMonthClosed_VisibleToNextQuery() {
+        readModel.onAllocated();
+        readModel.onMonthClosed(Month.JANUARY, new int[]{6600, 3000, 1000}, null);
+
+        Map<AssetType, Integer> balance = readModel.getBalance(Month.JANUARY);
+
+        assertEquals(6600, balance.get(AssetType.EQUITY));
+        assertEquals(1000, balance.get(AssetType.GOLD));
+        assertTrue(readModel.getBalance(Month.FEBRUARY).isEmpty());
+        assertTrue(readModel.getRebalance().isEmpty());
+        assertEquals(readModel.published(), readModel.watermark());
+    }
+
+    @Test
+    void testRebalance_KeptUntilReallocation() {
+        readModel.onAllocated();
+        readModel.onMonthClosed(Month.JUNE, new int[]{7000, 3000, 1000}, new int[]{6600, 3300, 1100});
+        readModel.onMonthClosed(Month.JULY, new int[]{7100, 3300, 1100}, null);
+        assertEquals(3300, readModel.getRebalance().get(AssetType.DEBT));
+
+        readModel.onAllocated();
+
+        assertTrue(readModel.getRebalance().isEmpty());
+        assertTrue(readModel.getBalance(Month.JUNE).isEmpty());
+    }
+
+    @Test
+    void testBatch_VisibleOnlyWhenComplete() {
+        readModel.onAllocated();
+        readModel.onMonthClosed(Month.JANUARY, new int[]{6600, 3000, 1000}, null);
+        long before = readModel.published();
+
+        readModel.onBatchStart();
+        readModel.onAllocated();
+        readModel.onMonthClosed(Month.MAY, new int[]{7000, 3000, 1000}, null);
+        readModel.onMonthClosed(Month.JUNE, new int[]{7300, 3100, 1000}, new int[]{7000, 3400, 1000});
+        assertEquals(before, readModel.published());
+        assertEquals(6600, readModel.getBalance(Month.JANUARY).get(AssetType.EQUITY));
+
+        readModel.onBatchEnd();
+
+        assertEquals(before + 1, readModel.published());
+        assertTrue(readModel.getBalance(Month.JANUARY).isEmpty());
+        assertEquals(7000, readModel.getBalance(Month.MAY).get(AssetType.EQUITY));
+        assertEquals(3400, readModel.getRebalance().get(AssetType.DEBT));
+    }
+
+    @Test
+    void testSlowApplier_QueryFoldsPendingEvents() throws Exception {
+        ExecutorService applier = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            PortfolioReadModel delayed = new PortfolioReadModel(task -> applier.execute(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                task.run();
+            }));
+            delayed.onAllocated();
+            delayed.onMonthClosed(Month.MARCH, new int[]{1, 2, 3}, null);
+            assertEquals(0, delayed.watermark());
+
+            assertEquals(2, delayed.getBalance(Month.MARCH).get(AssetType.DEBT)); // folded by the query itself
+            assertEquals(2, delayed.watermark());
+            gate.countDown();
+        } finally {
+            applier.shutdownNow();
+        }
+    }
+}
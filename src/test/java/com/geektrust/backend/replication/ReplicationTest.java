@@ -0,0 +1,187 @@
+// -------- test/ReplicationTest.java --------
+package com.geektrust.backend.replication;
+
+import com.geektrust.backend.App;
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.daemon.DaemonClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class ReplicationTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private ReplicationLog log;
+    private ReplicationPrimary primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private Path queries;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        log = new ReplicationLog();
+        primary = new ReplicationPrimary(DaemonConstants.EPHEMERAL_PORT, log).start();
+        queries = Files.createTempFile("queries", ".txt");
+        Files.write(queries, Arrays.asList("BALANCE MARCH", "REBALANCE", "LAG"), StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Replica replica : replicas) replica.close();
+        primary.close();
+        Files.deleteIfExists(queries);
+    }
+
+    @Test
+    void testReplicas_ServeSameAnswersAsPrimary() throws Exception {
+        Replica early = startReplica();
+        runOnPrimary("sample_input/input2.txt");
+        Replica late = startReplica(); // joins after the run and replays the whole log
+
+        for (Replica replica : Arrays.asList(early, late)) {
+            assertTrue(replica.awaitApplied(log.head(), TIMEOUT_MILLIS));
+            assertEquals(0, replica.lag());
+            String[] answers = query(replica).trim().split("\n");
+            assertEquals("15937 14552 6187", answers[0].trim());
+            assertEquals("CANNOT_REBALANCE", answers[1].trim());
+            assertEquals(log.head() + " " + log.head() + " 0", answers[2].trim());
+        }
+    }
+
+    @Test
+    void testPrimary_ReportsLagFromAcknowledgements() throws Exception {
+        Replica replica = startReplica();
+        runOnPrimary("sample_input/input1.txt");
+        assertTrue(replica.awaitApplied(log.head(), TIMEOUT_MILLIS));
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!primary.replicaLags().values().equals(Collections.singletonList(0L))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Collections.singletonList(0L), new ArrayList<>(primary.replicaLags().values()));
+    }
+
+    @Test
+    void testFailedMutations_AreNotReplicated() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApplicationConfig session = new ApplicationConfig(new PrintStream(output, true, "UTF-8"), log);
+        App.process(new BufferedReader(new StringReader("CHANGE 4.00% 10.00% 2.00% JANUARY\nALLOCATE 6000 3000 1000\nBALANCE JANUARY")),
+                session.getCommandInvoker());
+
+        assertEquals(1, log.head());
+        assertEquals("ALLOCATE 6000 3000 1000", log.get(1));
+    }
+
+    @Test
+    void testFailedCommandMidStream_ReplicaMatchesPrimary() throws Exception {
+        Replica replica = startReplica();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ApplicationConfig session = new ApplicationConfig(new PrintStream(output, true, "UTF-8"), log);
+        App.process(new BufferedReader(new StringReader("ALLOCATE 6000 3000 1000\nSIP -5 0 0\n"
+                        + "CHANGE 10% 0% 0% JANUARY\nCHANGE 10% -200% 0% FEBRUARY\nBALANCE JANUARY\nBALANCE FEBRUARY")),
+                session.getCommandInvoker());
+        Files.write(queries, Arrays.asList("BALANCE JANUARY", "BALANCE FEBRUARY"), StandardCharsets.UTF_8);
+
+        assertEquals(Arrays.asList("ALLOCATE 6000 3000 1000", "CHANGE 10% 0% 0% JANUARY"), Arrays.asList(log.get(1), log.get(2)));
+        assertEquals(2, log.head());
+        assertTrue(replica.awaitApplied(log.head(), TIMEOUT_MILLIS));
+        String[] primaryLines = output.toString("UTF-8").trim().split("\n");
+        String[] replicaAnswers = query(replica).trim().split("\n");
+        assertEquals("6600 3000 1000", primaryLines[primaryLines.length - 2].trim());
+        assertEquals(primaryLines[primaryLines.length - 2].trim(), replicaAnswers[0].trim());
+        assertEquals(primaryLines[primaryLines.length - 1].trim(), replicaAnswers[1].trim());
+    }
+
+    @Test
+    void testLog_DropsAcknowledgedEntries_AndRefusesReplicasThatCannotReplay() throws Exception {
+        primary.close();
+        log = new ReplicationLog(2);
+        primary = new ReplicationPrimary(DaemonConstants.EPHEMERAL_PORT, log).start();
+        Replica early = startReplica();
+        runOnPrimary("sample_input/input2.txt");
+        awaitAcknowledged(early);
+
+        for (int i = 0; i < 4; i++) log.append("BALANCE MARCH");
+        awaitAcknowledged(early);
+        log.append("BALANCE MARCH"); // the window is full and acknowledged, so older entries go
+        assertTrue(log.retained() < 4, "retained " + log.retained());
+        assertThrows(IllegalArgumentException.class, () -> log.get(1));
+
+        Replica late = startReplica();
+        assertTrue(awaitClose(late), "late replica was not refused");
+        assertEquals(0, late.appliedSequence());
+    }
+
+    @Test
+    void testReplica_DisconnectsOnMalformedFrame() throws Exception {
+        try (ServerSocket fakePrimary = new ServerSocket(DaemonConstants.EPHEMERAL_PORT, 1, InetAddress.getLoopbackAddress())) {
+            Replica replica = new Replica(fakePrimary.getLocalPort(), DaemonConstants.EPHEMERAL_PORT).start();
+            replicas.add(replica);
+            try (Socket stream = fakePrimary.accept()) {
+                stream.setSoTimeout((int) TIMEOUT_MILLIS);
+                Writer frames = new OutputStreamWriter(stream.getOutputStream(), StandardCharsets.UTF_8);
+                frames.write("1 3 ALLOCATE 6000 3000 1000\nx 3 SIP 0 0 0\n3 3 CHANGE 10% 0% 0% JANUARY\n");
+                frames.flush();
+
+                InputStream acks = stream.getInputStream();
+                while (acks.read() != -1) {
+                    // the replica closes its end instead of leaving a dead applier behind an open socket
+                }
+            }
+
+            assertTrue(awaitClose(replica));
+            assertEquals(1, replica.appliedSequence());
+        }
+    }
+
+    private void awaitAcknowledged(Replica replica) throws InterruptedException {
+        assertTrue(replica.awaitApplied(log.head(), TIMEOUT_MILLIS));
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!primary.replicaLags().values().equals(Collections.singletonList(0L))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean awaitClose(Replica replica) throws InterruptedException {
+        Thread waiter = new Thread(() -> {
+            try {
+                replica.awaitClose();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(TIMEOUT_MILLIS);
+        return !waiter.isAlive();
+    }
+
+    private Replica startReplica() throws IOException {
+        Replica replica = new Replica(primary.getPort(), DaemonConstants.EPHEMERAL_PORT).start();
+        replicas.add(replica);
+        return replica;
+    }
+
+    private void runOnPrimary(String file) throws Exception {
+        ApplicationConfig session = new ApplicationConfig(new PrintStream(new ByteArrayOutputStream()), log);
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file))) {
+            App.process(reader, session.getCommandInvoker());
+        }
+    }
+
+    private String query(Replica replica) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DaemonClient.submit(replica.getQueryPort(), queries.toString(), output);
+        return output.toString("UTF-8");
+    }
+}
@@ -0,0 +1,84 @@
+// -------- test/LaneSchedulerTest.java --------
+package com.geektrust.backend.scheduling;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class LaneSchedulerTest {
+
+    @Test
+    void testLane_ClassifiesQueriesAsInteractive() {
+        assertEquals(Lane.INTERACTIVE, Lane.of("balance"));
+        assertEquals(Lane.INTERACTIVE, Lane.of("REBALANCE"));
+        assertEquals(Lane.BULK, Lane.of("CHANGE"));
+        assertEquals(Lane.BULK, Lane.of("ALLOCATE"));
+    }
+
+    @Test
+    void testQueuedQuery_OvertakesEarlierBulkWaiters() throws Exception {
+        LaneScheduler scheduler = new LaneScheduler(1, 8, 1);
+        List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newCachedThreadPool();
+        try {
+            threads.submit(() -> scheduler.run(Lane.BULK, () -> awaitQuietly(release)));
+            awaitRunning(scheduler, Lane.BULK, 1);
+            for (int i = 0; i < 3; i++) threads.submit(() -> scheduler.run(Lane.BULK, () -> order.add(Lane.BULK)));
+            awaitWaiting(scheduler, Lane.BULK, 3);
+            threads.submit(() -> scheduler.run(Lane.INTERACTIVE, () -> order.add(Lane.INTERACTIVE)));
+            awaitWaiting(scheduler, Lane.INTERACTIVE, 1);
+
+            release.countDown();
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(Arrays.asList(Lane.INTERACTIVE, Lane.BULK, Lane.BULK, Lane.BULK), order);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBackloggedLanes_ShareSlotsByWeight() throws Exception {
+        LaneScheduler scheduler = new LaneScheduler(1, 4, 1);
+        List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newCachedThreadPool();
+        try {
+            threads.submit(() -> scheduler.run(Lane.BULK, () -> awaitQuietly(release)));
+            awaitRunning(scheduler, Lane.BULK, 1);
+            for (int i = 0; i < 8; i++) threads.submit(() -> scheduler.run(Lane.INTERACTIVE, () -> order.add(Lane.INTERACTIVE)));
+            for (int i = 0; i < 3; i++) threads.submit(() -> scheduler.run(Lane.BULK, () -> order.add(Lane.BULK)));
+            awaitWaiting(scheduler, Lane.INTERACTIVE, 8);
+            awaitWaiting(scheduler, Lane.BULK, 3);
+
+            release.countDown();
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+
+            // four interactive grants per bulk grant; ties go to INTERACTIVE
+            Lane i = Lane.INTERACTIVE, b = Lane.BULK;
+            assertEquals(Arrays.asList(i, i, i, i, i, b, i, i, i, b, b), order);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static void awaitRunning(LaneScheduler scheduler, Lane lane, long grants) throws InterruptedException {
+        while (scheduler.granted(lane) < grants) Thread.sleep(1);
+    }
+
+    private static void awaitWaiting(LaneScheduler scheduler, Lane lane, int waiting) throws InterruptedException {
+        while (scheduler.waiting(lane) < waiting) Thread.sleep(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
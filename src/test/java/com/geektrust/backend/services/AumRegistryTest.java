@@ -0,0 +1,73 @@
+// -------- test/AumRegistryTest.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.AssetType;
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.repositories.InMemoryPortfolioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class AumRegistryTest {
+
+    private AumRegistry registry;
+    private PortfolioService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AumRegistry();
+        service = new PortfolioService(new InMemoryPortfolioRepository(), registry);
+    }
+
+    @Test
+    void testAllocate_CreditsHoldings() {
+        service.allocate(allocations(6000, 3000, 1000));
+
+        assertEquals(6000, registry.get(AssetType.EQUITY));
+        assertEquals(3000, registry.get(AssetType.DEBT));
+        assertEquals(1000, registry.get(AssetType.GOLD));
+        assertEquals(10000, registry.total());
+    }
+
+    @Test
+    void testChangesAndRebalance_MatchPortfolioBalances() {
+        service.allocate(allocations(6000, 3000, 1000));
+        service.setSip(allocations(200, 100, 50));
+        Map<AssetType, Double> roi = new EnumMap<>(AssetType.class);
+        roi.put(AssetType.EQUITY, 0.07);
+        roi.put(AssetType.DEBT, -0.02);
+        roi.put(AssetType.GOLD, 0.03);
+
+        Month month = Month.JANUARY;
+        for (int i = 0; i < 6; i++) {
+            service.change(month, roi);
+            month = month.next();
+        }
+
+        Map<AssetType, Integer> rebalanced = service.getRebalance();
+        long expectedTotal = 0;
+        for (AssetType type : AssetType.values()) {
+            assertEquals((long) rebalanced.get(type), registry.get(type));
+            expectedTotal += rebalanced.get(type);
+        }
+        assertEquals(expectedTotal, registry.total());
+    }
+
+    @Test
+    void testReallocate_ReplacesPreviousHoldings() {
+        service.allocate(allocations(6000, 3000, 1000));
+        service.allocate(allocations(100, 200, 300));
+
+        assertEquals(100, registry.get(AssetType.EQUITY));
+        assertEquals(600, registry.total());
+    }
+
+    private Map<AssetType, Integer> allocations(int equity, int debt, int gold) {
+        Map<AssetType, Integer> values = new EnumMap<>(AssetType.class);
+        values.put(AssetType.EQUITY, equity);
+        values.put(AssetType.DEBT, debt);
+        values.put(AssetType.GOLD, gold);
+        return values;
+    }
+}
@@ -0,0 +1,56 @@
+// -------- test/GoalSeekerTest.java --------
+package com.geektrust.backend.services;
+
+import com.geektrust.backend.constants.Month;
+import com.geektrust.backend.constants.ServiceConstants;
+import com.geektrust.backend.offheap.OffHeapPortfolioStore;
+import com.geektrust.backend.offheap.PortfolioRecord;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class GoalSeekerTest {
+
+    private static final double[] ROI = {0.012, 0.006, 0.004};
+
+    @Test
+    void testMinimumSips_ParallelMatchesOneByOne() {
+        OffHeapPortfolioStore store = new OffHeapPortfolioStore(4096);
+        Random random = new Random(47);
+        for (int n = 0; n < 2500; n++) { // spans several blocks
+            PortfolioRecord record = store.record(store.addRecord());
+            record.allocate(new int[]{1000 + random.nextInt(90000), random.nextInt(50000), random.nextInt(20000)});
+            if (n % 3 == 0) record.setSip(new int[]{random.nextInt(5000), random.nextInt(2000), 100});
+        }
+        RebalancePolicy policy = new ScheduledRebalancePolicy();
+
+        long[] totals = GoalSeeker.minimumSips(store, policy, Month.MARCH, 60, ROI, 2_000_000L);
+
+        GoalSeeker seeker = new GoalSeeker(policy);
+        PortfolioRecord record = store.record(0);
+        for (int index = 0; index < store.size(); index += 97) {
+            record.moveTo(index);
+            double[] start = new double[3], ratios = new double[3], weights = new double[3];
+            long sipTotal = 0;
+            for (int i = 0; i < 3; i++) {
+                start[i] = record.getAmount(i);
+                ratios[i] = record.getAllocationRatio(i);
+                sipTotal += record.getSipAmount(i);
+            }
+            for (int i = 0; i < 3; i++) weights[i] = (sipTotal > 0) ? record.getSipAmount(i) / (double) sipTotal : ratios[i];
+            int[] sip = seeker.minimumSip(start, ratios, weights, false, Month.MARCH, 60, ROI, 2_000_000L);
+            assertEquals(Arrays.stream(sip).asLongStream().sum(), totals[index]);
+        }
+    }
+
+    @Test
+    void testMinimumSips_UnreachableGoalIsFlagged() {
+        OffHeapPortfolioStore store = new OffHeapPortfolioStore(16);
+        store.record(store.addRecord()).allocate(new int[]{6000, 3000, 1000});
+
+        long[] totals = GoalSeeker.minimumSips(store, new ScheduledRebalancePolicy(), Month.JANUARY, 12,
+                new double[]{-1.0, -1.0, -1.0}, 1_000L);
+
+        assertEquals(ServiceConstants.GOAL_UNREACHABLE, totals[0]);
+    }
+}
@@ -5,6 +5,7 @@ package com.geektrust.backend.services;
 import com.geektrust.backend.constants.*;
 import com.geektrust.backend.entities.Asset;
 import com.geektrust.backend.entities.Portfolio;
+import com.geektrust.backend.repositories.InMemoryPortfolioRepository;
 import com.geektrust.backend.repositories.PortfolioRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -369,6 +370,253 @@ public class PortfolioServiceTest {
         // (This would need to be verified through the service's internal state)
     }
 
+    @Test
+    void testProject_MatchesSequentialChanges() {
+        PortfolioService projected = new PortfolioService(new InMemoryPortfolioRepository());
+        PortfolioService replayed = new PortfolioService(new InMemoryPortfolioRepository());
+        for (PortfolioService service : Arrays.asList(projected, replayed)) {
+            service.allocate(createTestAllocations());
+            service.setSip(createTestSipValues());
+        }
+
+        int[] balances = projected.project(14, new double[]{0.05, 0.03, 0.02}, null);
+
+        Month month = Month.JANUARY;
+        AssetType[] types = AssetType.values();
+        for (int m = 0; m < 14; m++) {
+            replayed.change(month, createTestRoiMap());
+            Map<AssetType, Integer> expected = replayed.getBalance(month);
+            for (AssetType type : types) {
+                assertEquals(expected.get(type), balances[m * types.length + type.ordinal()]);
+            }
+            month = month.next();
+        }
+    }
+
+    @Test
+    void testProject_DoesNotMutatePortfolio() {
+        when(mockRepository.get()).thenReturn(mockPortfolio);
+
+        portfolioService.project(24, new double[]{0.05, 0.03, 0.02}, new int[]{100, 50, 25});
+
+        assertEquals(EQUITY_AMOUNT, mockPortfolio.getAsset(AssetType.EQUITY).getAmount());
+        assertTrue(mockPortfolio.getLastRebalancedSnapshot().isEmpty());
+    }
+
+    @Test
+    void testProject_InvalidArguments_ThrowException() {
+        when(mockRepository.get()).thenReturn(mockPortfolio);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> portfolioService.project(0, new double[]{0.05, 0.03, 0.02}, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> portfolioService.project(2, new double[]{0.05, 0.03}, null));
+    }
+
+    @Test
+    void testSeekGoal_FindsSmallestSipThatReachesTarget() {
+        PortfolioService service = new PortfolioService(new InMemoryPortfolioRepository());
+        service.allocate(createTestAllocations());
+        service.setSip(createTestSipValues());
+        service.change(Month.JANUARY, createTestRoiMap()); // SIP now active, so PROJECT with a schedule matches GOAL
+        double[] roi = {0.01, 0.005, 0.004};
+        int months = 480; // 40 years
+
+        int[] sip = service.seekGoal(5_000_000L, months, roi);
+
+        assertNotNull(sip);
+        assertTrue(projectedTotal(service, months, roi, sip) >= 5_000_000L);
+        int total = 0;
+        for (int amount : sip) total += amount;
+        int[] smaller = new int[sip.length];
+        int[] plan = {100, 50, 25}; // createTestSipValues, which sets the split
+        for (int i = 0; i < smaller.length; i++) smaller[i] = (int) Math.floor((total - 1) * (plan[i] / 175.0));
+        assertTrue(projectedTotal(service, months, roi, smaller) < 5_000_000L);
+    }
+
+    @Test
+    void testSeekGoal_UnreachableTarget_ReturnsNull() {
+        when(mockRepository.get()).thenReturn(mockPortfolio);
+
+        assertNull(portfolioService.seekGoal(1_000L, 12, new double[]{-1.0, -1.0, -1.0}));
+        assertArrayEquals(new int[3], portfolioService.seekGoal(TOTAL_AMOUNT, 1, new double[]{0.0, 0.0, 0.0}));
+    }
+
+    @Test
+    void testChange_DriftPolicy_RebalancesOnlyPastThreshold() {
+        PortfolioService service = new PortfolioService(
+                new InMemoryPortfolioRepository(), null, new DriftRebalancePolicy(0.05));
+        service.allocate(createTestAllocations());
+
+        // uniform returns keep weights on target: no rebalance even in JUNE
+        Map<AssetType, Double> uniform = new EnumMap<>(AssetType.class);
+        for (AssetType type : AssetType.values()) uniform.put(type, 0.04);
+        service.change(Month.JUNE, uniform);
+        assertTrue(service.getRebalance().isEmpty());
+
+        // equity rally pushes equity well past 5 points of drift
+        Map<AssetType, Double> rally = new EnumMap<>(AssetType.class);
+        rally.put(AssetType.EQUITY, 0.50);
+        rally.put(AssetType.DEBT, 0.0);
+        rally.put(AssetType.GOLD, 0.0);
+        service.change(Month.JULY, rally);
+
+        Map<AssetType, Integer> rebalanced = service.getRebalance();
+        assertFalse(rebalanced.isEmpty());
+        int total = rebalanced.values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(EQUITY_RATIO, rebalanced.get(AssetType.EQUITY) / (double) total, DELTA);
+    }
+
+    @Test
+    void testChange_PolicyIgnoringDrift_IsNotHandedDrift() {
+        List<Double> handed = new ArrayList<>();
+        RebalancePolicy calendar = new RebalancePolicy() {
+            @Override
+            public boolean shouldRebalance(Month month, double drift) {
+                handed.add(drift);
+                return false;
+            }
+
+            @Override
+            public boolean usesDrift() {
+                return false;
+            }
+        };
+        PortfolioService service = new PortfolioService(new InMemoryPortfolioRepository(), null, calendar);
+        service.allocate(createTestAllocations());
+        Map<AssetType, Double> rally = new EnumMap<>(AssetType.class);
+        rally.put(AssetType.EQUITY, 0.50);
+        service.change(Month.JULY, rally);
+
+        assertEquals(Collections.singletonList(EntityConstants.NO_DRIFT), handed);
+        assertFalse(new ScheduledRebalancePolicy().usesDrift());
+        assertTrue(new DriftRebalancePolicy(0.05).usesDrift());
+    }
+
+    @Test
+    void testDriftRebalancePolicy_NegativeThreshold_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new DriftRebalancePolicy(-0.01));
+    }
+
+    @Test
+    void testPrimitiveOverloads_MatchMapApi() {
+        PortfolioService viaMaps = new PortfolioService(new InMemoryPortfolioRepository());
+        PortfolioService viaArrays = new PortfolioService(new InMemoryPortfolioRepository());
+        viaMaps.allocate(createTestAllocations());
+        viaMaps.setSip(createTestSipValues());
+        viaArrays.allocate(new int[]{EQUITY_AMOUNT, DEBT_AMOUNT, GOLD_AMOUNT});
+        viaArrays.setSip(new int[]{100, 50, 25});
+
+        double[] roi = {0.05, 0.03, 0.02};
+        Month month = Month.JANUARY;
+        for (int m = 0; m < 12; m++) {
+            viaMaps.change(month, createTestRoiMap());
+            viaArrays.change(month, roi);
+            assertEquals(viaMaps.getBalance(month), viaArrays.getBalance(month));
+            month = month.next();
+        }
+        assertEquals(viaMaps.getRebalance(), viaArrays.getRebalance());
+    }
+
+    @Test
+    void testPrimitiveOverloads_WrongWidth_ThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> portfolioService.allocate(new int[]{6000, 3000}));
+        assertThrows(IllegalArgumentException.class, () -> portfolioService.setSip(new int[]{100}));
+        assertThrows(IllegalArgumentException.class,
+                () -> portfolioService.change(Month.JANUARY, new double[]{0.05, 0.03, 0.02, 0.01}));
+    }
+
+    @Test
+    void testApplyBatch_MatchesSequentialCalls() {
+        PortfolioService sequential = new PortfolioService(new InMemoryPortfolioRepository());
+        PortfolioService batched = new PortfolioService(new InMemoryPortfolioRepository());
+        int[] allocation = {EQUITY_AMOUNT, DEBT_AMOUNT, GOLD_AMOUNT};
+        int[] sip = {100, 50, 25};
+        double[] roi = {0.05, 0.03, 0.02};
+
+        sequential.allocate(allocation);
+        sequential.setSip(sip);
+        List<PortfolioOp> ops = new ArrayList<>();
+        ops.add(PortfolioOp.allocate(allocation));
+        ops.add(PortfolioOp.sip(sip));
+        for (Month month : Month.values()) {
+            sequential.change(month, roi);
+            ops.add(PortfolioOp.change(month, roi));
+        }
+        batched.applyBatch(ops);
+
+        for (Month month : Month.values()) {
+            assertEquals(sequential.getBalance(month), batched.getBalance(month));
+        }
+        assertEquals(sequential.getRebalance(), batched.getRebalance());
+    }
+
+    @Test
+    void testApplyBatch_InvalidOp_LeavesPortfolioUntouched() {
+        InMemoryPortfolioRepository repository = new InMemoryPortfolioRepository();
+        PortfolioService service = new PortfolioService(repository);
+        service.allocate(createTestAllocations());
+        Portfolio allocated = repository.get();
+        double[] roi = {0.05, 0.03, 0.02};
+
+        List<PortfolioOp> ops = Arrays.asList(
+                PortfolioOp.change(Month.JANUARY, roi),
+                PortfolioOp.allocate(new int[]{0, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> service.applyBatch(ops));
+
+        assertSame(allocated, repository.get());
+        assertEquals(EQUITY_AMOUNT, allocated.getAsset(AssetType.EQUITY).getAmount());
+        assertTrue(service.getBalance(Month.JANUARY).isEmpty());
+    }
+
+    @Test
+    void testApplyBatch_LaterOpFails_EarlierMonthsNotApplied() {
+        InMemoryPortfolioRepository repository = new InMemoryPortfolioRepository();
+        PortfolioService service = new PortfolioService(repository);
+        service.allocate(new int[]{6000, 3000, 1000});
+        double[] roi = {0.10, 0.10, 0.10};
+
+        assertThrows(IllegalArgumentException.class, () -> service.applyBatch(Arrays.asList(
+                PortfolioOp.change(Month.JANUARY, roi),
+                PortfolioOp.change(Month.FEBRUARY, new double[]{-2.0, 0.0, 0.0}))));
+        assertThrows(IllegalArgumentException.class, () -> service.applyBatch(Arrays.asList(
+                PortfolioOp.change(Month.MARCH, roi),
+                PortfolioOp.sip(new int[]{-5, 0, 0}))));
+        assertThrows(IllegalArgumentException.class, () -> service.applyBatch(Arrays.asList(
+                PortfolioOp.change(Month.APRIL, roi),
+                PortfolioOp.allocate(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, 0}))));
+
+        assertTrue(service.getBalance(Month.JANUARY).isEmpty());
+        assertTrue(service.getBalance(Month.MARCH).isEmpty());
+        assertTrue(service.getBalance(Month.APRIL).isEmpty());
+        assertEquals(6000, repository.get().getAsset(AssetType.EQUITY).getAmount());
+    }
+
+    @Test
+    void testInvalidMutations_ThrowBeforeChangingState() {
+        InMemoryPortfolioRepository repository = new InMemoryPortfolioRepository();
+        PortfolioService service = new PortfolioService(repository);
+        service.allocate(new int[]{6000, 3000, 1000});
+
+        assertThrows(IllegalArgumentException.class, () -> service.setSip(new int[]{-5, 0, 0}));
+        service.change(Month.JANUARY, new double[]{0.10, 0.0, 0.0}); // activates the SIP plan, which must be empty
+        assertThrows(IllegalArgumentException.class, () -> service.change(Month.FEBRUARY, new double[]{0.10, -2.0, 0.0}));
+        assertThrows(IllegalArgumentException.class, () -> service.allocate(new int[]{7000, -1, 1000}));
+
+        assertEquals(0.0, repository.get().getAsset(AssetType.EQUITY).getSipAmount());
+        assertEquals(6600, repository.get().getAsset(AssetType.EQUITY).getAmount());
+        assertTrue(service.getBalance(Month.FEBRUARY).isEmpty());
+    }
+
+    @Test
+    void testApplyBatch_ChangeBeforeAllocate_ThrowsException() {
+        PortfolioService service = new PortfolioService(new InMemoryPortfolioRepository());
+
+        assertThrows(IllegalStateException.class, () -> service.applyBatch(Arrays.asList(
+                PortfolioOp.change(Month.JANUARY, new double[]{0.05, 0.03, 0.02}),
+                PortfolioOp.allocate(new int[]{EQUITY_AMOUNT, DEBT_AMOUNT, GOLD_AMOUNT}))));
+    }
+
     // Helper methods
     private Map<AssetType, Integer> createTestAllocations() {
         Map<AssetType, Integer> allocations = new EnumMap<>(AssetType.class);
@@ -393,4 +641,11 @@ public class PortfolioServiceTest {
         roiMap.put(AssetType.GOLD, 0.02); // 2%
         return roiMap;
     }
-}
\ No newline at end of file
+
+    private static long projectedTotal(PortfolioService service, int months, double[] roi, int[] sip) {
+        int[] balances = service.project(months, roi, sip);
+        long total = 0;
+        for (int i = (months - 1) * sip.length; i < months * sip.length; i++) total += balances[i];
+        return total;
+    }
+}
@@ -0,0 +1,203 @@
+// -------- test/ShardRouterTest.java --------
+package com.geektrust.backend.sharding;
+
+import com.geektrust.backend.App;
+import com.geektrust.backend.appConfig.ApplicationConfig;
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.daemon.DaemonClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class ShardRouterTest {
+
+    private static final int PORTFOLIOS = 60;
+
+    private final List<ShardWorker> shards = new ArrayList<>();
+    private ShardRouter router;
+    private Path job;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        shards.add(new ShardWorker(DaemonConstants.EPHEMERAL_PORT).start());
+        shards.add(new ShardWorker(DaemonConstants.EPHEMERAL_PORT).start());
+        router = new ShardRouter(DaemonConstants.EPHEMERAL_PORT,
+                Arrays.asList(shards.get(0).getPort(), shards.get(1).getPort())).start();
+        job = Files.createTempFile("book", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        router.close();
+        for (ShardWorker shard : shards) shard.close();
+        Files.deleteIfExists(job);
+    }
+
+    @Test
+    void testRouter_MatchesSingleProcessRunPerPortfolio() throws IOException {
+        List<String> sample = Files.readAllLines(Paths.get("sample_input/input1.txt"));
+        List<String> lines = new ArrayList<>();
+        for (String line : sample) {
+            for (int p = 0; p < PORTFOLIOS; p++) lines.add("p" + p + " " + line); // interleaved portfolios
+        }
+
+        List<String> routed = submit(lines);
+
+        List<String> expected = new ArrayList<>();
+        List<String> single = runLocally(sample);
+        for (String answer : single) {
+            for (int p = 0; p < PORTFOLIOS; p++) expected.add(answer);
+        }
+        assertEquals(expected, routed);
+        assertEquals(PORTFOLIOS, shards.get(0).size() + shards.get(1).size());
+        assertTrue(shards.get(0).size() > 0 && shards.get(1).size() > 0);
+    }
+
+    @Test
+    void testAddShard_MovesOnlyItsShareAndKeepsAnswers() throws IOException {
+        List<String> sample = Files.readAllLines(Paths.get("sample_input/input2.txt"));
+        List<String> setup = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            for (String line : sample) (line.startsWith("BALANCE") || line.startsWith("REBALANCE") ? queries : setup).add("p" + p + " " + line);
+        }
+        submit(setup);
+        List<String> before = submit(queries);
+        Map<String, Integer> ownersBefore = owners();
+
+        ShardWorker added = new ShardWorker(DaemonConstants.EPHEMERAL_PORT).start();
+        shards.add(added);
+        int moved = Integer.parseInt(submit(Collections.singletonList("@ADD_SHARD " + added.getPort())).get(0));
+
+        assertTrue(moved > 0 && moved < PORTFOLIOS, "moved " + moved);
+        assertEquals(moved, added.size());
+        assertEquals(PORTFOLIOS, shards.get(0).size() + shards.get(1).size() + added.size());
+        for (Map.Entry<String, Integer> owner : owners().entrySet()) {
+            int now = owner.getValue();
+            assertTrue(now == ownersBefore.get(owner.getKey()) || now == added.getPort()); // only moves onto the new shard
+        }
+        assertEquals(before, submit(queries));
+    }
+
+    @Test
+    void testAddShard_FailedCommandsDoNotChangeMigratedPortfolios() throws IOException {
+        List<String> setup = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            for (String line : Arrays.asList("ALLOCATE 6000 3000 1000", "SIP -5 0 0", "CHANGE 10% 0% 0% JANUARY",
+                    "CHANGE 10% -200% 0% FEBRUARY", "SIP 100 50 25", "CHANGE 5% 1% 2% MARCH")) {
+                setup.add("p" + p + " " + line);
+            }
+            queries.add("p" + p + " BALANCE JANUARY");
+            queries.add("p" + p + " BALANCE MARCH");
+        }
+        submit(setup);
+        List<String> before = submit(queries);
+
+        ShardWorker added = new ShardWorker(DaemonConstants.EPHEMERAL_PORT).start();
+        shards.add(added);
+        assertTrue(Integer.parseInt(submit(Collections.singletonList("@ADD_SHARD " + added.getPort())).get(0)) > 0);
+
+        assertEquals("6600 3000 1000", before.get(0));
+        assertEquals(before, submit(queries));
+    }
+
+    @Test
+    void testClientAdminRequests_AreRejected() throws IOException {
+        submit(Arrays.asList("p1 ALLOCATE 6000 3000 1000", "p2 ALLOCATE 6000 3000 1000"));
+
+        List<String> output = submit(Arrays.asList("@DROP p1", "@PORTFOLIOS", "p1 AUM"));
+
+        assertEquals(Arrays.asList("Unknown router request: @DROP", "Unknown router request: @PORTFOLIOS", "6000 3000 1000"), output);
+        assertEquals(2, shards.get(0).size() + shards.get(1).size());
+    }
+
+    @Test
+    void testAddShard_BadRequestsAreAnsweredAndLeaveRingAlone() throws IOException {
+        List<String> setup = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            setup.add("p" + p + " ALLOCATE 6000 3000 1000");
+            queries.add("p" + p + " AUM");
+        }
+        submit(setup);
+        int deadPort;
+        try (ServerSocket probe = new ServerSocket(DaemonConstants.EPHEMERAL_PORT)) {
+            deadPort = probe.getLocalPort(); // closed below: nobody listens there
+        }
+
+        List<String> output = submit(Arrays.asList("@ADD_SHARD " + deadPort, "@ADD_SHARD abc",
+                "@ADD_SHARD " + shards.get(0).getPort(), "@ADD_SHARD", "p0 AUM"));
+
+        assertEquals(5, output.size());
+        assertTrue(output.get(0).startsWith("Cannot add shard " + deadPort + ": "), output.get(0));
+        assertEquals("Cannot add shard abc: not a port", output.get(1));
+        assertEquals("Cannot add shard " + shards.get(0).getPort() + ": Shard already on the ring: " + shards.get(0).getPort(), output.get(2));
+        assertEquals("Cannot add shard: no port given", output.get(3));
+        assertEquals("6000 3000 1000", output.get(4));
+        assertEquals(Collections.nCopies(PORTFOLIOS, "6000 3000 1000"), submit(queries));
+        assertEquals(PORTFOLIOS, shards.get(0).size() + shards.get(1).size());
+    }
+
+    @Test
+    void testAum_MergedAcrossShards() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int p = 0; p < PORTFOLIOS; p++) lines.add("p" + p + " ALLOCATE 6000 3000 1000");
+        lines.add("AUM");
+
+        List<String> output = submit(lines);
+
+        assertEquals(Collections.singletonList((6000L * PORTFOLIOS) + " " + (3000L * PORTFOLIOS) + " " + (1000L * PORTFOLIOS)), output);
+    }
+
+    @Test
+    void testRing_AddingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(128);
+        ring.add("a");
+        ring.add("b");
+        Map<String, String> before = new HashMap<>();
+        for (int k = 0; k < 10_000; k++) before.put("key" + k, ring.nodeFor("key" + k));
+
+        ring.add("c");
+
+        int moved = 0;
+        for (Map.Entry<String, String> e : before.entrySet()) {
+            String now = ring.nodeFor(e.getKey());
+            if (now.equals(e.getValue())) continue;
+            assertEquals("c", now);
+            moved++;
+        }
+        assertTrue(moved > 2_000 && moved < 4_700, "moved " + moved); // about a third
+    }
+
+    private Map<String, Integer> owners() {
+        Map<String, Integer> owners = new HashMap<>();
+        for (int p = 0; p < PORTFOLIOS; p++) owners.put("p" + p, router.shardFor("p" + p));
+        return owners;
+    }
+
+    private List<String> submit(List<String> lines) throws IOException {
+        Files.write(job, lines, StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DaemonClient.submit(router.getPort(), job.toString(), output);
+        String text = output.toString("UTF-8").trim();
+        return text.isEmpty() ? Collections.emptyList() : Arrays.asList(text.split("\\r?\\n"));
+    }
+
+    private List<String> runLocally(List<String> lines) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(output, true, "UTF-8");
+        try {
+            App.process(new BufferedReader(new StringReader(String.join("\n", lines))), new ApplicationConfig(out).getCommandInvoker());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return Arrays.asList(output.toString("UTF-8").trim().split("\\r?\\n"));
+    }
+}
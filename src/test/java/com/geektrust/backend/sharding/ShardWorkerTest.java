@@ -0,0 +1,83 @@
+// -------- test/ShardWorkerTest.java --------
+package com.geektrust.backend.sharding;
+
+import com.geektrust.backend.constants.DaemonConstants;
+import com.geektrust.backend.constants.ShardConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Month;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShardWorkerTest {
+
+    private static final int BATCH_LINES = 50_000;
+
+    private ShardWorker shard;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        shard = new ShardWorker(DaemonConstants.EPHEMERAL_PORT).start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        shard.close();
+    }
+
+    @Test
+    void testBalance_AnsweredMidBatchOnSamePortfolio() throws Exception {
+        try (Socket batch = connect(); Socket advisor = connect()) {
+            PrintStream batchOut = new PrintStream(new BufferedOutputStream(batch.getOutputStream()), false, "UTF-8");
+            Thread writer = new Thread(() -> {
+                batchOut.println("p0 ALLOCATE 6000 3000 1000");
+                for (int i = 0; i < BATCH_LINES; i++) {
+                    batchOut.println("p0 CHANGE 0.00% 0.00% 0.00% " + Month.of(i % 12 + 1));
+                }
+                batchOut.flush();
+            });
+            AtomicInteger batchReplies = new AtomicInteger();
+            BufferedReader batchIn = reader(batch);
+            Thread counter = new Thread(() -> {
+                try {
+                    String line;
+                    while ((line = batchIn.readLine()) != null) {
+                        if (line.equals(ShardConstants.END_OF_REPLY)) batchReplies.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.start();
+            counter.start();
+            while (batchReplies.get() <= Month.values().length) Thread.sleep(1); // JANUARY has been changed
+
+            PrintStream advisorOut = new PrintStream(advisor.getOutputStream(), true, "UTF-8");
+            BufferedReader advisorIn = reader(advisor);
+            advisorOut.println("p0 BALANCE JANUARY");
+            String balance = advisorIn.readLine();
+            int repliedBefore = batchReplies.get();
+
+            assertEquals("6000 3000 1000", balance);
+            assertEquals(ShardConstants.END_OF_REPLY, advisorIn.readLine());
+            assertTrue(repliedBefore < BATCH_LINES, "batch finished first: " + repliedBefore);
+            writer.join();
+            batch.shutdownOutput();
+            counter.join();
+            assertEquals(BATCH_LINES + 1, batchReplies.get());
+        }
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), shard.getPort());
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+}
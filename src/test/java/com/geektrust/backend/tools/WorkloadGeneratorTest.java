@@ -0,0 +1,54 @@
+// -------- test/WorkloadGeneratorTest.java --------
+package com.geektrust.backend.tools;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class WorkloadGeneratorTest {
+
+    @Test
+    void testGenerate_SameSeedSameStream() throws IOException {
+        assertEquals(generate(7, 0.1), generate(7, 0.1));
+        assertNotEquals(generate(7, 0.1), generate(8, 0.1));
+    }
+
+    @Test
+    void testGenerate_SessionShape() throws IOException {
+        String[] lines = generate(1, 0.0).split("\n");
+
+        assertTrue(lines[0].startsWith("ALLOCATE "));
+        assertTrue(lines[1].startsWith("SIP "));
+        long changes = Arrays.stream(lines).filter(l -> l.startsWith("CHANGE ")).count();
+        assertEquals(3 * 24, changes);
+        assertTrue(Arrays.stream(lines).filter(l -> l.startsWith("CHANGE ")).allMatch(l -> l.split(" ").length == 5));
+    }
+
+    @Test
+    void testWriteReference_CleanStreamHasNoErrors() throws IOException {
+        Path input = Files.createTempFile("load", ".txt");
+        Path reference = Files.createTempFile("load", ".expected");
+        try {
+            Files.write(input, generate(3, 0.0).getBytes(StandardCharsets.UTF_8));
+
+            WorkloadGenerator.writeReference(input, reference);
+
+            List<String> output = Files.readAllLines(reference, StandardCharsets.UTF_8);
+            assertFalse(output.isEmpty());
+            assertTrue(output.stream().allMatch(l -> l.matches("-?\\d+ -?\\d+ -?\\d+|CANNOT_REBALANCE")), output.toString());
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(reference);
+        }
+    }
+
+    private String generate(long seed, double malformedRate) throws IOException {
+        StringWriter writer = new StringWriter();
+        new WorkloadGenerator(seed, 3, 24, 0.5, 0.1, 0.1, malformedRate).generate(writer);
+        return writer.toString();
+    }
+}